@@ -0,0 +1,77 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the non-mutating queries on a half-full pipe, plus
+ * <code>newInstance</code>, which allocates the backing storage of an empty
+ * pipe of the same capacity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccessorBenchmark {
+
+    @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe"})
+    public String implementation;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+
+    @Setup
+    public void setUp() {
+        pipe = PipeFactory.filled(implementation, capacity, capacity / 2);
+    }
+
+    @Benchmark
+    public int length() {
+        return pipe.length();
+    }
+
+    @Benchmark
+    public int capacity() {
+        return pipe.capacity();
+    }
+
+    @Benchmark
+    public boolean isEmpty() {
+        return pipe.isEmpty();
+    }
+
+    @Benchmark
+    public boolean isFull() {
+        return pipe.isFull();
+    }
+
+    @Benchmark
+    public Integer first() {
+        return pipe.first();
+    }
+
+    @Benchmark
+    public Integer last() {
+        return pipe.last();
+    }
+
+    @Benchmark
+    public Pipe<Integer> newInstance() {
+        return pipe.newInstance();
+    }
+}
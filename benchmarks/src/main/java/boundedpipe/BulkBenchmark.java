@@ -0,0 +1,69 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving a batch of elements through a pipe with the bulk
+ * <code>appendAll(E[], int, int)</code> and <code>removeFirst(E[], int)</code>
+ * against one <code>append</code> and one <code>removeFirst</code> call per
+ * element. The pipe is kept a quarter full, so batches wrap around the ring.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkBenchmark {
+
+    @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe"})
+    public String implementation;
+
+    @Param({"16", "256", "4096"})
+    public int batch;
+
+    private Pipe<Integer> pipe;
+    private Integer[] batchIn;
+    private Integer[] batchOut;
+
+    @Setup
+    public void setUp() {
+        int capacity = 4 * batch;
+        pipe = PipeFactory.filled(implementation, capacity, capacity / 4);
+        batchIn = new Integer[batch];
+        batchOut = new Integer[batch];
+        for (int i = 0; i < batch; i++) {
+            batchIn[i] = i;
+        }
+    }
+
+    @Benchmark
+    public Integer[] bulk() {
+        pipe.appendAll(batchIn, 0, batch);
+        pipe.removeFirst(batchOut, batch);
+        return batchOut;
+    }
+
+    @Benchmark
+    public Integer[] perElement() {
+        for (int i = 0; i < batch; i++) {
+            pipe.append(batchIn[i]);
+        }
+        for (int i = 0; i < batch; i++) {
+            batchOut[i] = pipe.removeFirst();
+        }
+        return batchOut;
+    }
+}
@@ -0,0 +1,62 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot cost of a full pipe at large capacities: <code>copy</code> against
+ * rebuilding the pipe one element at a time by rotating it through
+ * <code>removeFirst</code> and <code>append</code>. The pipe is rotated by half
+ * its capacity first, so array-backed pipes copy a wrapped range.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CopyBenchmark {
+
+    @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe", "SpscArrayPipe", "CircArrayBlockingPipe"})
+    public String implementation;
+
+    @Param({"65536", "1048576"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+
+    @Setup
+    public void setUp() {
+        pipe = PipeFactory.filled(implementation, capacity, capacity);
+        for (int i = 0; i < capacity / 2; i++) {
+            pipe.append(pipe.removeFirst());
+        }
+    }
+
+    @Benchmark
+    public Pipe<Integer> copy() {
+        return pipe.copy();
+    }
+
+    @Benchmark
+    public Pipe<Integer> elementwise() {
+        Pipe<Integer> copy = pipe.newInstance();
+        for (int i = 0; i < capacity; i++) {
+            Integer element = pipe.removeFirst();
+            pipe.append(element);
+            copy.append(element);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,76 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draining a batch from the front of a full pipe, by repeated
+ * <code>removeFirst</code> and by the <code>drainTo</code> visitors. Every
+ * variant refills the pipe with the same bulk <code>appendAll</code>, so the
+ * differences are in the drain alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DrainBenchmark {
+
+    @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe"})
+    public String implementation;
+
+    @Param({"65536"})
+    public int capacity;
+
+    @Param({"256", "4096"})
+    public int batch;
+
+    private Pipe<Integer> pipe;
+    private Pipe<Integer> target;
+    private Integer[] refill;
+
+    @Setup
+    public void setUp() {
+        pipe = PipeFactory.filled(implementation, capacity, capacity);
+        target = PipeFactory.create(implementation, batch);
+        refill = new Integer[batch];
+        for (int i = 0; i < batch; i++) {
+            refill[i] = i;
+        }
+    }
+
+    @Benchmark
+    public void removeFirstLoop(Blackhole blackhole) {
+        for (int i = 0; i < batch && !pipe.isEmpty(); i++) {
+            blackhole.consume(pipe.removeFirst());
+        }
+        pipe.appendAll(refill, 0, batch);
+    }
+
+    @Benchmark
+    public void drainToConsumer(Blackhole blackhole) {
+        pipe.drainTo(blackhole::consume, batch);
+        pipe.appendAll(refill, 0, batch);
+    }
+
+    @Benchmark
+    public Pipe<Integer> drainToPipe() {
+        pipe.drainTo(target, batch);
+        target.clear();
+        pipe.appendAll(refill, 0, batch);
+        return target;
+    }
+}
@@ -0,0 +1,68 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state throughput of <code>prepend</code>, <code>append</code>,
+ * <code>removeFirst</code> and <code>removeLast</code>. The pipe is kept half
+ * full so each operation pair leaves its length unchanged.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EndpointBenchmark {
+
+    @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe"})
+    public String implementation;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+    private Integer element;
+
+    @Setup
+    public void setUp() {
+        pipe = PipeFactory.filled(implementation, capacity, capacity / 2);
+        element = 42;
+    }
+
+    @Benchmark
+    public Integer appendRemoveFirst() {
+        pipe.append(element);
+        return pipe.removeFirst();
+    }
+
+    @Benchmark
+    public Integer prependRemoveLast() {
+        pipe.prepend(element);
+        return pipe.removeLast();
+    }
+
+    @Benchmark
+    public Integer appendRemoveLast() {
+        pipe.append(element);
+        return pipe.removeLast();
+    }
+
+    @Benchmark
+    public Integer prependRemoveFirst() {
+        pipe.prepend(element);
+        return pipe.removeFirst();
+    }
+}
@@ -0,0 +1,64 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appending to a full rolling buffer: making room by hand with
+ * <code>isFull</code> and <code>removeFirst</code>, against
+ * <code>appendEvicting</code> and an overwrite-mode pipe.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvictionBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int capacity;
+
+    private CircArrayPipe<Integer> pipe;
+    private CircArrayPipe<Integer> overwritingPipe;
+    private Integer element;
+
+    @Setup
+    public void setUp() {
+        pipe = new CircArrayPipe<>(capacity);
+        PipeFactory.fill(pipe, capacity);
+        overwritingPipe = new CircArrayPipe<>(capacity, true);
+        PipeFactory.fill(overwritingPipe, capacity);
+        element = 42;
+    }
+
+    @Benchmark
+    public Integer removeFirstThenAppend() {
+        Integer evicted = null;
+        if (pipe.isFull()) evicted = pipe.removeFirst();
+        pipe.append(element);
+        return evicted;
+    }
+
+    @Benchmark
+    public Integer appendEvicting() {
+        return pipe.appendEvicting(element);
+    }
+
+    @Benchmark
+    public Pipe<Integer> overwriteAppend() {
+        overwritingPipe.append(element);
+        return overwritingPipe;
+    }
+}
@@ -0,0 +1,68 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Elements passed from a <code>PipePublisher</code> to a
+ * <code>PipeSubscriber</code> through the common fork/join pool. A batch
+ * size of 1 signals <code>request</code> and wakes producers per element;
+ * larger batches amortize both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlowBenchmark {
+
+    private static final int ELEMENTS = 100000;
+
+    @Param({"1", "16", "128"})
+    public int batchSize;
+
+    @Param({"256"})
+    public int capacity;
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public long publishAndTake() throws Exception {
+        PipePublisher<Integer> publisher = new PipePublisher<>(capacity, ForkJoinPool.commonPool(), batchSize);
+        PipeSubscriber<Integer> subscriber = new PipeSubscriber<>(capacity, batchSize);
+        publisher.subscribe(subscriber);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < ELEMENTS; i++) {
+                    publisher.submit(i);
+                }
+                publisher.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Integer[] dst = new Integer[batchSize];
+        long sum = 0;
+        int taken;
+        while ((taken = subscriber.take(dst, dst.length)) != -1) {
+            for (int i = 0; i < taken; i++) {
+                sum += dst[i];
+            }
+        }
+        producer.join();
+        return sum;
+    }
+}
@@ -0,0 +1,42 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating a pipe with a large capacity and filling it to a small
+ * occupancy. Run with <code>-prof gc</code>: <code>gc.alloc.rate.norm</code>
+ * is the footprint of one such pipe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FootprintBenchmark {
+
+    @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe"})
+    public String implementation;
+
+    @Param({"1048576"})
+    public int capacity;
+
+    @Param({"16", "1024"})
+    public int length;
+
+    @Benchmark
+    public Pipe<Integer> createAndFill() {
+        return PipeFactory.filled(implementation, capacity, length);
+    }
+}
@@ -0,0 +1,101 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of handing elements from one producer thread to one consumer
+ * thread, comparing the lock-free <code>SpscArrayPipe</code> with a
+ * <code>CircArrayPipe</code> guarded by <code>synchronized</code>. The
+ * <code>handoffs</code> counter reports completed transfers; the raw
+ * operation rate also includes attempts on a full or empty pipe.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class HandoffBenchmark {
+
+    @Param({"SpscArrayPipe", "SynchronizedCircArrayPipe"})
+    public String implementation;
+
+    @Param({"1024", "65536"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+    private boolean locked;
+    private final Integer element = 42;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Handoffs {
+
+        public long handoffs;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            handoffs = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        locked = implementation.startsWith("Synchronized");
+        pipe = locked ? new CircArrayPipe<>(capacity) : PipeFactory.create(implementation, capacity);
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public boolean append() {
+        if (locked) {
+            synchronized (pipe) {
+                return offer();
+            }
+        }
+        return offer();
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public Integer removeFirst(Handoffs counter) {
+        Integer result;
+        if (locked) {
+            synchronized (pipe) {
+                result = poll();
+            }
+        } else {
+            result = poll();
+        }
+        if (result != null) {
+            counter.handoffs++;
+        }
+        return result;
+    }
+
+    private boolean offer() {
+        return pipe.tryAppend(element);
+    }
+
+    private Integer poll() {
+        return pipe.pollFirst();
+    }
+}
@@ -0,0 +1,58 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of <code>InstrumentedPipe</code> on a steady append and remove:
+ * the bare pipe, the decorator with counters only, and the decorator that
+ * also measures sojourn times.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstrumentationBenchmark {
+
+    @Param({"CircArrayPipe", "LinkedPipe"})
+    public String implementation;
+
+    @Param({"none", "counters", "sojourn"})
+    public String instrumentation;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+    private Integer element;
+
+    @Setup
+    public void setUp() {
+        pipe = PipeFactory.filled(implementation, capacity, capacity / 2);
+        if (instrumentation.equals("counters")) {
+            pipe = new InstrumentedPipe<>(pipe, false);
+        } else if (instrumentation.equals("sojourn")) {
+            pipe = new InstrumentedPipe<>(pipe, true);
+        }
+        element = 42;
+    }
+
+    @Benchmark
+    public Integer appendRemoveFirst() {
+        pipe.append(element);
+        return pipe.removeFirst();
+    }
+}
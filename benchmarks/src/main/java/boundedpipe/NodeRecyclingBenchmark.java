@@ -0,0 +1,71 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>LinkedPipe</code> with and without node recycling under steady
+ * churn. Run with <code>-prof gc</code> and compare
+ * <code>gc.alloc.rate.norm</code>: with recycling a warmed-up pipe should
+ * allocate nothing per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NodeRecyclingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean recycleNodes;
+
+    @Param({"16", "1024", "65536"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+    private Integer element;
+
+    @Setup
+    public void setUp() {
+        pipe = new LinkedPipe<>(capacity, recycleNodes);
+        PipeFactory.fill(pipe, capacity / 2);
+        element = 42;
+    }
+
+    @Benchmark
+    public Integer appendRemoveFirst() {
+        pipe.append(element);
+        return pipe.removeFirst();
+    }
+
+    @Benchmark
+    public Integer prependRemoveLast() {
+        pipe.prepend(element);
+        return pipe.removeLast();
+    }
+
+    @Benchmark
+    public int fillAndDrain() {
+        int half = capacity / 2;
+        for (int i = 0; i < half; i++) {
+            pipe.append(element);
+        }
+        int sum = 0;
+        for (int i = 0; i < half; i++) {
+            sum += pipe.removeFirst();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,50 @@
+package boundedpipe;
+
+/**
+ * Creates the pipe implementations under benchmark by simple class name, so a
+ * single <code>@Param</code> can select the implementation for every benchmark.
+ */
+final class PipeFactory {
+
+    private PipeFactory() {
+    }
+
+    static Pipe<Integer> create(String implementation, int capacity) {
+        switch (implementation) {
+            case "CircArrayPipe":
+                return new CircArrayPipe<>(capacity);
+            case "MaskedCircArrayPipe":
+                return new MaskedCircArrayPipe<>(capacity);
+            case "ElasticArrayPipe":
+                return new ElasticArrayPipe<>(capacity);
+            case "ChunkedPipe":
+                return new ChunkedPipe<>(capacity);
+            case "LinkedPipe":
+                return new LinkedPipe<>(capacity);
+            case "ListPipe":
+                return new ListPipe<>(capacity);
+            case "SpscArrayPipe":
+                return new SpscArrayPipe<>(capacity);
+            case "MpmcArrayPipe":
+                return new MpmcArrayPipe<>(capacity);
+            case "CircArrayBlockingPipe":
+                return new CircArrayBlockingPipe<>(capacity);
+            case "WorkStealingPipe":
+                return new WorkStealingPipe<>(capacity);
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    static Pipe<Integer> filled(String implementation, int capacity, int count) {
+        Pipe<Integer> pipe = create(implementation, capacity);
+        fill(pipe, count);
+        return pipe;
+    }
+
+    static void fill(Pipe<Integer> pipe, int count) {
+        for (int i = 0; i < count; i++) {
+            pipe.append(i);
+        }
+    }
+}
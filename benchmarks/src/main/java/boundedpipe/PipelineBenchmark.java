@@ -0,0 +1,69 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end throughput of a two-stage <code>Pipeline</code> for different
+ * handoff batch sizes. Each invocation builds the pipeline, pushes a fixed
+ * number of elements through it and waits for it to finish, so the score
+ * includes starting the threads. Compare the batch sizes on a machine with
+ * at least as many cores as the pipeline has threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PipelineBenchmark {
+
+    private static final int ELEMENTS = 100_000;
+
+    @Param({"1", "16", "256"})
+    public int batchSize;
+
+    @Param({"1", "2"})
+    public int parallelism;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private Integer[] elements;
+
+    @Setup
+    public void setUp() {
+        elements = new Integer[ELEMENTS];
+        for (int i = 0; i < ELEMENTS; i++) {
+            elements[i] = i;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public long twoStages() throws Exception {
+        AtomicLong sum = new AtomicLong();
+        Pipeline<Integer, Long> pipeline = Pipeline.<Integer>builder()
+                .batchSize(batchSize)
+                .stage(x -> x + 1, parallelism, capacity)
+                .stage(x -> (long) x * x, parallelism, capacity)
+                .build(sum::addAndGet, capacity);
+        pipeline.submitAll(elements, 0, ELEMENTS);
+        pipeline.complete();
+        pipeline.join();
+        return sum.get();
+    }
+}
@@ -0,0 +1,79 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boxed <code>CircArrayPipe&lt;Long&gt;</code> against the primitive
+ * <code>CircArrayLongPipe</code> for a stream of distinct timestamps. Run with
+ * <code>-prof gc</code> to compare allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitiveBenchmark {
+
+    @Param({"1024", "65536"})
+    public int capacity;
+
+    private Pipe<Long> boxed;
+    private LongPipe primitive;
+    private long timestamp;
+
+    @Setup
+    public void setUp() {
+        boxed = new CircArrayPipe<>(capacity);
+        primitive = new CircArrayLongPipe(capacity);
+        for (int i = 0; i < capacity / 2; i++) {
+            boxed.append(timestamp);
+            primitive.append(timestamp);
+            timestamp += 1000;
+        }
+    }
+
+    @Benchmark
+    public long boxedAppendRemoveFirst() {
+        boxed.append(timestamp += 1000);
+        return boxed.removeFirst();
+    }
+
+    @Benchmark
+    public long primitiveAppendRemoveFirst() {
+        primitive.append(timestamp += 1000);
+        return primitive.removeFirst();
+    }
+
+    @Benchmark
+    public long boxedSum() {
+        long sum = 0;
+        for (Long element : boxed) {
+            sum += element;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long primitiveSum() {
+        long sum = 0;
+        PrimitiveIterator.OfLong iterator = primitive.iterator();
+        while (iterator.hasNext()) {
+            sum += iterator.nextLong();
+        }
+        return sum;
+    }
+}
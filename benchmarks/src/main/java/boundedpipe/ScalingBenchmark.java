@@ -0,0 +1,62 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a pipe shared by many threads, each appending one element and
+ * removing one, comparing the lock-free <code>MpmcArrayPipe</code> with a
+ * <code>CircArrayPipe</code> guarded by <code>synchronized</code>. The pipe is
+ * kept half full, so with at most <code>capacity / 2</code> threads neither
+ * operation can fail. Select the thread count with <code>-t</code>, for example
+ * <code>-t 1</code>, <code>-t 2</code>, ... <code>-t max</code>, to measure
+ * scaling from one thread to every core.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalingBenchmark {
+
+    @Param({"MpmcArrayPipe", "SynchronizedCircArrayPipe"})
+    public String implementation;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+    private boolean locked;
+    private final Integer element = 42;
+
+    @Setup
+    public void setUp() {
+        locked = implementation.startsWith("Synchronized");
+        pipe = locked ? new CircArrayPipe<>(capacity) : PipeFactory.create(implementation, capacity);
+        PipeFactory.fill(pipe, capacity / 2);
+    }
+
+    @Benchmark
+    public Integer appendRemoveFirst() {
+        if (locked) {
+            synchronized (pipe) {
+                pipe.append(element);
+                return pipe.removeFirst();
+            }
+        }
+        pipe.append(element);
+        return pipe.removeFirst();
+    }
+}
@@ -0,0 +1,56 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential and parallel streams over a full pipe, rotated by half its
+ * capacity so array-backed pipes split a wrapped range. The parallel
+ * variants use the common fork/join pool, so compare them on a machine with
+ * several cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StreamBenchmark {
+
+    @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe"})
+    public String implementation;
+
+    @Param({"65536", "1048576"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+
+    @Setup
+    public void setUp() {
+        pipe = PipeFactory.filled(implementation, capacity, capacity);
+        for (int i = 0; i < capacity / 2; i++) {
+            pipe.append(pipe.removeFirst());
+        }
+    }
+
+    @Benchmark
+    public long sequentialSum() {
+        return pipe.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long parallelSum() {
+        return pipe.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+}
@@ -0,0 +1,95 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-pipe transfers on a full pipe: <code>appendAll</code>,
+ * <code>copy</code> and <code>clear</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferBenchmark {
+
+    @State(Scope.Thread)
+    public static class Transfer {
+
+        @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe"})
+        public String implementation;
+
+        @Param({"16", "1024", "65536", "1048576"})
+        public int capacity;
+
+        Pipe<Integer> source;
+        Pipe<Integer> target;
+
+        @Setup
+        public void setUp() {
+            source = PipeFactory.filled(implementation, capacity, capacity);
+            target = PipeFactory.create(implementation, capacity);
+        }
+
+        void swap() {
+            Pipe<Integer> emptied = source;
+            source = target;
+            target = emptied;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Refill {
+
+        @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe"})
+        public String implementation;
+
+        @Param({"16", "1024", "65536", "1048576"})
+        public int capacity;
+
+        Pipe<Integer> pipe;
+
+        @Setup
+        public void setUp() {
+            pipe = PipeFactory.create(implementation, capacity);
+        }
+
+        @Setup(Level.Invocation)
+        public void refill() {
+            if (pipe.isEmpty()) {
+                PipeFactory.fill(pipe, capacity);
+            }
+        }
+    }
+
+    @Benchmark
+    public Pipe<Integer> appendAll(Transfer transfer) {
+        transfer.target.appendAll(transfer.source);
+        transfer.swap();
+        return transfer.source;
+    }
+
+    @Benchmark
+    public Pipe<Integer> copy(Transfer transfer) {
+        return transfer.source.copy();
+    }
+
+    @Benchmark
+    public Pipe<Integer> clear(Refill refill) {
+        refill.pipe.clear();
+        return refill.pipe;
+    }
+}
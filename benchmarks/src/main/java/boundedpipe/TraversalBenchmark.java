@@ -0,0 +1,82 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-pipe traversals over a full pipe: iteration in both directions,
+ * <code>forEach</code>, and the
+ * <code>equals</code>, <code>hashCode</code> and <code>toString</code>
+ * methods built on it in <code>AbstractPipe</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TraversalBenchmark {
+
+    @Param({"CircArrayPipe", "MaskedCircArrayPipe", "ElasticArrayPipe", "ChunkedPipe", "LinkedPipe", "ListPipe"})
+    public String implementation;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+    private Pipe<Integer> same;
+
+    @Setup
+    public void setUp() {
+        pipe = PipeFactory.filled(implementation, capacity, capacity);
+        same = PipeFactory.filled(implementation, capacity, capacity);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Integer element : pipe) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public void forEachElement(Blackhole blackhole) {
+        pipe.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void iterateDescending(Blackhole blackhole) {
+        Iterator<Integer> iterator = pipe.descendingIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public boolean equalPipes() {
+        return pipe.equals(same);
+    }
+
+    @Benchmark
+    public int hashCodeOfPipe() {
+        return pipe.hashCode();
+    }
+
+    @Benchmark
+    public String toStringOfPipe() {
+        return pipe.toString();
+    }
+}
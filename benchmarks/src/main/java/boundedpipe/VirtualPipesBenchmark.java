@@ -0,0 +1,61 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Many concurrent producer/consumer pairs on a <code>PipeRunner</code>, each
+ * pair with its own small pipe and a virtual thread per side. The capacity is
+ * smaller than the number of messages, so every pair parks and unparks on
+ * both full and empty. Needs JDK 21, for example
+ * <code>$JAVA21/bin/java -jar benchmarks/target/benchmarks.jar VirtualPipesBenchmark</code>.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class VirtualPipesBenchmark {
+
+    @Param({"1000", "100000"})
+    public int pairs;
+
+    @Param({"16"})
+    public int messages;
+
+    @Param({"4"})
+    public int capacity;
+
+    private ThreadFactory threadFactory;
+
+    @Setup
+    public void setUp() {
+        threadFactory = PipeRunner.virtualThreadFactory();
+    }
+
+    @Benchmark
+    public long runAll() throws Exception {
+        PipeRunner runner = new PipeRunner(threadFactory);
+        LongAdder received = new LongAdder();
+        for (int i = 0; i < pairs; i++) {
+            int[] sent = {0};
+            runner.run(capacity, () -> sent[0] < messages ? sent[0]++ : null, element -> received.increment());
+        }
+        runner.join();
+        return received.sum();
+    }
+}
@@ -0,0 +1,84 @@
+package boundedpipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One owner thread pushing and popping at the end of a pipe while three thief
+ * threads steal from the front, comparing <code>WorkStealingPipe</code> with a
+ * <code>CircArrayPipe</code> guarded by <code>synchronized</code>. The owner
+ * keeps the pipe about half full so thieves rarely find it empty.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class WorkStealingBenchmark {
+
+    @Param({"WorkStealingPipe", "SynchronizedCircArrayPipe"})
+    public String implementation;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private Pipe<Integer> pipe;
+    private boolean locked;
+    private final Integer element = 42;
+
+    @Setup
+    public void setUp() {
+        locked = implementation.startsWith("Synchronized");
+        pipe = locked ? new CircArrayPipe<>(capacity) : new WorkStealingPipe<>(capacity);
+    }
+
+    @Benchmark
+    @Group("stealing")
+    @GroupThreads(1)
+    public Integer owner() {
+        if (locked) {
+            synchronized (pipe) {
+                return pushPop();
+            }
+        }
+        return pushPop();
+    }
+
+    @Benchmark
+    @Group("stealing")
+    @GroupThreads(3)
+    public Integer thief() {
+        if (locked) {
+            synchronized (pipe) {
+                return steal();
+            }
+        }
+        return steal();
+    }
+
+    private Integer pushPop() {
+        pipe.tryAppend(element);
+        if (pipe.length() > capacity / 2) {
+            return pipe.pollLast();
+        }
+        return null;
+    }
+
+    private Integer steal() {
+        return pipe.pollFirst();
+    }
+}
@@ -0,0 +1,346 @@
+package boundedpipe;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jdk.jfr.EventType;
+
+public abstract class AbstractPipe<E> implements Pipe<E> {
+
+    // checked before creating an event, so a disabled event allocates nothing
+    private static final EventType ITERATION_EVENTS = EventType.getEventType(IterationEvent.class);
+    private static final EventType TRANSFER_EVENTS = EventType.getEventType(TransferEvent.class);
+    private static final EventType REJECTION_EVENTS = EventType.getEventType(RejectionEvent.class);
+
+    private final int capacity;
+
+    /**
+     * The number of structural modifications made to this pipe, checked by
+     * fail-fast iterators. Implementations increment it whenever elements are
+     * added or removed.
+     */
+    protected int modCount;
+
+    public AbstractPipe(int max) {
+        capacity = max;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return length() == capacity();
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) return false;
+        this.prepend(element);
+        return true;
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) return false;
+        this.append(element);
+        return true;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (this.isEmpty()) return null;
+        return this.removeFirst();
+    }
+
+    @Override
+    public E pollLast() {
+        if (this.isEmpty()) return null;
+        return this.removeLast();
+    }
+
+    @Override
+    public void prependAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "prependAll");
+        for (int i = off + len - 1; i >= off; i--) {
+            this.prepend(src[i]);
+        }
+    }
+
+    @Override
+    public void appendAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "appendAll");
+        for (int i = off; i < off + len; i++) {
+            this.append(src[i]);
+        }
+    }
+
+    @Override
+    public int removeFirst(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = 0;
+        while (removed < max && !this.isEmpty()) {
+            dst[removed++] = this.removeFirst();
+        }
+        return removed;
+    }
+
+    @Override
+    public int removeLast(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = 0;
+        while (removed < max && !this.isEmpty()) {
+            dst[removed++] = this.removeLast();
+        }
+        return removed;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        if (action == null) throw new NullPointerException();
+        if (!ITERATION_EVENTS.isEnabled()) {
+            traverse(action);
+            return;
+        }
+        IterationEvent event = new IterationEvent();
+        event.begin();
+        traverse(action);
+        event.end();
+        if (event.shouldCommit()) {
+            event.pipeClass = getClass();
+            event.length = length();
+            event.commit();
+        }
+    }
+
+    /**
+     * Performs an action on each element of this pipe, from first to last.
+     * Called by <code>forEach</code>, which checks the action and records the
+     * traversal for the flight recorder. This default walks an iterator;
+     * pipes that override it walk their storage directly and allocate
+     * nothing.
+     */
+    protected void traverse(Consumer<? super E> action) {
+        for (E element : this) {
+            action.accept(element);
+        }
+    }
+
+    @Override
+    public int drainTo(Consumer<? super E> action, int max) {
+        if (action == null || max < 0) throw new IllegalArgumentException();
+        int drained = 0;
+        E element;
+        while (drained < max && (element = this.pollFirst()) != null) {
+            drained++;
+            action.accept(element);
+        }
+        return drained;
+    }
+
+    @Override
+    public int drainTo(Pipe<E> that, int max) {
+        if (that == null || that == this || max < 0) throw new IllegalArgumentException();
+        int drained = 0;
+        E element;
+        while (drained < max && !that.isFull() && (element = this.pollFirst()) != null) {
+            that.append(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Checks the arguments of a bulk insertion: the range must lie within the
+     * array, hold no null elements and fit in the free space of this pipe.
+     * <code>operation</code> names the insertion if it is rejected.
+     */
+    protected void checkRange(E[] src, int off, int len, String operation) {
+        checkElements(src, off, len);
+        if (len > capacity() - length()) throw rejected(operation);
+    }
+
+    /**
+     * Checks that a range lies within the array and holds no null elements,
+     * without regard to the free space of this pipe.
+     */
+    protected void checkElements(E[] src, int off, int len) {
+        if (src == null || off < 0 || len < 0 || off > src.length - len) throw new IllegalArgumentException();
+        for (int i = off; i < off + len; i++) {
+            if (src[i] == null) throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Checks the arguments of a bulk removal.
+     */
+    protected void checkDestination(E[] dst, int max) {
+        if (dst == null || max < 0 || max > dst.length) throw new IllegalArgumentException();
+    }
+
+    @Override
+    public void appendAll(Pipe<E> that) {
+        if (that == null || that == this) throw new IllegalArgumentException();
+        int count = that.length();
+        if (count > capacity() - length()) throw rejected("appendAll");
+        if (!TRANSFER_EVENTS.isEnabled()) {
+            transfer(that);
+            return;
+        }
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        boolean bulk = transfer(that);
+        event.end();
+        if (event.shouldCommit()) {
+            event.sourceClass = that.getClass();
+            event.targetClass = getClass();
+            event.count = count;
+            event.bulk = bulk;
+            event.commit();
+        }
+    }
+
+    private boolean transfer(Pipe<E> that) {
+        if (transferFrom(that)) return true;
+        E element;
+        while ((element = that.pollFirst()) != null) {
+            this.append(element);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the exception an operation throws when this pipe is too full or
+     * too empty for it, after recording the rejection for the flight recorder.
+     */
+    protected IllegalStateException rejected(String operation) {
+        if (!REJECTION_EVENTS.isEnabled()) return new IllegalStateException();
+        RejectionEvent event = new RejectionEvent();
+        if (event.shouldCommit()) {
+            event.pipeClass = getClass();
+            event.operation = operation;
+            event.length = length();
+            event.capacity = capacity();
+            event.commit();
+        }
+        return new IllegalStateException();
+    }
+
+    /**
+     * Moves every element of the specified pipe onto the end of this pipe in
+     * one step, if this implementation knows the layout of that pipe. Called
+     * by <code>appendAll</code> once the elements are known to fit.
+     *
+     * @return true if the elements were moved and false to fall back to
+     * moving them one at a time
+     */
+    protected boolean transferFrom(Pipe<E> that) {
+        return false;
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        Pipe<E> copy = newInstance();
+        for (E element : this) {
+            copy.append(element);
+        }
+        return copy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> descendingIterator() {
+        E[] snapshot = (E[]) new Object[length()];
+        int index = snapshot.length;
+        for (E element : this) {
+            if (index == 0) break;
+            snapshot[--index] = element;
+        }
+        return Arrays.asList(snapshot).subList(index, snapshot.length).iterator();
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this.iterator(), length(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Pipe)) {
+            return false;
+        }
+        Pipe that = (Pipe) obj;
+        if (this.capacity() != that.capacity()) {
+            return false;
+        }
+        if (this.length() != that.length()) {
+            return false;
+        }
+        Iterator<E> thisIter = this.iterator();
+        Iterator<?> thatIter = that.iterator();
+        while (thisIter.hasNext()) {
+            E elem = thisIter.next();
+            Object o = thatIter.next();
+            if (!elem.equals(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 17;
+        for (E element : this) {
+            result = 31 * result + element.hashCode();
+        }
+        result = 31 * result + capacity();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        Iterator<E> iterator = this.iterator();
+        while (iterator.hasNext()) {
+            sb.append(iterator.next());
+            if (iterator.hasNext()) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]:");
+        sb.append(capacity());
+        return sb.toString();
+    }
+}
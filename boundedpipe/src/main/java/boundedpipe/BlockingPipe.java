@@ -0,0 +1,206 @@
+package boundedpipe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A bounded pipe that can be shared between threads and that additionally
+ * supports operations that wait for the pipe to have space before adding an
+ * element, and wait for the pipe to have an element before removing one.</p>
+ * <p>
+ * The <code>Pipe</code> methods remain non-blocking: <code>append</code> on a
+ * full pipe and <code>removeFirst</code> on an empty pipe still throw
+ * <code>IllegalStateException</code>.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public interface BlockingPipe<E> extends Pipe<E> {
+
+    /**
+     * <p>
+     * Adds the specified element to the beginning of this pipe, waiting if
+     * necessary for space to become available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>p.putFirst(x)</code> <em>(waits until another thread removes C)</em><br>
+     * { <code>p = [X, A, B]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * </p>
+     *
+     * @param element the element to be prepended to this pipe
+     * @throws IllegalArgumentException if the specified element is null
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    void putFirst(E element) throws IllegalArgumentException, InterruptedException;
+
+    /**
+     * <p>
+     * Adds the specified element to the end of this pipe, waiting if
+     * necessary for space to become available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>p.putLast(x)</code> <em>(waits until another thread removes A)</em><br>
+     * { <code>p = [B, C, X]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * </p>
+     *
+     * @param element the element to be appended to this pipe
+     * @throws IllegalArgumentException if the specified element is null
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    void putLast(E element) throws IllegalArgumentException, InterruptedException;
+
+    /**
+     * <p>
+     * Adds the specified element to the beginning of this pipe, waiting up to
+     * the specified time for space to become available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>b = p.putFirst(x, 1, SECONDS)</code> <em>(nothing is removed)</em><br>
+     * { <code>p = [A, B, C]:3</code> <em>and</em> <code>b = false</code> }<br>
+     * </p>
+     *
+     * @param element the element to be prepended to this pipe
+     * @param timeout how long to wait before giving up, in units of <code>unit</code>
+     * @param unit    the unit of the <code>timeout</code> argument
+     * @return true if the element was added and false if the time elapsed first
+     * @throws IllegalArgumentException if the specified element or unit is null
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    boolean putFirst(E element, long timeout, TimeUnit unit) throws IllegalArgumentException, InterruptedException;
+
+    /**
+     * <p>
+     * Adds the specified element to the end of this pipe, waiting up to the
+     * specified time for space to become available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>b = p.putLast(x, 1, SECONDS)</code><br>
+     * { <code>p = [A, B, X]:3</code> <em>and</em> <code>b = true</code> }<br>
+     * </p>
+     *
+     * @param element the element to be appended to this pipe
+     * @param timeout how long to wait before giving up, in units of <code>unit</code>
+     * @param unit    the unit of the <code>timeout</code> argument
+     * @return true if the element was added and false if the time elapsed first
+     * @throws IllegalArgumentException if the specified element or unit is null
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    boolean putLast(E element, long timeout, TimeUnit unit) throws IllegalArgumentException, InterruptedException;
+
+    /**
+     * <p>
+     * Removes and returns the first element from this pipe, waiting if
+     * necessary until an element becomes available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = []:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.takeFirst()</code> <em>(waits until another thread appends A)</em><br>
+     * { <code>p = []:3</code> <em>and</em> <code>x = A</code> }<br>
+     * </p>
+     *
+     * @return the first element from this pipe
+     * @throws InterruptedException if interrupted while waiting
+     */
+    E takeFirst() throws InterruptedException;
+
+    /**
+     * <p>
+     * Removes and returns the last element from this pipe, waiting if
+     * necessary until an element becomes available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.takeLast()</code><br>
+     * { <code>p = [A, B]:3</code> <em>and</em> <code>x = C</code> }<br>
+     * </p>
+     *
+     * @return the last element from this pipe
+     * @throws InterruptedException if interrupted while waiting
+     */
+    E takeLast() throws InterruptedException;
+
+    /**
+     * <p>
+     * Removes and returns the first element from this pipe, waiting up to the
+     * specified time for an element to become available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = []:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.takeFirst(1, SECONDS)</code> <em>(nothing is added)</em><br>
+     * { <code>p = []:3</code> <em>and</em> <code>x = null</code> }<br>
+     * </p>
+     *
+     * @param timeout how long to wait before giving up, in units of <code>unit</code>
+     * @param unit    the unit of the <code>timeout</code> argument
+     * @return the first element from this pipe, or null if the time elapsed first
+     * @throws IllegalArgumentException if the specified unit is null
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    E takeFirst(long timeout, TimeUnit unit) throws IllegalArgumentException, InterruptedException;
+
+    /**
+     * <p>
+     * Removes and returns the last element from this pipe, waiting up to the
+     * specified time for an element to become available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.takeLast(1, SECONDS)</code><br>
+     * { <code>p = [A, B]:3</code> <em>and</em> <code>x = C</code> }<br>
+     * </p>
+     *
+     * @param timeout how long to wait before giving up, in units of <code>unit</code>
+     * @param unit    the unit of the <code>timeout</code> argument
+     * @return the last element from this pipe, or null if the time elapsed first
+     * @throws IllegalArgumentException if the specified unit is null
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    E takeLast(long timeout, TimeUnit unit) throws IllegalArgumentException, InterruptedException;
+
+    /**
+     * <p>
+     * Adds the elements of a range of an array to the end of this pipe, in
+     * order, waiting as often as necessary for space to become available.
+     * Each time there is space, as many elements as fit are added at once, so
+     * the range may be longer than the capacity of this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A]:3</code> <em>and</em> <code>a = [X, Y, Z]</code> }<br>
+     * <code>p.putAllLast(a, 0, 3)</code> <em>(adds X and Y, then waits until another thread removes A)</em><br>
+     * { <code>p = [X, Y, Z]:3</code> }<br>
+     * </p>
+     *
+     * @param src the array holding the elements to be appended
+     * @param off the index of the first element to be appended
+     * @param len the number of elements to be appended
+     * @throws IllegalArgumentException if the array or any element in the range is null,
+     *                                  or if the range is not within the array
+     * @throws InterruptedException     if interrupted while waiting, in which case
+     *                                  a prefix of the range may have been added
+     */
+    void putAllLast(E[] src, int off, int len) throws IllegalArgumentException, InterruptedException;
+
+    /**
+     * <p>
+     * Removes up to <code>max</code> elements from the beginning of this pipe
+     * and stores them, first element first, at the start of an array, waiting
+     * if necessary until at least one element is available.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = []:3</code> <em>and</em> <code>a = [W, X, Y, Z]</code> }<br>
+     * <code>n = p.takeFirst(a, 4)</code> <em>(waits until another thread appends A and B)</em><br>
+     * { <code>p = []:3</code> <em>and</em> <code>a = [A, B, Y, Z]</code> <em>and</em> <code>n = 2</code> }<br>
+     * </p>
+     *
+     * @param dst the array to store the removed elements in
+     * @param max the maximum number of elements to be removed
+     * @return the number of elements removed, which is zero only if <code>max</code> is zero
+     * @throws IllegalArgumentException if the array is null, or if <code>max</code> is negative
+     *                                  or greater than the length of the array
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    int takeFirst(E[] dst, int max) throws IllegalArgumentException, InterruptedException;
+}
@@ -0,0 +1,513 @@
+package boundedpipe;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A pipe backed by a doubly-linked list of fixed-size array chunks.</p>
+ * <p>
+ * Chunks are allocated as the pipe grows and released as it shrinks, so the
+ * memory used is proportional to the length of the pipe rather than its
+ * capacity, while iteration still walks mostly contiguous arrays. One
+ * released chunk is kept as a spare, so a pipe whose length oscillates
+ * around a chunk boundary does not allocate on every crossing.</p>
+ * <p>
+ * Each chunk holds its elements between its own start and end indices, and
+ * every chunk but the first and the last is full. <code>appendAll</code>
+ * from another <code>ChunkedPipe</code> with the same chunk size splices its
+ * chunks across without copying them, once the partly filled chunks at the
+ * seam have been merged. If they cannot be merged into full chunks, or the
+ * chunk sizes differ, the elements are copied into this pipe's own chunks
+ * instead, so repeated small transfers never leave it fragmented.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class ChunkedPipe<E> extends AbstractPipe<E> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private class Chunk {
+        public final E[] items;
+        public int start;
+        public int end;
+        public Chunk prev;
+        public Chunk next;
+
+        @SuppressWarnings("unchecked")
+        public Chunk(int size) {
+            this.items = (E[]) new Object[size];
+        }
+
+        public Chunk(Chunk that) {
+            this.items = that.items.clone();
+            this.start = that.start;
+            this.end = that.end;
+        }
+    }
+
+    private final int chunkSize;
+    private Chunk first;
+    private Chunk last;
+    private Chunk spare;
+    private int length;
+
+    public ChunkedPipe(int max) {
+        this(max, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedPipe(int max, int chunkSize) {
+        super(max);
+        if (max < 0 || chunkSize < 1) throw new IllegalArgumentException();
+        this.chunkSize = Math.max(1, Math.min(chunkSize, max));
+        first = null;
+        last = null;
+        length = 0;
+    }
+
+    private ChunkedPipe(ChunkedPipe<E> that) {
+        this(that.capacity(), that.chunkSize);
+        for (Chunk current = that.first; current != null; current = current.next) {
+            linkLast(new Chunk(current));
+        }
+        length = that.length;
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (!tryPrepend(element)) throw rejected("prepend");
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (length == capacity()) return false;
+        if (first == null || first.start == 0) {
+            Chunk chunk = newChunk();
+            chunk.start = chunk.items.length;
+            chunk.end = chunk.items.length;
+            linkFirst(chunk);
+        }
+        first.items[--first.start] = element;
+        length++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (length == capacity()) return false;
+        if (last == null || last.end == last.items.length) {
+            linkLast(newChunk());
+        }
+        last.items[last.end++] = element;
+        length++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (length == 0) return null;
+        Chunk chunk = first;
+        E firstElement = chunk.items[chunk.start];
+        chunk.items[chunk.start++] = null;
+        length--;
+        modCount++;
+        if (chunk.start == chunk.end) unlinkFirst();
+        return firstElement;
+    }
+
+    @Override
+    public E removeLast() {
+        E lastElement = pollLast();
+        if (lastElement == null) throw rejected("removeLast");
+        return lastElement;
+    }
+
+    @Override
+    public E pollLast() {
+        if (length == 0) return null;
+        Chunk chunk = last;
+        E lastElement = chunk.items[--chunk.end];
+        chunk.items[chunk.end] = null;
+        length--;
+        modCount++;
+        if (chunk.start == chunk.end) unlinkLast();
+        return lastElement;
+    }
+
+    @Override
+    public void prependAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "prependAll");
+        int remaining = len;
+        while (remaining > 0) {
+            if (first == null || first.start == 0) {
+                Chunk chunk = newChunk();
+                chunk.start = chunk.items.length;
+                chunk.end = chunk.items.length;
+                linkFirst(chunk);
+            }
+            int n = Math.min(remaining, first.start);
+            first.start -= n;
+            remaining -= n;
+            System.arraycopy(src, off + remaining, first.items, first.start, n);
+        }
+        length += len;
+        modCount++;
+    }
+
+    @Override
+    public void appendAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "appendAll");
+        copyIn(src, off, len);
+        length += len;
+        modCount++;
+    }
+
+    private void copyIn(E[] src, int off, int len) {
+        int copied = 0;
+        while (copied < len) {
+            if (last == null || last.end == last.items.length) {
+                linkLast(newChunk());
+            }
+            int n = Math.min(len - copied, last.items.length - last.end);
+            System.arraycopy(src, off + copied, last.items, last.end, n);
+            last.end += n;
+            copied += n;
+        }
+    }
+
+    @Override
+    public int removeFirst(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = 0;
+        while (removed < max && length > 0) {
+            Chunk chunk = first;
+            int n = Math.min(max - removed, chunk.end - chunk.start);
+            System.arraycopy(chunk.items, chunk.start, dst, removed, n);
+            Arrays.fill(chunk.items, chunk.start, chunk.start + n, null);
+            chunk.start += n;
+            removed += n;
+            length -= n;
+            if (chunk.start == chunk.end) unlinkFirst();
+        }
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public int removeLast(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = 0;
+        while (removed < max && length > 0) {
+            Chunk chunk = last;
+            int stop = Math.max(chunk.start, chunk.end - (max - removed));
+            E[] items = chunk.items;
+            for (int i = chunk.end - 1; i >= stop; i--) {
+                dst[removed++] = items[i];
+                items[i] = null;
+            }
+            length -= chunk.end - stop;
+            chunk.end = stop;
+            if (chunk.start == chunk.end) unlinkLast();
+        }
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    protected void traverse(Consumer<? super E> action) {
+        int expectedModCount = modCount;
+        for (Chunk chunk = first; chunk != null && modCount == expectedModCount; chunk = chunk.next) {
+            E[] items = chunk.items;
+            for (int i = chunk.start, end = chunk.end; i < end && modCount == expectedModCount; i++) {
+                action.accept(items[i]);
+            }
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public int drainTo(Consumer<? super E> action, int max) {
+        if (action == null || max < 0) throw new IllegalArgumentException();
+        int drained = 0;
+        while (drained < max && length > 0) {
+            Chunk chunk = first;
+            E element = chunk.items[chunk.start];
+            chunk.items[chunk.start++] = null;
+            length--;
+            modCount++;
+            if (chunk.start == chunk.end) unlinkFirst();
+            drained++;
+            action.accept(element);
+        }
+        return drained;
+    }
+
+    @Override
+    public int drainTo(Pipe<E> that, int max) {
+        if (that == null || that == this || max < 0) throw new IllegalArgumentException();
+        int drained = Math.min(Math.min(max, length), that.capacity() - that.length());
+        if (drained <= 0) return 0;
+        int moved = 0;
+        while (moved < drained) {
+            Chunk chunk = first;
+            int n = Math.min(drained - moved, chunk.end - chunk.start);
+            that.appendAll(chunk.items, chunk.start, n);
+            Arrays.fill(chunk.items, chunk.start, chunk.start + n, null);
+            chunk.start += n;
+            moved += n;
+            length -= n;
+            if (chunk.start == chunk.end) unlinkFirst();
+        }
+        modCount++;
+        return drained;
+    }
+
+    @Override
+    protected boolean transferFrom(Pipe<E> that) {
+        if (!(that instanceof ChunkedPipe)) return false;
+        ChunkedPipe<E> source = (ChunkedPipe<E>) that;
+        if (source.first == null) return true;
+        if (source.chunkSize == chunkSize && mergeSeam(source)) {
+            if (source.first != null) {
+                if (last == null) {
+                    first = source.first;
+                } else {
+                    last.next = source.first;
+                    source.first.prev = last;
+                }
+                last = source.last;
+            }
+        } else {
+            for (Chunk chunk = source.first; chunk != null; chunk = chunk.next) {
+                copyIn(chunk.items, chunk.start, chunk.end - chunk.start);
+            }
+        }
+        length += source.length;
+        modCount++;
+        source.first = null;
+        source.last = null;
+        source.length = 0;
+        source.modCount++;
+        return true;
+    }
+
+    /**
+     * Moves elements between the last chunk of this pipe and the first chunk
+     * of the source so that linking the source's chunks after this pipe's
+     * leaves every chunk but the first and the last full.
+     *
+     * @return true if the chunks can be linked, and false if the elements
+     * must be copied
+     */
+    private boolean mergeSeam(ChunkedPipe<E> source) {
+        if (last == null) return true;
+        Chunk head = source.first;
+        int room = chunkSize - last.end;
+        int count = head.end - head.start;
+        if (room == 0 && head.start == 0) return true;
+        if (room == count) {
+            // the source's first chunk exactly fills the last chunk of this pipe
+            System.arraycopy(head.items, head.start, last.items, last.end, count);
+            Arrays.fill(head.items, head.start, head.end, null);
+            last.end += count;
+            length += count;
+            source.length -= count;
+            source.unlinkFirst();
+            return true;
+        }
+        int lastCount = last.end - last.start;
+        if (first == last && lastCount <= head.start) {
+            // this pipe's only chunk fits in front of the source's first chunk
+            head.start -= lastCount;
+            System.arraycopy(last.items, last.start, head.items, head.start, lastCount);
+            Arrays.fill(last.items, last.start, last.end, null);
+            length -= lastCount;
+            source.length += lastCount;
+            unlinkLast();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new ChunkedPipe<>(capacity(), chunkSize);
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        return new ChunkedPipe<>(this);
+    }
+
+    @Override
+    public void clear() {
+        first = null;
+        last = null;
+        length = 0;
+        modCount++;
+    }
+
+    @Override
+    public E first() {
+        if (length == 0) return null;
+        return first.items[first.start];
+    }
+
+    @Override
+    public E last() {
+        if (length == 0) return null;
+        return last.items[last.end - 1];
+    }
+
+    /**
+     * Returns the number of chunks holding elements.
+     */
+    int chunks() {
+        int chunks = 0;
+        for (Chunk chunk = first; chunk != null; chunk = chunk.next) {
+            chunks++;
+        }
+        return chunks;
+    }
+
+    private Chunk newChunk() {
+        Chunk chunk = spare;
+        if (chunk == null) return new Chunk(chunkSize);
+        spare = null;
+        return chunk;
+    }
+
+    private void release(Chunk chunk) {
+        chunk.start = 0;
+        chunk.end = 0;
+        chunk.prev = null;
+        chunk.next = null;
+        if (spare == null && chunk.items.length == chunkSize) spare = chunk;
+    }
+
+    private void linkFirst(Chunk chunk) {
+        if (first == null) {
+            last = chunk;
+        } else {
+            chunk.next = first;
+            first.prev = chunk;
+        }
+        first = chunk;
+    }
+
+    private void linkLast(Chunk chunk) {
+        if (last == null) {
+            first = chunk;
+        } else {
+            chunk.prev = last;
+            last.next = chunk;
+        }
+        last = chunk;
+    }
+
+    private void unlinkFirst() {
+        Chunk chunk = first;
+        first = chunk.next;
+        if (first == null) {
+            last = null;
+        } else {
+            first.prev = null;
+        }
+        release(chunk);
+    }
+
+    private void unlinkLast() {
+        Chunk chunk = last;
+        last = chunk.prev;
+        if (last == null) {
+            first = null;
+        } else {
+            last.next = null;
+        }
+        release(chunk);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator();
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new DescendingIterator();
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private Chunk chunk = first;
+        private int indexOfNext = first == null ? 0 : first.start;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return chunk != null;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = chunk.items[indexOfNext++];
+            if (indexOfNext == chunk.end) {
+                chunk = chunk.next;
+                indexOfNext = chunk == null ? 0 : chunk.start;
+            }
+            return result;
+        }
+    }
+
+    private class DescendingIterator implements Iterator<E> {
+
+        private Chunk chunk = last;
+        private int indexOfNext = last == null ? 0 : last.end - 1;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return chunk != null;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = chunk.items[indexOfNext];
+            if (indexOfNext == chunk.start) {
+                chunk = chunk.prev;
+                indexOfNext = chunk == null ? 0 : chunk.end - 1;
+            } else {
+                indexOfNext--;
+            }
+            return result;
+        }
+    }
+}
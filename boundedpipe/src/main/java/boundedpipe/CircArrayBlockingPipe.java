@@ -0,0 +1,477 @@
+package boundedpipe;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * A blocking pipe backed by a <code>CircArrayPipe</code> ring. Every method is
+ * guarded by a single lock, and waiting threads park on a "not full" or "not
+ * empty" condition until another thread changes the length of the pipe.</p>
+ * <p>
+ * The lock is a <code>ReentrantLock</code> rather than a monitor, so a
+ * virtual thread waiting on a full or empty pipe unmounts from its carrier
+ * thread instead of pinning it. A pipe created as elastic is backed by an
+ * <code>ElasticArrayPipe</code> instead, which allocates its array on the
+ * first insertion and shrinks it toward a small minimum as the pipe drains,
+ * so a large number of mostly idle pipes each hold a few slots rather than
+ * an array of their full capacity.</p>
+ * <p>
+ * Iterators, including descending iterators, traverse a snapshot of the
+ * pipe taken when the iterator was created, so they never throw
+ * <code>ConcurrentModificationException</code>.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class CircArrayBlockingPipe<E> extends AbstractPipe<E> implements BlockingPipe<E> {
+
+    private final Pipe<E> ring;
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    public CircArrayBlockingPipe(int max) {
+        this(new CircArrayPipe<>(max));
+    }
+
+    public CircArrayBlockingPipe(int max, boolean elastic) {
+        this(elastic ? new ElasticArrayPipe<>(max) : new CircArrayPipe<>(max));
+    }
+
+    private CircArrayBlockingPipe(Pipe<E> ring) {
+        super(ring.capacity());
+        this.ring = ring;
+        lock = new ReentrantLock();
+        notEmpty = lock.newCondition();
+        notFull = lock.newCondition();
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        lock.lock();
+        try {
+            ring.prepend(element);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void append(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        lock.lock();
+        try {
+            ring.append(element);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E removeFirst() {
+        lock.lock();
+        try {
+            E firstElement = ring.removeFirst();
+            notFull.signal();
+            return firstElement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E removeLast() {
+        lock.lock();
+        try {
+            E lastElement = ring.removeLast();
+            notFull.signal();
+            return lastElement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        lock.lock();
+        try {
+            if (!ring.tryPrepend(element)) return false;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        lock.lock();
+        try {
+            if (!ring.tryAppend(element)) return false;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E pollFirst() {
+        lock.lock();
+        try {
+            E firstElement = ring.pollFirst();
+            if (firstElement != null) notFull.signal();
+            return firstElement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E pollLast() {
+        lock.lock();
+        try {
+            E lastElement = ring.pollLast();
+            if (lastElement != null) notFull.signal();
+            return lastElement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void prependAll(E[] src, int off, int len) {
+        lock.lock();
+        try {
+            ring.prependAll(src, off, len);
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void appendAll(E[] src, int off, int len) {
+        lock.lock();
+        try {
+            ring.appendAll(src, off, len);
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int removeFirst(E[] dst, int max) {
+        lock.lock();
+        try {
+            int removed = ring.removeFirst(dst, max);
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int removeLast(E[] dst, int max) {
+        lock.lock();
+        try {
+            int removed = ring.removeLast(dst, max);
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putFirst(E element) throws InterruptedException {
+        if (element == null) throw new IllegalArgumentException();
+        lock.lockInterruptibly();
+        try {
+            while (ring.isFull()) {
+                notFull.await();
+            }
+            ring.prepend(element);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putLast(E element) throws InterruptedException {
+        if (element == null) throw new IllegalArgumentException();
+        lock.lockInterruptibly();
+        try {
+            while (ring.isFull()) {
+                notFull.await();
+            }
+            ring.append(element);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean putFirst(E element, long timeout, TimeUnit unit) throws InterruptedException {
+        if (element == null || unit == null) throw new IllegalArgumentException();
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (ring.isFull()) {
+                if (nanos <= 0) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            ring.prepend(element);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean putLast(E element, long timeout, TimeUnit unit) throws InterruptedException {
+        if (element == null || unit == null) throw new IllegalArgumentException();
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (ring.isFull()) {
+                if (nanos <= 0) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            ring.append(element);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E takeFirst() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (ring.isEmpty()) {
+                notEmpty.await();
+            }
+            E firstElement = ring.removeFirst();
+            notFull.signal();
+            return firstElement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E takeLast() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (ring.isEmpty()) {
+                notEmpty.await();
+            }
+            E lastElement = ring.removeLast();
+            notFull.signal();
+            return lastElement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E takeFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        if (unit == null) throw new IllegalArgumentException();
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (ring.isEmpty()) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            E firstElement = ring.removeFirst();
+            notFull.signal();
+            return firstElement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E takeLast(long timeout, TimeUnit unit) throws InterruptedException {
+        if (unit == null) throw new IllegalArgumentException();
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (ring.isEmpty()) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            E lastElement = ring.removeLast();
+            notFull.signal();
+            return lastElement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putAllLast(E[] src, int off, int len) throws InterruptedException {
+        checkElements(src, off, len);
+        lock.lockInterruptibly();
+        try {
+            while (len > 0) {
+                while (ring.isFull()) {
+                    notFull.await();
+                }
+                int n = Math.min(len, ring.capacity() - ring.length());
+                ring.appendAll(src, off, n);
+                off += n;
+                len -= n;
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int takeFirst(E[] dst, int max) throws InterruptedException {
+        checkDestination(dst, max);
+        if (max == 0) return 0;
+        lock.lockInterruptibly();
+        try {
+            while (ring.isEmpty()) {
+                notEmpty.await();
+            }
+            int removed = ring.removeFirst(dst, max);
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int length() {
+        lock.lock();
+        try {
+            return ring.length();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new CircArrayBlockingPipe<>(ring.newInstance());
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            ring.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void appendAll(Pipe<E> that) {
+        if (that == null || that == this) throw new IllegalArgumentException();
+        lock.lock();
+        try {
+            ring.appendAll(that);
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        lock.lock();
+        try {
+            return new CircArrayBlockingPipe<>(ring.copy());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E first() {
+        lock.lock();
+        try {
+            return ring.first();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E last() {
+        lock.lock();
+        try {
+            return ring.last();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        lock.lock();
+        try {
+            return new PipeIterator(ring.length(), ring.iterator());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        lock.lock();
+        try {
+            return new PipeIterator(ring.length(), ring.descendingIterator());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private final Object[] snapshot;
+        private int indexOfNext = 0;
+
+        private PipeIterator(int length, Iterator<E> source) {
+            snapshot = new Object[length];
+            for (int i = 0; i < length; i++) {
+                snapshot[i] = source.next();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return indexOfNext < snapshot.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!this.hasNext()) throw new NoSuchElementException();
+            return (E) snapshot[indexOfNext++];
+        }
+    }
+}
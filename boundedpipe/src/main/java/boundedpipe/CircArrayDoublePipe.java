@@ -0,0 +1,204 @@
+package boundedpipe;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class CircArrayDoublePipe implements DoublePipe {
+
+    private final double[] elements;
+    private int first;
+    private int length;
+
+    public CircArrayDoublePipe(int max) {
+        if (max < 0) throw new IllegalArgumentException();
+        elements = new double[max];
+        first = 0;
+        length = 0;
+    }
+
+    private CircArrayDoublePipe(CircArrayDoublePipe that) {
+        elements = that.elements.clone();
+        first = that.first;
+        length = that.length;
+    }
+
+    @Override
+    public void prepend(double element) {
+        if (length == elements.length) throw new IllegalStateException();
+        first = first == 0 ? elements.length - 1 : first - 1;
+        elements[first] = element;
+        length++;
+    }
+
+    @Override
+    public void append(double element) {
+        if (length == elements.length) throw new IllegalStateException();
+        elements[index(length)] = element;
+        length++;
+    }
+
+    @Override
+    public double removeFirst() {
+        if (length == 0) throw new IllegalStateException();
+        double firstElement = elements[first];
+        first = first == elements.length - 1 ? 0 : first + 1;
+        length--;
+        return firstElement;
+    }
+
+    @Override
+    public double removeLast() {
+        if (length == 0) throw new IllegalStateException();
+        length--;
+        return elements[index(length)];
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int capacity() {
+        return elements.length;
+    }
+
+    @Override
+    public DoublePipe newInstance() {
+        return new CircArrayDoublePipe(capacity());
+    }
+
+    @Override
+    public void clear() {
+        first = 0;
+        length = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return length == elements.length;
+    }
+
+    @Override
+    public void appendAll(DoublePipe that) {
+        if (that == null || that == this) throw new IllegalArgumentException();
+        int count = that.length();
+        if (count > elements.length - length) throw new IllegalStateException();
+        if (that instanceof CircArrayDoublePipe) {
+            CircArrayDoublePipe source = (CircArrayDoublePipe) that;
+            int head = Math.min(count, source.elements.length - source.first);
+            copyIn(source.elements, source.first, head);
+            copyIn(source.elements, 0, count - head);
+            source.clear();
+        } else {
+            while (!that.isEmpty()) {
+                this.append(that.removeFirst());
+            }
+        }
+    }
+
+    @Override
+    public DoublePipe copy() {
+        return new CircArrayDoublePipe(this);
+    }
+
+    @Override
+    public double first() {
+        if (length == 0) throw new IllegalStateException();
+        return elements[first];
+    }
+
+    @Override
+    public double last() {
+        if (length == 0) throw new IllegalStateException();
+        return elements[index(length - 1)];
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PipeIterator();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DoublePipe)) {
+            return false;
+        }
+        DoublePipe that = (DoublePipe) obj;
+        if (this.capacity() != that.capacity()) {
+            return false;
+        }
+        if (this.length() != that.length()) {
+            return false;
+        }
+        PrimitiveIterator.OfDouble thatIter = that.iterator();
+        for (int i = 0; i < length; i++) {
+            if (Double.doubleToLongBits(elements[index(i)]) != Double.doubleToLongBits(thatIter.nextDouble())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 17;
+        for (int i = 0; i < length; i++) {
+            result = 31 * result + Double.hashCode(elements[index(i)]);
+        }
+        result = 31 * result + capacity();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(elements[index(i)]);
+        }
+        sb.append("]:");
+        sb.append(capacity());
+        return sb.toString();
+    }
+
+    private void copyIn(double[] src, int off, int len) {
+        int start = index(length);
+        int head = Math.min(len, elements.length - start);
+        System.arraycopy(src, off, elements, start, head);
+        System.arraycopy(src, off + head, elements, 0, len - head);
+        length += len;
+    }
+
+    private int index(int offset) {
+        int index = first + offset;
+        return index >= elements.length ? index - elements.length : index;
+    }
+
+    private class PipeIterator implements PrimitiveIterator.OfDouble {
+
+        private int indexed = 0;
+
+        @Override
+        public boolean hasNext() {
+            return indexed < length;
+        }
+
+        @Override
+        public double nextDouble() {
+            if (!this.hasNext()) throw new NoSuchElementException();
+            return elements[index(indexed++)];
+        }
+    }
+}
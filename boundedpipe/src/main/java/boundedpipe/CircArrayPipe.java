@@ -0,0 +1,527 @@
+package boundedpipe;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A pipe backed by a fixed-size circular array.</p>
+ * <p>
+ * A pipe created in overwrite mode never rejects an insertion for lack of
+ * room: <code>append</code> on a full pipe evicts the first element and
+ * <code>prepend</code> evicts the last one, so the pipe keeps the most
+ * recent elements inserted at either end. The bulk insertions and
+ * <code>appendAll(Pipe)</code> evict in the same way. Independently of the
+ * mode, <code>appendEvicting</code> and <code>prependEvicting</code> insert
+ * by eviction and return the element that was dropped.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class CircArrayPipe<E> extends AbstractPipe<E> {
+
+    private final E[] elements;
+    private final boolean overwrite;
+    private int first;
+    private int last;
+
+    public CircArrayPipe(int max) {
+        this(max, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public CircArrayPipe(int max, boolean overwrite) {
+        super(max);
+        elements = (E[]) new Object[max];
+        this.overwrite = overwrite;
+        first = -1;
+        last = -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CircArrayPipe(CircArrayPipe<E> that) {
+        super(that.capacity());
+        elements = (E[]) new Object[that.capacity()];
+        overwrite = that.overwrite;
+        int len = that.length();
+        if (len == 0) {
+            first = -1;
+            last = -1;
+        } else {
+            that.copyOut(that.first, elements, len);
+            first = 0;
+            last = len - 1;
+        }
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (!tryPrepend(element)) throw rejected("prepend");
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) {
+            if (!overwrite || capacity() == 0) return false;
+            overwriteLast(element);
+            return true;
+        }
+        if (this.isEmpty()) {
+            elements[0] = element;
+            first = 0;
+            last = 0;
+        } else {
+            first = (first - 1 + capacity()) % capacity();
+            elements[first] = element;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) {
+            if (!overwrite || capacity() == 0) return false;
+            overwriteFirst(element);
+            return true;
+        }
+        if (this.isEmpty()) {
+            elements[0] = element;
+            first = 0;
+            last = 0;
+        } else {
+            last = (last + 1 + capacity()) % capacity();
+            elements[last] = element;
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Adds an element to the front of this pipe, evicting the last element
+     * if the pipe is full.
+     *
+     * @return the evicted element, or <code>null</code> if the pipe had room;
+     * a pipe with a capacity of zero evicts <code>element</code> itself
+     * @throws IllegalArgumentException if <code>element</code> is null
+     */
+    public E prependEvicting(E element) throws IllegalArgumentException {
+        if (element == null) throw new IllegalArgumentException();
+        if (capacity() == 0) return element;
+        if (this.isFull()) return overwriteLast(element);
+        this.tryPrepend(element);
+        return null;
+    }
+
+    /**
+     * Adds an element to the back of this pipe, evicting the first element
+     * if the pipe is full.
+     *
+     * @return the evicted element, or <code>null</code> if the pipe had room;
+     * a pipe with a capacity of zero evicts <code>element</code> itself
+     * @throws IllegalArgumentException if <code>element</code> is null
+     */
+    public E appendEvicting(E element) throws IllegalArgumentException {
+        if (element == null) throw new IllegalArgumentException();
+        if (capacity() == 0) return element;
+        if (this.isFull()) return overwriteFirst(element);
+        this.tryAppend(element);
+        return null;
+    }
+
+    private E overwriteFirst(E element) {
+        E evicted = elements[first];
+        elements[first] = element;
+        last = first;
+        first = (first + 1) % capacity();
+        modCount++;
+        return evicted;
+    }
+
+    private E overwriteLast(E element) {
+        E evicted = elements[last];
+        elements[last] = element;
+        first = last;
+        last = (last - 1 + capacity()) % capacity();
+        modCount++;
+        return evicted;
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (this.isEmpty()) return null;
+        modCount++;
+        E firstElement = elements[first];
+        if (first == last) {
+            first = -1;
+            last = -1;
+            return firstElement;
+        }
+        first = (first + 1 + capacity()) % capacity();
+        return firstElement;
+    }
+
+    @Override
+    public E removeLast() {
+        E lastElement = pollLast();
+        if (lastElement == null) throw rejected("removeLast");
+        return lastElement;
+    }
+
+    @Override
+    public E pollLast() {
+        if (this.isEmpty()) return null;
+        modCount++;
+        E lastElement = elements[last];
+        if (first == last) {
+            first = -1;
+            last = -1;
+            return lastElement;
+        }
+        last = (last - 1 + capacity()) % capacity();
+        return lastElement;
+    }
+
+    @Override
+    public void prependAll(E[] src, int off, int len) {
+        if (overwrite) {
+            checkElements(src, off, len);
+            len = Math.min(len, capacity());
+            discardLast(len - (capacity() - length()));
+        } else {
+            checkRange(src, off, len, "prependAll");
+        }
+        if (len == 0) return;
+        modCount++;
+        if (this.isEmpty()) {
+            System.arraycopy(src, off, elements, 0, len);
+            first = 0;
+            last = len - 1;
+            return;
+        }
+        int newFirst = (first - len + capacity()) % capacity();
+        copyIn(src, off, newFirst, len);
+        first = newFirst;
+    }
+
+    @Override
+    public void appendAll(E[] src, int off, int len) {
+        if (overwrite) {
+            checkElements(src, off, len);
+            if (len > capacity()) {
+                off += len - capacity();
+                len = capacity();
+            }
+            discardFirst(len - (capacity() - length()));
+        } else {
+            checkRange(src, off, len, "appendAll");
+        }
+        if (len == 0) return;
+        modCount++;
+        if (this.isEmpty()) {
+            System.arraycopy(src, off, elements, 0, len);
+            first = 0;
+            last = len - 1;
+            return;
+        }
+        copyIn(src, off, (last + 1) % capacity(), len);
+        last = (last + len) % capacity();
+    }
+
+    @Override
+    public int removeFirst(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = Math.min(max, length());
+        if (removed == 0) return 0;
+        modCount++;
+        copyOut(first, dst, removed);
+        if (removed == length()) {
+            clear();
+        } else {
+            first = (first + removed) % capacity();
+        }
+        return removed;
+    }
+
+    @Override
+    public int removeLast(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = Math.min(max, length());
+        if (removed == 0) return 0;
+        modCount++;
+        int start = (last - removed + 1 + capacity()) % capacity();
+        copyOut(start, dst, removed);
+        for (int i = 0, j = removed - 1; i < j; i++, j--) {
+            E swap = dst[i];
+            dst[i] = dst[j];
+            dst[j] = swap;
+        }
+        if (removed == length()) {
+            clear();
+        } else {
+            last = (start - 1 + capacity()) % capacity();
+        }
+        return removed;
+    }
+
+    @Override
+    protected void traverse(Consumer<? super E> action) {
+        int expectedModCount = modCount;
+        int index = first;
+        for (int remaining = length(); remaining > 0 && modCount == expectedModCount; remaining--) {
+            action.accept(elements[index]);
+            index = index == elements.length - 1 ? 0 : index + 1;
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public int drainTo(Consumer<? super E> action, int max) {
+        if (action == null || max < 0) throw new IllegalArgumentException();
+        int drained = 0;
+        while (drained < max && first != -1) {
+            E element = elements[first];
+            if (first == last) {
+                first = -1;
+                last = -1;
+            } else {
+                first = first == elements.length - 1 ? 0 : first + 1;
+            }
+            modCount++;
+            drained++;
+            action.accept(element);
+        }
+        return drained;
+    }
+
+    @Override
+    public int drainTo(Pipe<E> that, int max) {
+        if (that == null || that == this || max < 0) throw new IllegalArgumentException();
+        int drained = Math.min(Math.min(max, length()), that.capacity() - that.length());
+        if (drained <= 0) return 0;
+        int head = Math.min(drained, capacity() - first);
+        that.appendAll(elements, first, head);
+        that.appendAll(elements, 0, drained - head);
+        discardFirst(drained);
+        return drained;
+    }
+
+    private void discardFirst(int count) {
+        if (count <= 0) return;
+        if (count == length()) {
+            clear();
+        } else {
+            first = (first + count) % capacity();
+            modCount++;
+        }
+    }
+
+    private void discardLast(int count) {
+        if (count <= 0) return;
+        if (count == length()) {
+            clear();
+        } else {
+            last = (last - count + capacity()) % capacity();
+            modCount++;
+        }
+    }
+
+    @Override
+    public void appendAll(Pipe<E> that) {
+        if (!overwrite) {
+            super.appendAll(that);
+            return;
+        }
+        if (that == null || that == this) throw new IllegalArgumentException();
+        E element;
+        while ((element = that.pollFirst()) != null) {
+            this.appendEvicting(element);
+        }
+    }
+
+    @Override
+    protected boolean transferFrom(Pipe<E> that) {
+        if (!(that instanceof CircArrayPipe)) return false;
+        CircArrayPipe<E> source = (CircArrayPipe<E>) that;
+        int len = source.length();
+        if (len == 0) return true;
+        int start = this.isEmpty() ? 0 : (last + 1) % capacity();
+        int head = Math.min(len, source.capacity() - source.first);
+        copyIn(source.elements, source.first, start, head);
+        copyIn(source.elements, 0, (start + head) % capacity(), len - head);
+        if (this.isEmpty()) first = 0;
+        last = (start + len - 1) % capacity();
+        modCount++;
+        source.clear();
+        return true;
+    }
+
+    @Override
+    public int length() {
+        if (first == -1) return 0;
+        if ((last - (first - capacity()) + 1) % capacity() == 0) return capacity();
+        return (last - (first - capacity()) + 1) % capacity();
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new CircArrayPipe<>(capacity(), overwrite);
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        return new CircArrayPipe<>(this);
+    }
+
+    @Override
+    public void clear() {
+        first = -1;
+        last = -1;
+        modCount++;
+    }
+
+    @Override
+    public E first() {
+        if (this.isEmpty()) return null;
+        return elements[first];
+    }
+
+    @Override
+    public E last() {
+        if (this.isEmpty()) return null;
+        return elements[last];
+    }
+
+    private void copyIn(E[] src, int off, int start, int len) {
+        int head = Math.min(len, capacity() - start);
+        System.arraycopy(src, off, elements, start, head);
+        System.arraycopy(src, off + head, elements, 0, len - head);
+    }
+
+    private void copyOut(int start, E[] dst, int len) {
+        int head = Math.min(len, capacity() - start);
+        System.arraycopy(elements, start, dst, 0, head);
+        System.arraycopy(elements, 0, dst, head, len - head);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(first, 1);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(last, capacity() - 1);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return new PipeSpliterator(0, length(), modCount);
+    }
+
+    private class PipeSpliterator implements Spliterator<E> {
+
+        private int origin;
+        private final int fence;
+        private final int expectedModCount;
+
+        private PipeSpliterator(int origin, int fence, int expectedModCount) {
+            this.origin = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int middle = (origin + fence) >>> 1;
+            if (origin >= middle) return null;
+            return new PipeSpliterator(origin, origin = middle, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null) throw new NullPointerException();
+            if (origin >= fence) return false;
+            int index = first + origin;
+            if (index >= capacity()) index -= capacity();
+            E element = elements[index];
+            origin++;
+            action.accept(element);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            if (action == null) throw new NullPointerException();
+            if (origin >= fence) return;
+            int start = first + origin;
+            if (start >= capacity()) start -= capacity();
+            int remaining = fence - origin;
+            int headLength = Math.min(remaining, capacity() - start);
+            origin = fence;
+            for (int i = start; i < start + headLength; i++) {
+                action.accept(elements[i]);
+            }
+            for (int i = 0; i < remaining - headLength; i++) {
+                action.accept(elements[i]);
+            }
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private int indexOfNext;
+        private int remaining = length();
+        private final int step;
+        private final int expectedModCount = modCount;
+
+        private PipeIterator(int start, int step) {
+            this.indexOfNext = start;
+            this.step = step;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = elements[indexOfNext];
+            remaining--;
+            indexOfNext += step;
+            if (indexOfNext >= capacity()) indexOfNext -= capacity();
+            return result;
+        }
+    }
+}
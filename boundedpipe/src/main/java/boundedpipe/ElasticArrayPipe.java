@@ -0,0 +1,440 @@
+package boundedpipe;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A circular-array pipe that allocates its backing array lazily and resizes
+ * it with the length of the pipe, while <code>capacity()</code> remains the
+ * hard bound on the number of elements.</p>
+ * <p>
+ * No array is allocated until the first insertion. The array then doubles
+ * whenever it fills, up to the capacity. When the pipe has stayed at a
+ * quarter of its array or less for as many removals as the array has slots,
+ * the array is halved, so the cost of shrinking is spread over the removals
+ * that led to it. <code>clear</code> releases the array entirely.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class ElasticArrayPipe<E> extends AbstractPipe<E> {
+
+    private static final int MIN_SIZE = 16;
+    private static final Object[] NO_ELEMENTS = {};
+
+    private E[] elements;
+    private int first;
+    private int length;
+    private int idleRemovals;
+
+    @SuppressWarnings("unchecked")
+    public ElasticArrayPipe(int max) {
+        super(max);
+        if (max < 0) throw new IllegalArgumentException();
+        elements = (E[]) NO_ELEMENTS;
+        first = 0;
+        length = 0;
+    }
+
+    private ElasticArrayPipe(ElasticArrayPipe<E> that) {
+        this(that.capacity());
+        if (that.length > 0) {
+            resize(that.elements.length);
+            that.copyOut(that.first, elements, 0, that.length);
+            length = that.length;
+        }
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (!tryPrepend(element)) throw rejected("prepend");
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (length == capacity()) return false;
+        ensureRoom(length + 1);
+        first = first == 0 ? elements.length - 1 : first - 1;
+        elements[first] = element;
+        length++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (length == capacity()) return false;
+        ensureRoom(length + 1);
+        elements[index(length)] = element;
+        length++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (length == 0) return null;
+        E firstElement = elements[first];
+        elements[first] = null;
+        first = first == elements.length - 1 ? 0 : first + 1;
+        length--;
+        modCount++;
+        shrinkIfIdle(1);
+        return firstElement;
+    }
+
+    @Override
+    public E removeLast() {
+        E lastElement = pollLast();
+        if (lastElement == null) throw rejected("removeLast");
+        return lastElement;
+    }
+
+    @Override
+    public E pollLast() {
+        if (length == 0) return null;
+        length--;
+        int index = index(length);
+        E lastElement = elements[index];
+        elements[index] = null;
+        modCount++;
+        shrinkIfIdle(1);
+        return lastElement;
+    }
+
+    @Override
+    public void prependAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "prependAll");
+        if (len == 0) return;
+        ensureRoom(length + len);
+        int newFirst = first - len;
+        if (newFirst < 0) newFirst += elements.length;
+        copyIn(src, off, newFirst, len);
+        first = newFirst;
+        length += len;
+        modCount++;
+    }
+
+    @Override
+    public void appendAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "appendAll");
+        if (len == 0) return;
+        ensureRoom(length + len);
+        copyIn(src, off, index(length), len);
+        length += len;
+        modCount++;
+    }
+
+    @Override
+    public int removeFirst(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = Math.min(max, length);
+        if (removed == 0) return 0;
+        copyOut(first, dst, 0, removed);
+        clearRange(first, removed);
+        first = index(removed);
+        length -= removed;
+        modCount++;
+        shrinkIfIdle(removed);
+        return removed;
+    }
+
+    @Override
+    public int removeLast(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = Math.min(max, length);
+        if (removed == 0) return 0;
+        int start = index(length - removed);
+        copyOut(start, dst, 0, removed);
+        for (int i = 0, j = removed - 1; i < j; i++, j--) {
+            E swap = dst[i];
+            dst[i] = dst[j];
+            dst[j] = swap;
+        }
+        clearRange(start, removed);
+        length -= removed;
+        modCount++;
+        shrinkIfIdle(removed);
+        return removed;
+    }
+
+    @Override
+    protected void traverse(Consumer<? super E> action) {
+        int expectedModCount = modCount;
+        int index = first;
+        for (int remaining = length; remaining > 0 && modCount == expectedModCount; remaining--) {
+            action.accept(elements[index]);
+            index = index == elements.length - 1 ? 0 : index + 1;
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public int drainTo(Consumer<? super E> action, int max) {
+        if (action == null || max < 0) throw new IllegalArgumentException();
+        int drained = 0;
+        while (drained < max && length > 0) {
+            E element = elements[first];
+            elements[first] = null;
+            first = first == elements.length - 1 ? 0 : first + 1;
+            length--;
+            modCount++;
+            drained++;
+            action.accept(element);
+        }
+        if (drained > 0) shrinkIfIdle(drained);
+        return drained;
+    }
+
+    @Override
+    public int drainTo(Pipe<E> that, int max) {
+        if (that == null || that == this || max < 0) throw new IllegalArgumentException();
+        int drained = Math.min(Math.min(max, length), that.capacity() - that.length());
+        if (drained <= 0) return 0;
+        int headLength = Math.min(drained, elements.length - first);
+        that.appendAll(elements, first, headLength);
+        that.appendAll(elements, 0, drained - headLength);
+        clearRange(first, drained);
+        first = index(drained);
+        length -= drained;
+        modCount++;
+        shrinkIfIdle(drained);
+        return drained;
+    }
+
+    @Override
+    protected boolean transferFrom(Pipe<E> that) {
+        if (!(that instanceof ElasticArrayPipe)) return false;
+        ElasticArrayPipe<E> source = (ElasticArrayPipe<E>) that;
+        int len = source.length;
+        if (len == 0) return true;
+        ensureRoom(length + len);
+        int headLength = Math.min(len, source.elements.length - source.first);
+        copyIn(source.elements, source.first, index(length), headLength);
+        copyIn(source.elements, 0, index(length + headLength), len - headLength);
+        length += len;
+        modCount++;
+        source.clear();
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new ElasticArrayPipe<>(capacity());
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        return new ElasticArrayPipe<>(this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        elements = (E[]) NO_ELEMENTS;
+        first = 0;
+        length = 0;
+        idleRemovals = 0;
+        modCount++;
+    }
+
+    @Override
+    public E first() {
+        if (length == 0) return null;
+        return elements[first];
+    }
+
+    @Override
+    public E last() {
+        if (length == 0) return null;
+        return elements[index(length - 1)];
+    }
+
+    /**
+     * Returns the number of slots currently allocated for elements.
+     */
+    int allocated() {
+        return elements.length;
+    }
+
+    private int index(int offset) {
+        int index = first + offset;
+        return index >= elements.length ? index - elements.length : index;
+    }
+
+    private void ensureRoom(int needed) {
+        if (needed > elements.length >> 2) idleRemovals = 0;
+        if (needed <= elements.length) return;
+        long size = Math.max(MIN_SIZE, elements.length);
+        while (size < needed) {
+            size = size << 1;
+        }
+        resize((int) Math.min(size, capacity()));
+    }
+
+    private void shrinkIfIdle(int removed) {
+        if (elements.length <= MIN_SIZE || length > elements.length >> 2) {
+            idleRemovals = 0;
+            return;
+        }
+        idleRemovals += removed;
+        if (idleRemovals >= elements.length) {
+            resize(Math.max(MIN_SIZE, elements.length >> 1));
+            idleRemovals = 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int size) {
+        E[] resized = (E[]) new Object[size];
+        copyOut(first, resized, 0, length);
+        elements = resized;
+        first = 0;
+    }
+
+    private void copyIn(E[] src, int off, int start, int len) {
+        int headLength = Math.min(len, elements.length - start);
+        System.arraycopy(src, off, elements, start, headLength);
+        System.arraycopy(src, off + headLength, elements, 0, len - headLength);
+    }
+
+    private void copyOut(int start, E[] dst, int off, int len) {
+        int headLength = Math.min(len, elements.length - start);
+        System.arraycopy(elements, start, dst, off, headLength);
+        System.arraycopy(elements, 0, dst, off + headLength, len - headLength);
+    }
+
+    private void clearRange(int start, int len) {
+        int headLength = Math.min(len, elements.length - start);
+        Arrays.fill(elements, start, start + headLength, null);
+        Arrays.fill(elements, 0, len - headLength, null);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(true);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(false);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return new PipeSpliterator(0, length(), modCount);
+    }
+
+    private class PipeSpliterator implements Spliterator<E> {
+
+        private int origin;
+        private final int fence;
+        private final int expectedModCount;
+
+        private PipeSpliterator(int origin, int fence, int expectedModCount) {
+            this.origin = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int middle = (origin + fence) >>> 1;
+            if (origin >= middle) return null;
+            return new PipeSpliterator(origin, origin = middle, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null) throw new NullPointerException();
+            if (origin >= fence) return false;
+            E element = elements[index(origin)];
+            origin++;
+            action.accept(element);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            if (action == null) throw new NullPointerException();
+            if (origin >= fence) return;
+            int start = index(origin);
+            int remaining = fence - origin;
+            int headLength = Math.min(remaining, elements.length - start);
+            origin = fence;
+            for (int i = start; i < start + headLength; i++) {
+                action.accept(elements[i]);
+            }
+            for (int i = 0; i < remaining - headLength; i++) {
+                action.accept(elements[i]);
+            }
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private int indexOfNext;
+        private int remaining = length;
+        private final boolean ascending;
+        private final int expectedModCount = modCount;
+
+        private PipeIterator(boolean ascending) {
+            this.ascending = ascending;
+            this.indexOfNext = length == 0 ? 0 : ascending ? first : index(length - 1);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = elements[indexOfNext];
+            remaining--;
+            if (ascending) {
+                indexOfNext = indexOfNext == elements.length - 1 ? 0 : indexOfNext + 1;
+            } else {
+                indexOfNext = indexOfNext == 0 ? elements.length - 1 : indexOfNext - 1;
+            }
+            return result;
+        }
+    }
+}
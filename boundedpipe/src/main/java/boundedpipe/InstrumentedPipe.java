@@ -0,0 +1,355 @@
+package boundedpipe;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * <p>
+ * A pipe that wraps another pipe and records metrics about its use: how
+ * many elements are appended, prepended and removed, how many insertions
+ * are rejected because the pipe is full, the greatest length the pipe
+ * reaches, and how long elements stay in it. The metrics are available from
+ * <code>metrics()</code>, which can register them as a JMX MBean.</p>
+ * <p>
+ * Sojourn times are measured by keeping the insertion time of every element
+ * in a ring of <code>long</code>s that mirrors the wrapped pipe, so every
+ * insertion and removal must go through the decorator. Keeping the mirror
+ * in step with the pipe serializes insertions and removals on a lock; a pipe
+ * created without sojourn tracking only updates the counters, which never
+ * block, and is as thread-safe as the pipe it wraps. Elements already in the
+ * wrapped pipe count as inserted when it is wrapped. If the wrapped pipe
+ * evicts an element to make room for an insertion, as a
+ * <code>CircArrayPipe</code> in overwrite mode does, the insertion time of
+ * the evicted element is dropped without recording a sojourn time.</p>
+ * <p>
+ * Bulk insertions and removals, and <code>drainTo</code> another pipe, are
+ * delegated whole to the wrapped pipe, so they are as atomic as its own, and
+ * are counted by the number of elements they move. With sojourn tracking
+ * <code>drainTo</code> holds the lock while it inserts into the other pipe,
+ * so two tracking pipes must not drain into each other at the same time.</p>
+ * <p>
+ * Iterators, streams and <code>forEach</code> are those of the wrapped
+ * pipe.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class InstrumentedPipe<E> extends AbstractPipe<E> {
+
+    private final Pipe<E> pipe;
+    private final PipeMetrics metrics;
+    private final CircArrayLongPipe insertionTimes;
+    private final ReentrantLock lock;
+
+    public InstrumentedPipe(Pipe<E> pipe) {
+        this(pipe, true);
+    }
+
+    public InstrumentedPipe(Pipe<E> pipe, boolean trackSojourn) {
+        super(checkPipe(pipe).capacity());
+        this.pipe = pipe;
+        metrics = new PipeMetrics(pipe);
+        if (trackSojourn) {
+            insertionTimes = new CircArrayLongPipe(pipe.capacity());
+            lock = new ReentrantLock();
+            long now = System.nanoTime();
+            for (int i = pipe.length(); i > 0; i--) {
+                insertionTimes.append(now);
+            }
+        } else {
+            insertionTimes = null;
+            lock = null;
+        }
+    }
+
+    private static <E> Pipe<E> checkPipe(Pipe<E> pipe) {
+        if (pipe == null) throw new IllegalArgumentException();
+        return pipe;
+    }
+
+    /**
+     * Returns the metrics of this pipe.
+     *
+     * @return the metrics of this pipe
+     */
+    public PipeMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (!tryPrepend(element)) throw rejected("prepend");
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
+        if (insertionTimes == null) return recordInsertion(pipe.tryPrepend(element), true);
+        lock.lock();
+        try {
+            int before = pipe.length();
+            boolean prepended = pipe.tryPrepend(element);
+            if (prepended) {
+                // a full pipe that still accepts an element evicted its last one
+                if (pipe.length() == before && !insertionTimes.isEmpty()) insertionTimes.removeLast();
+                if (!insertionTimes.isFull()) insertionTimes.prepend(System.nanoTime());
+            }
+            return recordInsertion(prepended, true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (insertionTimes == null) return recordInsertion(pipe.tryAppend(element), false);
+        lock.lock();
+        try {
+            int before = pipe.length();
+            boolean appended = pipe.tryAppend(element);
+            if (appended) {
+                // a full pipe that still accepts an element evicted its first one
+                if (pipe.length() == before && !insertionTimes.isEmpty()) insertionTimes.removeFirst();
+                if (!insertionTimes.isFull()) insertionTimes.append(System.nanoTime());
+            }
+            return recordInsertion(appended, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (insertionTimes == null) return recordRemoval(pipe.pollFirst());
+        lock.lock();
+        try {
+            E firstElement = pipe.pollFirst();
+            if (firstElement != null && !insertionTimes.isEmpty()) {
+                metrics.recordSojourn(System.nanoTime() - insertionTimes.removeFirst());
+            }
+            return recordRemoval(firstElement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E removeLast() {
+        E lastElement = pollLast();
+        if (lastElement == null) throw rejected("removeLast");
+        return lastElement;
+    }
+
+    @Override
+    public E pollLast() {
+        if (insertionTimes == null) return recordRemoval(pipe.pollLast());
+        lock.lock();
+        try {
+            E lastElement = pipe.pollLast();
+            if (lastElement != null && !insertionTimes.isEmpty()) {
+                metrics.recordSojourn(System.nanoTime() - insertionTimes.removeLast());
+            }
+            return recordRemoval(lastElement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void prependAll(E[] src, int off, int len) {
+        insertAll(() -> pipe.prependAll(src, off, len), len, true);
+    }
+
+    @Override
+    public void appendAll(E[] src, int off, int len) {
+        insertAll(() -> pipe.appendAll(src, off, len), len, false);
+    }
+
+    @Override
+    public void appendAll(Pipe<E> that) {
+        if (that == null || that == this) throw new IllegalArgumentException();
+        insertAll(() -> pipe.appendAll(that), that.length(), false);
+    }
+
+    @Override
+    public int removeFirst(E[] dst, int max) {
+        return removeAll(() -> pipe.removeFirst(dst, max), true);
+    }
+
+    @Override
+    public int removeLast(E[] dst, int max) {
+        return removeAll(() -> pipe.removeLast(dst, max), false);
+    }
+
+    @Override
+    public int drainTo(Pipe<E> that, int max) {
+        if (that == this) throw new IllegalArgumentException();
+        return removeAll(() -> pipe.drainTo(that, max), true);
+    }
+
+    private void insertAll(Runnable insertion, int count, boolean atFront) {
+        if (insertionTimes != null) lock.lock();
+        try {
+            try {
+                insertion.run();
+            } catch (IllegalStateException e) {
+                metrics.recordRejections(count);
+                throw e;
+            }
+            int length = pipe.length();
+            if (insertionTimes != null) stampAll(Math.min(count, length), length, atFront);
+            if (atFront) {
+                metrics.recordPrepends(count, length);
+            } else {
+                metrics.recordAppends(count, length);
+            }
+        } finally {
+            if (insertionTimes != null) lock.unlock();
+        }
+    }
+
+    private void stampAll(int count, int length, boolean atFront) {
+        // elements the wrapped pipe evicted to make room leave from the other end
+        while (insertionTimes.length() > length - count) {
+            if (atFront) {
+                insertionTimes.removeLast();
+            } else {
+                insertionTimes.removeFirst();
+            }
+        }
+        long now = System.nanoTime();
+        for (int i = 0; i < count && !insertionTimes.isFull(); i++) {
+            if (atFront) {
+                insertionTimes.prepend(now);
+            } else {
+                insertionTimes.append(now);
+            }
+        }
+    }
+
+    private int removeAll(IntSupplier removal, boolean fromFront) {
+        if (insertionTimes == null) {
+            int removed = removal.getAsInt();
+            metrics.recordRemoves(removed);
+            return removed;
+        }
+        lock.lock();
+        try {
+            int removed = removal.getAsInt();
+            long now = System.nanoTime();
+            for (int i = 0; i < removed && !insertionTimes.isEmpty(); i++) {
+                long inserted = fromFront ? insertionTimes.removeFirst() : insertionTimes.removeLast();
+                metrics.recordSojourn(now - inserted);
+            }
+            metrics.recordRemoves(removed);
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean recordInsertion(boolean inserted, boolean atFront) {
+        if (!inserted) {
+            metrics.recordRejection();
+        } else if (atFront) {
+            metrics.recordPrepend(pipe.length());
+        } else {
+            metrics.recordAppend(pipe.length());
+        }
+        return inserted;
+    }
+
+    private E recordRemoval(E element) {
+        if (element != null) metrics.recordRemove();
+        return element;
+    }
+
+    @Override
+    public int length() {
+        return pipe.length();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return pipe.isEmpty();
+    }
+
+    @Override
+    public boolean isFull() {
+        return pipe.isFull();
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new InstrumentedPipe<>(pipe.newInstance(), insertionTimes != null);
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        if (insertionTimes == null) return new InstrumentedPipe<>(pipe.copy(), false);
+        lock.lock();
+        try {
+            return new InstrumentedPipe<>(pipe.copy(), true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (insertionTimes == null) {
+            pipe.clear();
+            return;
+        }
+        lock.lock();
+        try {
+            pipe.clear();
+            insertionTimes.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E first() {
+        return pipe.first();
+    }
+
+    @Override
+    public E last() {
+        return pipe.last();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return pipe.iterator();
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return pipe.descendingIterator();
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return pipe.spliterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        pipe.forEach(action);
+    }
+}
@@ -1,10 +1,13 @@
 package boundedpipe;
 
+import java.util.PrimitiveIterator;
+
 /**
  * <p>
- * A bounded pipe. Elements in the pipe may not be null.</p>
+ * A bounded pipe of <code>int</code> values, with the same contract as
+ * <code>Pipe</code> but without boxing.</p>
  * <p>
- * A typical string representation of a bounded pipe is
+ * A typical string representation of a bounded int pipe is
  * <code>[e_1, e_2, ..., e_n-1, e_n]:c</code>,
  * where <code>e_1</code> is the first element of the pipe,
  * <code>e_n</code> is the last element,
@@ -13,87 +16,85 @@ package boundedpipe;
  * <p>
  * Implementations of this interface should have a one-argument constructor
  * that takes the desired capacity and creates an empty pipe.
- * The capacity must be strictly greater than zero.
+ * The capacity must not be negative.
  * </p>
- * <p>Example: <code>public Pipe(int max)</code></p>
  * <p>
- * A pipe iterator iterates through the pipe from first to last.</p>
+ * A pipe iterator iterates through the pipe from first to last. It is a
+ * primitive iterator, so <code>nextInt</code> returns each element without
+ * boxing it.</p>
  *
- * @param <E> the type of elements in this pipe
  * @author Miles Spence
  */
-public interface Pipe<E> extends Iterable<E> {
+public interface IntPipe extends Iterable<Integer> {
 
     /**
      * <p>
      * Adds the specified element to the beginning of this pipe.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * <code>p.prepend(x)</code><br>
-     * { <code>p = [X, A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [9, 1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * </p>
      *
      * @param element the element to be prepended to this pipe
-     * @throws IllegalArgumentException if the specified element is null
-     * @throws IllegalStateException    if this pipe is full
+     * @throws IllegalStateException if this pipe is full
      */
-    void prepend(E element) throws IllegalArgumentException, IllegalStateException;
+    void prepend(int element) throws IllegalStateException;
 
     /**
      * <p>
      * Adds the specified element to the end of this pipe.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * <code>p.append(x)</code><br>
-     * { <code>p = [A, B, C, X]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3, 9]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * </p>
      *
      * @param element the element to be appended to this pipe
-     * @throws IllegalArgumentException if the specified element is null
-     * @throws IllegalStateException    if this pipe is full
+     * @throws IllegalStateException if this pipe is full
      */
-    void append(E element) throws IllegalArgumentException, IllegalStateException;
+    void append(int element) throws IllegalStateException;
 
     /**
      * <p>
      * Removes and returns the first element from this pipe.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * <code>x = p.removeFirst()</code><br>
-     * { <code>p = [B, C]:6</code> <em>and</em> <code>x = A</code> }<br>
+     * { <code>p = [2, 3]:6</code> <em>and</em> <code>x = 1</code> }<br>
      * </p>
      *
      * @return the first element from this pipe
      * @throws IllegalStateException if this pipe is empty
      */
-    E removeFirst() throws IllegalStateException;
+    int removeFirst() throws IllegalStateException;
 
     /**
      * <p>
      * Removes and returns the last element from this pipe.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * <code>x = p.removeLast()</code><br>
-     * { <code>p = [A, B]:6</code> <em>and</em> <code>x = C</code> }<br>
+     * { <code>p = [1, 2]:6</code> <em>and</em> <code>x = 3</code> }<br>
      * </p>
      *
      * @return the last element from this pipe
      * @throws IllegalStateException if this pipe is empty
      */
-    E removeLast() throws IllegalStateException;
+    int removeLast() throws IllegalStateException;
 
     /**
      * <p>
      * Returns the number of elements in this pipe.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * <code>x = p.length()</code><br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = 3</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 3</code> }<br>
      * </p>
      *
      * @return the number of elements in this pipe
@@ -105,9 +106,9 @@ public interface Pipe<E> extends Iterable<E> {
      * Returns the number of elements that this pipe can hold.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * <code>x = p.capacity()</code><br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = 6</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 6</code> }<br>
      * </p>
      *
      * @return the number of elements that this pipe can hold
@@ -119,21 +120,21 @@ public interface Pipe<E> extends Iterable<E> {
      * Creates a new, empty bounded pipe with the same capacity as this pipe.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = X</code> }<br>
      * <code>x = p.newInstance()</code><br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = []:6</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = []:6</code> }<br>
      * </p>
      *
      * @return empty bounded pipe with the same capacity as this pipe
      */
-    Pipe<E> newInstance();
+    IntPipe newInstance();
 
     /**
      * <p>
      * Removes all of the elements of this pipe, without altering the capacity.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> }<br>
      * <code>p.clear()</code><br>
      * { <code>p = []:6</code> }<br>
      * </p>
@@ -145,12 +146,12 @@ public interface Pipe<E> extends Iterable<E> {
      * Checks if this pipe has any elements.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = X</code> }<br>
      * <code>x = p.isEmpty()</code><br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = false</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = false</code> }<br>
      * </p>
      *
-     * @return true if this pipe has any elements and false otherwise
+     * @return true if this pipe has no elements and false otherwise
      */
     boolean isEmpty();
 
@@ -159,9 +160,9 @@ public interface Pipe<E> extends Iterable<E> {
      * Checks if this pipe has any more space (basically if length == capacity).</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = X</code> }<br>
      * <code>x = p.isFull()</code><br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = false</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = false</code> }<br>
      * </p>
      *
      * @return true if this pipe is full and false otherwise
@@ -173,54 +174,69 @@ public interface Pipe<E> extends Iterable<E> {
      * Takes another pipe and empties its elements into this pipe.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = [D, E, F]:6</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = [4, 5, 6]:6</code> }<br>
      * <code>p.appendAll(x)</code><br>
-     * { <code>p = [A, B, C, D, E, F]:6</code> <em>and</em> <code>x = []:6</code> }<br>
+     * { <code>p = [1, 2, 3, 4, 5, 6]:6</code> <em>and</em> <code>x = []:6</code> }<br>
      * </p>
      *
      * @param that the pipe to be emptied
+     * @throws IllegalArgumentException if the specified pipe is null or is this pipe
+     * @throws IllegalStateException    if this pipe does not have room for every element
+     *                                  of <code>that</code>, in which case neither pipe is changed
      */
-    void appendAll(Pipe<E> that);
+    void appendAll(IntPipe that) throws IllegalArgumentException, IllegalStateException;
 
     /**
      * <p>
      * Creates a complete copy of this pipe.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = X</code> }<br>
      * <code>x = p.copy()</code><br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = [A, B, C]:6</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = [1, 2, 3]:6</code> }<br>
      * </p>
      *
      * @return a complete copy of this pipe
      */
-    Pipe<E> copy();
+    IntPipe copy();
 
     /**
      * <p>
      * Returns the first element of this pipe, without removing the element.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * <code>x = p.first()</code><br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = A</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 1</code> }<br>
      * </p>
      *
      * @return the first element of this pipe
+     * @throws IllegalStateException if this pipe is empty
      */
-    E first();
+    int first() throws IllegalStateException;
 
     /**
      * <p>
      * Returns the last element of this pipe, without removing the element.</p>
      * <p>
      * Example:<br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
      * <code>x = p.last()</code><br>
-     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = C</code> }<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 3</code> }<br>
      * </p>
      *
      * @return the last element of this pipe
+     * @throws IllegalStateException if this pipe is empty
+     */
+    int last() throws IllegalStateException;
+
+    /**
+     * <p>
+     * Returns a primitive iterator over the elements of this pipe, from first
+     * to last.</p>
+     *
+     * @return a primitive iterator over the elements of this pipe
      */
-    E last();
+    @Override
+    PrimitiveIterator.OfInt iterator();
 }
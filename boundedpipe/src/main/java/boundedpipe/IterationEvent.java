@@ -0,0 +1,25 @@
+package boundedpipe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("boundedpipe.Iteration")
+@Label("Pipe Iteration")
+@Category("Bounded Pipe")
+@Description("A forEach traversal of a pipe that took longer than the threshold")
+@Enabled(false)
+@StackTrace(true)
+@Threshold("10 ms")
+final class IterationEvent extends jdk.jfr.Event {
+
+    @Label("Pipe Class")
+    Class<?> pipeClass;
+
+    @Label("Length")
+    int length;
+}
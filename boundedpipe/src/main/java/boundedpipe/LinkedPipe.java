@@ -0,0 +1,505 @@
+package boundedpipe;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A pipe backed by a doubly-linked list of nodes.</p>
+ * <p>
+ * A pipe created with node recycling keeps the nodes of removed elements on
+ * a free list of at most <code>capacity()</code> nodes and reuses them for
+ * later insertions, so a pipe in steady state stops allocating once the free
+ * list has warmed up.</p>
+ * <p>
+ * The spliterator of a linked pipe splits by copying a batch of elements
+ * into an array, each batch 1024 elements larger than the last, so a
+ * parallel stream can start work without walking the whole list.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class LinkedPipe<E> extends AbstractPipe<E> {
+
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+
+    private class Node {
+        public E contents;
+        public Node prev;
+        public Node next;
+
+        public Node(E contents) {
+            this.contents = contents;
+            this.prev = null;
+            this.next = null;
+        }
+    }
+
+    private Node first;
+    private Node last;
+    private int length;
+    private final boolean recycleNodes;
+    private Node free;
+    private int freeLength;
+
+    public LinkedPipe(int max) {
+        this(max, false);
+    }
+
+    public LinkedPipe(int max, boolean recycleNodes) {
+        super(max);
+        first = null;
+        last = null;
+        length = 0;
+        this.recycleNodes = recycleNodes;
+    }
+
+    private LinkedPipe(LinkedPipe<E> that) {
+        this(that.capacity(), that.recycleNodes);
+        Node previous = null;
+        for (Node current = that.first; current != null; current = current.next) {
+            Node newNode = newNode(current.contents);
+            if (previous == null) {
+                first = newNode;
+            } else {
+                newNode.prev = previous;
+                previous.next = newNode;
+            }
+            previous = newNode;
+        }
+        last = previous;
+        length = that.length;
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (!tryPrepend(element)) throw rejected("prepend");
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) return false;
+        Node newNode = newNode(element);
+        if (this.isEmpty()) {
+            first = newNode;
+            last = newNode;
+        } else {
+            newNode.next = first;
+            first.prev = newNode;
+            first = newNode;
+        }
+        length++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) return false;
+        Node newNode = newNode(element);
+        if (this.isEmpty()) {
+            first = newNode;
+            last = newNode;
+        } else {
+            last.next = newNode;
+            newNode.prev = last;
+            last = newNode;
+        }
+        length++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (this.isEmpty()) return null;
+        Node firstNode = first;
+        E nodeContents = firstNode.contents;
+        if (length() == 1) {
+            first = null;
+            last = null;
+        } else {
+            Node secondNode = firstNode.next;
+            firstNode.next = null;
+            secondNode.prev = null;
+            first = secondNode;
+        }
+        length--;
+        modCount++;
+        recycle(firstNode);
+        return nodeContents;
+    }
+
+    @Override
+    public E removeLast() {
+        E lastElement = pollLast();
+        if (lastElement == null) throw rejected("removeLast");
+        return lastElement;
+    }
+
+    @Override
+    public E pollLast() {
+        if (this.isEmpty()) return null;
+        Node lastNode = last;
+        E nodeContents = lastNode.contents;
+        if (length() == 1) {
+            first = null;
+            last = null;
+        } else {
+            Node secondToLastNode = lastNode.prev;
+            lastNode.prev = null;
+            secondToLastNode.next = null;
+            last = secondToLastNode;
+        }
+        length--;
+        modCount++;
+        recycle(lastNode);
+        return nodeContents;
+    }
+
+    @Override
+    public void prependAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "prependAll");
+        if (len == 0) return;
+        Node chainFirst = newNode(src[off]);
+        Node chainLast = chainFirst;
+        for (int i = off + 1; i < off + len; i++) {
+            Node newNode = newNode(src[i]);
+            newNode.prev = chainLast;
+            chainLast.next = newNode;
+            chainLast = newNode;
+        }
+        if (this.isEmpty()) {
+            last = chainLast;
+        } else {
+            chainLast.next = first;
+            first.prev = chainLast;
+        }
+        first = chainFirst;
+        length += len;
+        modCount++;
+    }
+
+    @Override
+    public void appendAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "appendAll");
+        if (len == 0) return;
+        Node chainFirst = newNode(src[off]);
+        Node chainLast = chainFirst;
+        for (int i = off + 1; i < off + len; i++) {
+            Node newNode = newNode(src[i]);
+            newNode.prev = chainLast;
+            chainLast.next = newNode;
+            chainLast = newNode;
+        }
+        if (this.isEmpty()) {
+            first = chainFirst;
+        } else {
+            last.next = chainFirst;
+            chainFirst.prev = last;
+        }
+        last = chainLast;
+        length += len;
+        modCount++;
+    }
+
+    @Override
+    public int removeFirst(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = Math.min(max, length);
+        Node current = first;
+        for (int i = 0; i < removed; i++) {
+            dst[i] = current.contents;
+            Node next = current.next;
+            current.next = null;
+            if (next != null) next.prev = null;
+            recycle(current);
+            current = next;
+        }
+        first = current;
+        if (current == null) last = null;
+        length -= removed;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public int removeLast(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = Math.min(max, length);
+        Node current = last;
+        for (int i = 0; i < removed; i++) {
+            dst[i] = current.contents;
+            Node prev = current.prev;
+            current.prev = null;
+            if (prev != null) prev.next = null;
+            recycle(current);
+            current = prev;
+        }
+        last = current;
+        if (current == null) first = null;
+        length -= removed;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    protected void traverse(Consumer<? super E> action) {
+        int expectedModCount = modCount;
+        for (Node node = first; node != null && modCount == expectedModCount; node = node.next) {
+            action.accept(node.contents);
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public int drainTo(Consumer<? super E> action, int max) {
+        if (action == null || max < 0) throw new IllegalArgumentException();
+        int drained = 0;
+        while (drained < max && first != null) {
+            Node node = first;
+            E element = node.contents;
+            first = node.next;
+            if (first == null) {
+                last = null;
+            } else {
+                first.prev = null;
+                node.next = null;
+            }
+            length--;
+            modCount++;
+            recycle(node);
+            drained++;
+            action.accept(element);
+        }
+        return drained;
+    }
+
+    @Override
+    public int drainTo(Pipe<E> that, int max) {
+        if (that == null || that == this || max < 0) throw new IllegalArgumentException();
+        int drained = Math.min(Math.min(max, length), that.capacity() - that.length());
+        if (drained <= 0) return 0;
+        if (!(that instanceof LinkedPipe)) return super.drainTo(that, drained);
+        LinkedPipe<E> target = (LinkedPipe<E>) that;
+        Node chainFirst = first;
+        Node chainLast = first;
+        for (int i = 1; i < drained; i++) {
+            chainLast = chainLast.next;
+        }
+        first = chainLast.next;
+        if (first == null) {
+            last = null;
+        } else {
+            first.prev = null;
+            chainLast.next = null;
+        }
+        length -= drained;
+        modCount++;
+        if (target.last == null) {
+            target.first = chainFirst;
+        } else {
+            target.last.next = chainFirst;
+            chainFirst.prev = target.last;
+        }
+        target.last = chainLast;
+        target.length += drained;
+        target.modCount++;
+        return drained;
+    }
+
+    @Override
+    protected boolean transferFrom(Pipe<E> that) {
+        if (!(that instanceof LinkedPipe)) return false;
+        LinkedPipe<E> source = (LinkedPipe<E>) that;
+        if (source.isEmpty()) return true;
+        if (this.isEmpty()) {
+            first = source.first;
+        } else {
+            last.next = source.first;
+            source.first.prev = last;
+        }
+        last = source.last;
+        length += source.length;
+        modCount++;
+        source.first = null;
+        source.last = null;
+        source.length = 0;
+        source.modCount++;
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new LinkedPipe<>(capacity(), recycleNodes);
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        return new LinkedPipe<>(this);
+    }
+
+    @Override
+    public void clear() {
+        first.next = null;
+        last.prev = null;
+        first = null;
+        last = null;
+        length = 0;
+        modCount++;
+    }
+
+    @Override
+    public E first() {
+        if (this.isEmpty()) return null;
+        return first.contents;
+    }
+
+    @Override
+    public E last() {
+        if (this.isEmpty()) return null;
+        return last.contents;
+    }
+
+    private Node newNode(E element) {
+        Node node = free;
+        if (node == null) return new Node(element);
+        free = node.next;
+        freeLength--;
+        node.contents = element;
+        node.next = null;
+        return node;
+    }
+
+    private void recycle(Node node) {
+        if (!recycleNodes || freeLength >= capacity()) return;
+        node.contents = null;
+        node.prev = null;
+        node.next = free;
+        free = node;
+        freeLength++;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(first, true);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(last, false);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return new PipeSpliterator();
+    }
+
+    private class PipeSpliterator implements Spliterator<E> {
+
+        private Node current = first;
+        private int remaining = length;
+        private int batch = 0;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public Spliterator<E> trySplit() {
+            if (remaining <= 1) return null;
+            int size = Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), remaining);
+            Object[] batchElements = new Object[size];
+            Node node = current;
+            for (int i = 0; i < size; i++) {
+                batchElements[i] = node.contents;
+                node = node.next;
+            }
+            current = node;
+            remaining -= size;
+            batch = size;
+            return Spliterators.spliterator(batchElements, 0, size, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null) throw new NullPointerException();
+            if (remaining <= 0) return false;
+            E element = current.contents;
+            current = current.next;
+            remaining--;
+            action.accept(element);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            if (action == null) throw new NullPointerException();
+            Node node = current;
+            for (int i = remaining; i > 0; i--) {
+                action.accept(node.contents);
+                node = node.next;
+            }
+            current = null;
+            remaining = 0;
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private Node cursor;
+        private final boolean ascending;
+        private final int expectedModCount = modCount;
+
+        private PipeIterator(Node start, boolean ascending) {
+            this.cursor = start;
+            this.ascending = ascending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor != null;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = cursor.contents;
+            cursor = ascending ? cursor.next : cursor.prev;
+            return result;
+        }
+    }
+}
@@ -2,40 +2,70 @@ package boundedpipe;
 
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.List;
 
 public class ListPipe<E> extends AbstractPipe<E> {
 
-    private final List<E> list;
+    private final LinkedList<E> list;
 
     public ListPipe(int max) {
         super(max);
         list = new LinkedList<>();
     }
 
+    private ListPipe(ListPipe<E> that) {
+        super(that.capacity());
+        list = new LinkedList<>(that.list);
+    }
+
     @Override
     public void prepend(E element) {
+        if (!tryPrepend(element)) throw rejected("prepend");
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
         if (element == null) throw new IllegalArgumentException();
-        if (this.isFull()) throw new IllegalStateException();
+        if (this.isFull()) return false;
         list.add(0, element);
+        return true;
     }
 
     @Override
     public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
         if (element == null) throw new IllegalArgumentException();
-        if (this.isFull()) throw new IllegalStateException();
+        if (this.isFull()) return false;
         list.add(element);
+        return true;
     }
 
     @Override
     public E removeFirst() {
-        if (this.isEmpty()) throw new IllegalStateException();
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (this.isEmpty()) return null;
         return list.remove(0);
     }
 
     @Override
     public E removeLast() {
-        if (this.isEmpty()) throw new IllegalStateException();
+        E lastElement = pollLast();
+        if (lastElement == null) throw rejected("removeLast");
+        return lastElement;
+    }
+
+    @Override
+    public E pollLast() {
+        if (this.isEmpty()) return null;
         return list.remove(list.size() - 1);
     }
 
@@ -49,6 +79,11 @@ public class ListPipe<E> extends AbstractPipe<E> {
         return new ListPipe<>(capacity());
     }
 
+    @Override
+    public Pipe<E> copy() {
+        return new ListPipe<>(this);
+    }
+
     @Override
     public void clear() {
         list.clear();
@@ -59,6 +94,11 @@ public class ListPipe<E> extends AbstractPipe<E> {
         return list.iterator();
     }
 
+    @Override
+    public Iterator<E> descendingIterator() {
+        return list.descendingIterator();
+    }
+
     @Override
     public E first() {
         if (this.isEmpty()) return null;
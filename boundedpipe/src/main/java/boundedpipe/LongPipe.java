@@ -0,0 +1,242 @@
+package boundedpipe;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * <p>
+ * A bounded pipe of <code>long</code> values, with the same contract as
+ * <code>Pipe</code> but without boxing.</p>
+ * <p>
+ * A typical string representation of a bounded long pipe is
+ * <code>[e_1, e_2, ..., e_n-1, e_n]:c</code>,
+ * where <code>e_1</code> is the first element of the pipe,
+ * <code>e_n</code> is the last element,
+ * and <code>c</code> is the capacity.
+ * </p>
+ * <p>
+ * Implementations of this interface should have a one-argument constructor
+ * that takes the desired capacity and creates an empty pipe.
+ * The capacity must not be negative.
+ * </p>
+ * <p>
+ * A pipe iterator iterates through the pipe from first to last. It is a
+ * primitive iterator, so <code>nextLong</code> returns each element without
+ * boxing it.</p>
+ *
+ * @author Miles Spence
+ */
+public interface LongPipe extends Iterable<Long> {
+
+    /**
+     * <p>
+     * Adds the specified element to the beginning of this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * <code>p.prepend(x)</code><br>
+     * { <code>p = [9, 1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * </p>
+     *
+     * @param element the element to be prepended to this pipe
+     * @throws IllegalStateException if this pipe is full
+     */
+    void prepend(long element) throws IllegalStateException;
+
+    /**
+     * <p>
+     * Adds the specified element to the end of this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * <code>p.append(x)</code><br>
+     * { <code>p = [1, 2, 3, 9]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * </p>
+     *
+     * @param element the element to be appended to this pipe
+     * @throws IllegalStateException if this pipe is full
+     */
+    void append(long element) throws IllegalStateException;
+
+    /**
+     * <p>
+     * Removes and returns the first element from this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * <code>x = p.removeFirst()</code><br>
+     * { <code>p = [2, 3]:6</code> <em>and</em> <code>x = 1</code> }<br>
+     * </p>
+     *
+     * @return the first element from this pipe
+     * @throws IllegalStateException if this pipe is empty
+     */
+    long removeFirst() throws IllegalStateException;
+
+    /**
+     * <p>
+     * Removes and returns the last element from this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * <code>x = p.removeLast()</code><br>
+     * { <code>p = [1, 2]:6</code> <em>and</em> <code>x = 3</code> }<br>
+     * </p>
+     *
+     * @return the last element from this pipe
+     * @throws IllegalStateException if this pipe is empty
+     */
+    long removeLast() throws IllegalStateException;
+
+    /**
+     * <p>
+     * Returns the number of elements in this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * <code>x = p.length()</code><br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 3</code> }<br>
+     * </p>
+     *
+     * @return the number of elements in this pipe
+     */
+    int length();
+
+    /**
+     * <p>
+     * Returns the number of elements that this pipe can hold.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * <code>x = p.capacity()</code><br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 6</code> }<br>
+     * </p>
+     *
+     * @return the number of elements that this pipe can hold
+     */
+    int capacity();
+
+    /**
+     * <p>
+     * Creates a new, empty bounded pipe with the same capacity as this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.newInstance()</code><br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = []:6</code> }<br>
+     * </p>
+     *
+     * @return empty bounded pipe with the same capacity as this pipe
+     */
+    LongPipe newInstance();
+
+    /**
+     * <p>
+     * Removes all of the elements of this pipe, without altering the capacity.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> }<br>
+     * <code>p.clear()</code><br>
+     * { <code>p = []:6</code> }<br>
+     * </p>
+     */
+    void clear();
+
+    /**
+     * <p>
+     * Checks if this pipe has any elements.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.isEmpty()</code><br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = false</code> }<br>
+     * </p>
+     *
+     * @return true if this pipe has no elements and false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * <p>
+     * Checks if this pipe has any more space (basically if length == capacity).</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.isFull()</code><br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = false</code> }<br>
+     * </p>
+     *
+     * @return true if this pipe is full and false otherwise
+     */
+    boolean isFull();
+
+    /**
+     * <p>
+     * Takes another pipe and empties its elements into this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = [4, 5, 6]:6</code> }<br>
+     * <code>p.appendAll(x)</code><br>
+     * { <code>p = [1, 2, 3, 4, 5, 6]:6</code> <em>and</em> <code>x = []:6</code> }<br>
+     * </p>
+     *
+     * @param that the pipe to be emptied
+     * @throws IllegalArgumentException if the specified pipe is null or is this pipe
+     * @throws IllegalStateException    if this pipe does not have room for every element
+     *                                  of <code>that</code>, in which case neither pipe is changed
+     */
+    void appendAll(LongPipe that) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * <p>
+     * Creates a complete copy of this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.copy()</code><br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = [1, 2, 3]:6</code> }<br>
+     * </p>
+     *
+     * @return a complete copy of this pipe
+     */
+    LongPipe copy();
+
+    /**
+     * <p>
+     * Returns the first element of this pipe, without removing the element.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * <code>x = p.first()</code><br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 1</code> }<br>
+     * </p>
+     *
+     * @return the first element of this pipe
+     * @throws IllegalStateException if this pipe is empty
+     */
+    long first() throws IllegalStateException;
+
+    /**
+     * <p>
+     * Returns the last element of this pipe, without removing the element.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 9</code> }<br>
+     * <code>x = p.last()</code><br>
+     * { <code>p = [1, 2, 3]:6</code> <em>and</em> <code>x = 3</code> }<br>
+     * </p>
+     *
+     * @return the last element of this pipe
+     * @throws IllegalStateException if this pipe is empty
+     */
+    long last() throws IllegalStateException;
+
+    /**
+     * <p>
+     * Returns a primitive iterator over the elements of this pipe, from first
+     * to last.</p>
+     *
+     * @return a primitive iterator over the elements of this pipe
+     */
+    @Override
+    PrimitiveIterator.OfLong iterator();
+}
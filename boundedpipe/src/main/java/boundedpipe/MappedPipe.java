@@ -0,0 +1,352 @@
+package boundedpipe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A circular-array pipe stored in a memory-mapped file, so that its contents
+ * survive a restart of the process.</p>
+ * <p>
+ * The file starts with a small header holding the capacity, the record size
+ * and the position of the first element and the length of the pipe, followed
+ * by a circular data region of fixed-size records written by a
+ * <code>RecordCodec</code>. Every operation is a plain write to the mapping:
+ * a record is written before the header is updated, and the first position
+ * and length are updated together with a single 8-byte write, so a process
+ * that dies at any point leaves a consistent pipe behind. Opening an existing
+ * file with the same capacity and record size reopens its contents instantly;
+ * the header is checked before anything is mapped, and a non-empty file
+ * that is not a pipe file of that shape is left untouched.
+ * Writes reach the operating system immediately; call <code>force</code> to
+ * also make them survive an operating system crash or power loss.</p>
+ * <p>
+ * <code>newInstance</code> and <code>copy</code> create their pipes in new
+ * temporary files next to this pipe's file. A temporary file is deleted when
+ * its pipe is closed, or else when the virtual machine exits.
+ * <code>close</code> unmaps a pipe's file and <code>delete</code> also
+ * removes it; a closed pipe throws <code>IllegalStateException</code> from
+ * every operation that reads or writes its contents.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class MappedPipe<E> extends AbstractPipe<E> implements AutoCloseable {
+
+    private static final int MAGIC = 0x42504950;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int RECORD_SIZE_OFFSET = 12;
+    private static final int STATE_OFFSET = 16;
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    private final Path file;
+    private final RecordCodec<E> codec;
+    private final int recordSize;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final int segmentShift;
+    private final int segmentMask;
+    private int first;
+    private int length;
+    private boolean temporary;
+    private boolean closed;
+
+    public MappedPipe(Path file, int max, RecordCodec<E> codec) throws IOException {
+        super(max);
+        if (file == null || codec == null || max < 0) throw new IllegalArgumentException();
+        this.file = file;
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        if (recordSize <= 0 || recordSize > MAX_SEGMENT_BYTES) throw new IllegalArgumentException();
+        int recordsPerSegment = Integer.highestOneBit(MAX_SEGMENT_BYTES / recordSize);
+        segmentShift = Integer.numberOfTrailingZeros(recordsPerSegment);
+        segmentMask = recordsPerSegment - 1;
+        segments = new MappedByteBuffer[(int) (((long) max + segmentMask) >>> segmentShift)];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // check an existing file before mapping it, since a mapping past its end would grow it
+            boolean existing = channel.size() > 0;
+            if (existing) reopen(channel, max);
+            MappedByteBuffer mappedHeader = null;
+            try {
+                mappedHeader = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                long position = HEADER_SIZE;
+                for (int i = 0; i < segments.length; i++) {
+                    long bytes = (long) Math.min(recordsPerSegment, max - (i << segmentShift)) * recordSize;
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes);
+                    position += bytes;
+                }
+            } catch (IOException | RuntimeException e) {
+                if (mappedHeader != null) unmap(mappedHeader);
+                for (MappedByteBuffer segment : segments) {
+                    if (segment != null) unmap(segment);
+                }
+                throw e;
+            }
+            header = mappedHeader;
+            if (!existing) {
+                header.putInt(VERSION_OFFSET, VERSION);
+                header.putInt(CAPACITY_OFFSET, max);
+                header.putInt(RECORD_SIZE_OFFSET, recordSize);
+                header.putLong(STATE_OFFSET, 0L);
+                header.putInt(MAGIC_OFFSET, MAGIC);
+            }
+        }
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) throw rejected("prepend");
+        int newFirst = first == 0 ? capacity() - 1 : first - 1;
+        write(newFirst, element);
+        publish(newFirst, length + 1);
+    }
+
+    @Override
+    public void append(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) throw rejected("append");
+        write(index(length), element);
+        publish(first, length + 1);
+    }
+
+    @Override
+    public E removeFirst() {
+        if (this.isEmpty()) throw rejected("removeFirst");
+        E firstElement = read(first);
+        publish((first + 1) % capacity(), length - 1);
+        return firstElement;
+    }
+
+    @Override
+    public E removeLast() {
+        if (this.isEmpty()) throw rejected("removeLast");
+        E lastElement = read(index(length - 1));
+        publish(first, length - 1);
+        return lastElement;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return sibling();
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        checkOpen();
+        MappedPipe<E> copy = sibling();
+        for (int i = 0; i < segments.length; i++) {
+            copy.segments[i].put(0, segments[i], 0, segments[i].capacity());
+        }
+        copy.publish(first, length);
+        return copy;
+    }
+
+    @Override
+    public void clear() {
+        publish(0, 0);
+    }
+
+    @Override
+    public E first() {
+        if (this.isEmpty()) return null;
+        return read(first);
+    }
+
+    @Override
+    public E last() {
+        if (this.isEmpty()) return null;
+        return read(index(length - 1));
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(true);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(false);
+    }
+
+    /**
+     * <p>
+     * Writes every change made to this pipe through to the storage device.</p>
+     */
+    public void force() {
+        checkOpen();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    /**
+     * <p>
+     * Returns the file that holds this pipe.</p>
+     *
+     * @return the file that holds this pipe
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * <p>
+     * Unmaps this pipe's file, leaving its contents on disk unless it is a
+     * temporary file made by <code>newInstance</code> or <code>copy</code>.
+     * Closing a closed pipe has no effect.</p>
+     *
+     * @throws UncheckedIOException if a temporary file cannot be deleted
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        unmap(header);
+        for (MappedByteBuffer segment : segments) {
+            unmap(segment);
+        }
+        if (temporary) deleteFile();
+    }
+
+    /**
+     * <p>
+     * Closes this pipe and deletes its file.</p>
+     *
+     * @throws UncheckedIOException if the file cannot be deleted
+     */
+    public void delete() {
+        close();
+        deleteFile();
+    }
+
+    private MappedPipe<E> sibling() {
+        try {
+            Path sibling = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".pipe");
+            Files.delete(sibling);
+            MappedPipe<E> pipe = new MappedPipe<>(sibling, capacity(), codec);
+            pipe.temporary = true;
+            sibling.toFile().deleteOnExit();
+            return pipe;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteFile() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("closed");
+    }
+
+    // the JDK has no public unmap, so use the cleaner that sun.misc.Unsafe
+    // exposes; if it is unavailable the mapping is released when collected
+    private static void unmap(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+        }
+    }
+
+    private void reopen(FileChannel channel, int max) throws IOException {
+        ByteBuffer existing = ByteBuffer.allocate(HEADER_SIZE);
+        while (existing.hasRemaining()) {
+            if (channel.read(existing, existing.position()) < 0) break;
+        }
+        if (existing.position() < HEADER_SIZE || existing.getInt(MAGIC_OFFSET) != MAGIC
+                || existing.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException(file + " is not a pipe file");
+        }
+        if (existing.getInt(CAPACITY_OFFSET) != max || existing.getInt(RECORD_SIZE_OFFSET) != recordSize) {
+            throw new IllegalArgumentException();
+        }
+        if (channel.size() < HEADER_SIZE + (long) max * recordSize) {
+            throw new IOException(file + " is truncated");
+        }
+        long state = existing.getLong(STATE_OFFSET);
+        first = (int) (state >>> 32);
+        length = (int) state;
+        if (length < 0 || length > max || first < 0 || (max > 0 && first >= max)) {
+            throw new IOException(file + " has a corrupt header");
+        }
+    }
+
+    private void publish(int newFirst, int newLength) {
+        checkOpen();
+        header.putLong(STATE_OFFSET, ((long) newFirst << 32) | (newLength & 0xFFFFFFFFL));
+        first = newFirst;
+        length = newLength;
+        modCount++;
+    }
+
+    private int index(int offset) {
+        return (int) (((long) first + offset) % capacity());
+    }
+
+    private void write(int index, E element) {
+        checkOpen();
+        codec.write(element, segments[index >>> segmentShift], (index & segmentMask) * recordSize);
+    }
+
+    private E read(int index) {
+        checkOpen();
+        return codec.read(segments[index >>> segmentShift], (index & segmentMask) * recordSize);
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private int indexed = 0;
+        private final boolean ascending;
+        private final int expectedModCount = modCount;
+
+        private PipeIterator(boolean ascending) {
+            this.ascending = ascending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return indexed < length;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!this.hasNext()) throw new NoSuchElementException();
+            int offset = ascending ? indexed : length - 1 - indexed;
+            indexed++;
+            return read(index(offset));
+        }
+    }
+}
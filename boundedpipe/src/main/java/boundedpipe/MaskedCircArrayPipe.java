@@ -0,0 +1,378 @@
+package boundedpipe;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A circular-array pipe whose backing array is rounded up to a power of two,
+ * while the capacity passed to the constructor is still the limit on the
+ * number of elements.</p>
+ * <p>
+ * The head and tail are monotonically increasing positions: a slot index is
+ * the position masked by the array size and the length is
+ * <code>tail - head</code>, so no operation divides. Removed slots are
+ * cleared so the pipe does not retain elements it no longer holds.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class MaskedCircArrayPipe<E> extends AbstractPipe<E> {
+
+    private final E[] elements;
+    private final int mask;
+    private long head;
+    private long tail;
+
+    @SuppressWarnings("unchecked")
+    public MaskedCircArrayPipe(int max) {
+        super(max);
+        if (max < 0 || max > 1 << 30) throw new IllegalArgumentException();
+        int size = max <= 1 ? 1 : Integer.highestOneBit(max - 1) << 1;
+        elements = (E[]) new Object[size];
+        mask = size - 1;
+    }
+
+    private MaskedCircArrayPipe(MaskedCircArrayPipe<E> that) {
+        this(that.capacity());
+        int len = that.length();
+        that.copyOut(that.head, elements, 0, len);
+        tail = len;
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (!tryPrepend(element)) throw rejected("prepend");
+    }
+
+    @Override
+    public boolean tryPrepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (tail - head == capacity()) return false;
+        head--;
+        elements[(int) head & mask] = element;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (tail - head == capacity()) return false;
+        elements[(int) tail & mask] = element;
+        tail++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (head == tail) return null;
+        modCount++;
+        int index = (int) head & mask;
+        E firstElement = elements[index];
+        elements[index] = null;
+        head++;
+        return firstElement;
+    }
+
+    @Override
+    public E removeLast() {
+        E lastElement = pollLast();
+        if (lastElement == null) throw rejected("removeLast");
+        return lastElement;
+    }
+
+    @Override
+    public E pollLast() {
+        if (head == tail) return null;
+        modCount++;
+        tail--;
+        int index = (int) tail & mask;
+        E lastElement = elements[index];
+        elements[index] = null;
+        return lastElement;
+    }
+
+    @Override
+    public void prependAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "prependAll");
+        copyIn(src, off, head - len, len);
+        head -= len;
+        modCount++;
+    }
+
+    @Override
+    public void appendAll(E[] src, int off, int len) {
+        checkRange(src, off, len, "appendAll");
+        copyIn(src, off, tail, len);
+        tail += len;
+        modCount++;
+    }
+
+    @Override
+    public int removeFirst(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = Math.min(max, length());
+        copyOut(head, dst, 0, removed);
+        clearRange(head, removed);
+        head += removed;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public int removeLast(E[] dst, int max) {
+        checkDestination(dst, max);
+        int removed = Math.min(max, length());
+        long start = tail - removed;
+        copyOut(start, dst, 0, removed);
+        for (int i = 0, j = removed - 1; i < j; i++, j--) {
+            E swap = dst[i];
+            dst[i] = dst[j];
+            dst[j] = swap;
+        }
+        clearRange(start, removed);
+        tail = start;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    protected void traverse(Consumer<? super E> action) {
+        int expectedModCount = modCount;
+        long end = tail;
+        for (long position = head; position != end && modCount == expectedModCount; position++) {
+            action.accept(elements[(int) position & mask]);
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public int drainTo(Consumer<? super E> action, int max) {
+        if (action == null || max < 0) throw new IllegalArgumentException();
+        int drained = 0;
+        while (drained < max && head != tail) {
+            int index = (int) head & mask;
+            E element = elements[index];
+            elements[index] = null;
+            head++;
+            modCount++;
+            drained++;
+            action.accept(element);
+        }
+        return drained;
+    }
+
+    @Override
+    public int drainTo(Pipe<E> that, int max) {
+        if (that == null || that == this || max < 0) throw new IllegalArgumentException();
+        int drained = Math.min(Math.min(max, length()), that.capacity() - that.length());
+        if (drained <= 0) return 0;
+        int start = (int) head & mask;
+        int headLength = Math.min(drained, elements.length - start);
+        that.appendAll(elements, start, headLength);
+        that.appendAll(elements, 0, drained - headLength);
+        clearRange(head, drained);
+        head += drained;
+        modCount++;
+        return drained;
+    }
+
+    @Override
+    protected boolean transferFrom(Pipe<E> that) {
+        if (!(that instanceof MaskedCircArrayPipe)) return false;
+        MaskedCircArrayPipe<E> source = (MaskedCircArrayPipe<E>) that;
+        int len = source.length();
+        int start = (int) source.head & source.mask;
+        int headLength = Math.min(len, source.elements.length - start);
+        copyIn(source.elements, start, tail, headLength);
+        copyIn(source.elements, 0, tail + headLength, len - headLength);
+        tail += len;
+        modCount++;
+        source.clear();
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return (int) (tail - head);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    @Override
+    public boolean isFull() {
+        return tail - head == capacity();
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new MaskedCircArrayPipe<>(capacity());
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        return new MaskedCircArrayPipe<>(this);
+    }
+
+    @Override
+    public void clear() {
+        clearRange(head, length());
+        head = 0;
+        tail = 0;
+        modCount++;
+    }
+
+    @Override
+    public E first() {
+        if (head == tail) return null;
+        return elements[(int) head & mask];
+    }
+
+    @Override
+    public E last() {
+        if (head == tail) return null;
+        return elements[(int) (tail - 1) & mask];
+    }
+
+    private void copyIn(E[] src, int off, long position, int len) {
+        int start = (int) position & mask;
+        int headLength = Math.min(len, elements.length - start);
+        System.arraycopy(src, off, elements, start, headLength);
+        System.arraycopy(src, off + headLength, elements, 0, len - headLength);
+    }
+
+    private void copyOut(long position, E[] dst, int off, int len) {
+        int start = (int) position & mask;
+        int headLength = Math.min(len, elements.length - start);
+        System.arraycopy(elements, start, dst, off, headLength);
+        System.arraycopy(elements, 0, dst, off + headLength, len - headLength);
+    }
+
+    private void clearRange(long position, int len) {
+        int start = (int) position & mask;
+        int headLength = Math.min(len, elements.length - start);
+        Arrays.fill(elements, start, start + headLength, null);
+        Arrays.fill(elements, 0, len - headLength, null);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(head, 1);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(tail - 1, -1);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return new PipeSpliterator(0, length(), modCount);
+    }
+
+    private class PipeSpliterator implements Spliterator<E> {
+
+        private int origin;
+        private final int fence;
+        private final int expectedModCount;
+
+        private PipeSpliterator(int origin, int fence, int expectedModCount) {
+            this.origin = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int middle = (origin + fence) >>> 1;
+            if (origin >= middle) return null;
+            return new PipeSpliterator(origin, origin = middle, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null) throw new NullPointerException();
+            if (origin >= fence) return false;
+            E element = elements[(int) (head + origin) & mask];
+            origin++;
+            action.accept(element);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            if (action == null) throw new NullPointerException();
+            if (origin >= fence) return;
+            int start = (int) (head + origin) & mask;
+            int remaining = fence - origin;
+            int headLength = Math.min(remaining, elements.length - start);
+            origin = fence;
+            for (int i = start; i < start + headLength; i++) {
+                action.accept(elements[i]);
+            }
+            for (int i = 0; i < remaining - headLength; i++) {
+                action.accept(elements[i]);
+            }
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private long indexOfNext;
+        private int remaining = length();
+        private final int step;
+        private final int expectedModCount = modCount;
+
+        private PipeIterator(long start, int step) {
+            this.indexOfNext = start;
+            this.step = step;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = elements[(int) indexOfNext & mask];
+            remaining--;
+            indexOfNext += step;
+            return result;
+        }
+    }
+}
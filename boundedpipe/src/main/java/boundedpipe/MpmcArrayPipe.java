@@ -0,0 +1,235 @@
+package boundedpipe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A lock-free circular-array pipe for any number of producers and consumers.</p>
+ * <p>
+ * Any thread may call <code>append</code>, <code>tryAppend</code>,
+ * <code>removeFirst</code>, <code>pollFirst</code> and <code>clear</code>
+ * without external locking. <code>length</code>,
+ * <code>isEmpty</code>, <code>isFull</code>, <code>first</code> and
+ * <code>last</code> may also be called from any thread and return a recent
+ * snapshot. The remaining methods (<code>prepend</code>, <code>removeLast</code>,
+ * iteration and the methods of <code>AbstractPipe</code>) behave as in the other
+ * pipes but must only be called while no other thread is using the pipe.
+ * Iterators are not fail-fast.</p>
+ * <p>
+ * Every slot carries a sequence number telling producers and consumers whose
+ * turn it is; a thread claims a slot by advancing the tail or head with a
+ * compare-and-set and then publishes it by releasing the slot's sequence.</p>
+ * <p>
+ * The ring is rounded up to a power of two so a slot index is the position
+ * masked by the ring size, and no operation divides. If that leaves more
+ * slots than the capacity, a producer also checks the distance from the head
+ * before claiming a slot, so the pipe never holds more elements than its
+ * capacity.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class MpmcArrayPipe<E> extends AbstractPipe<E> {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(MpmcArrayPipe.class, "head", long.class);
+            TAIL = lookup.findVarHandle(MpmcArrayPipe.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final E[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private volatile long head;
+    private volatile long tail;
+
+    @SuppressWarnings("unchecked")
+    public MpmcArrayPipe(int max) {
+        super(max);
+        if (max < 1 || max > 1 << 30) throw new IllegalArgumentException();
+        int size = max == 1 ? 1 : Integer.highestOneBit(max - 1) << 1;
+        elements = (E[]) new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) throw rejected("prepend");
+        long position = head - 1;
+        int index = index(position);
+        elements[index] = element;
+        sequences.setRelease(index, position + 1);
+        HEAD.setRelease(this, position);
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E removeLast() {
+        if (this.isEmpty()) throw rejected("removeLast");
+        long position = tail - 1;
+        int index = index(position);
+        E lastElement = elements[index];
+        elements[index] = null;
+        sequences.setRelease(index, position);
+        TAIL.setRelease(this, position);
+        return lastElement;
+    }
+
+    @Override
+    public int length() {
+        long currentHead = head;
+        while (true) {
+            long currentTail = tail;
+            long headAfter = head;
+            if (headAfter == currentHead) {
+                long length = currentTail - currentHead;
+                if (length < 0) return 0;
+                if (length > capacity()) return capacity();
+                return (int) length;
+            }
+            currentHead = headAfter;
+        }
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new MpmcArrayPipe<>(capacity());
+    }
+
+    @Override
+    public void clear() {
+        while (pollFirst() != null) {
+        }
+    }
+
+    @Override
+    public E first() {
+        long position = head;
+        int index = index(position);
+        if (sequences.getAcquire(index) != position + 1) return null;
+        return elements[index];
+    }
+
+    @Override
+    public E last() {
+        long position = tail - 1;
+        int index = index(position);
+        if (sequences.getAcquire(index) != position + 1) return null;
+        return elements[index];
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(true);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(false);
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        long position = (long) TAIL.getVolatile(this);
+        while (true) {
+            int index = index(position);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                // a free slot past the capacity, when the ring is larger than it
+                if (mask >= capacity() && position - (long) HEAD.getAcquire(this) >= capacity()) return false;
+                if (TAIL.compareAndSet(this, position, position + 1)) {
+                    elements[index] = element;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = (long) TAIL.getVolatile(this);
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = (long) TAIL.getVolatile(this);
+            }
+        }
+    }
+
+    @Override
+    public E pollFirst() {
+        long position = (long) HEAD.getVolatile(this);
+        while (true) {
+            int index = index(position);
+            long difference = sequences.getAcquire(index) - (position + 1);
+            if (difference == 0) {
+                if (HEAD.compareAndSet(this, position, position + 1)) {
+                    E element = elements[index];
+                    elements[index] = null;
+                    sequences.setRelease(index, position + mask + 1);
+                    return element;
+                }
+                position = (long) HEAD.getVolatile(this);
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = (long) HEAD.getVolatile(this);
+            }
+        }
+    }
+
+    private int index(long position) {
+        return (int) position & mask;
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private long indexOfNext;
+        private long remaining;
+        private final int step;
+
+        private PipeIterator(boolean ascending) {
+            long start = head;
+            long end = tail;
+            remaining = end - start;
+            indexOfNext = ascending ? start : end - 1;
+            step = ascending ? 1 : -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = elements[index(indexOfNext)];
+            remaining--;
+            indexOfNext += step;
+            return result;
+        }
+    }
+}
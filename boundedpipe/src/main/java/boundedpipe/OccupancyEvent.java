@@ -0,0 +1,31 @@
+package boundedpipe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+@Name("boundedpipe.Occupancy")
+@Label("Pipe Occupancy")
+@Category("Bounded Pipe")
+@Description("The length and capacity of a pipe registered with PipeEvents")
+@Enabled(false)
+@StackTrace(false)
+@Period("1 s")
+final class OccupancyEvent extends jdk.jfr.Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Pipe Class")
+    Class<?> pipeClass;
+
+    @Label("Length")
+    int length;
+
+    @Label("Capacity")
+    int capacity;
+}
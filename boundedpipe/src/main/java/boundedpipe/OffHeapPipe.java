@@ -0,0 +1,181 @@
+package boundedpipe;
+
+import java.nio.ByteBuffer;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A circular-array pipe that stores its elements as fixed-size records in
+ * direct (off-heap) byte buffers, so a pipe holding hundreds of millions of
+ * elements adds nothing for the garbage collector to mark.</p>
+ * <p>
+ * Elements are encoded and decoded in place by a <code>RecordCodec</code>.
+ * Every read (<code>removeFirst</code>, <code>first</code>, iteration, ...)
+ * therefore returns a newly decoded element rather than the instance that was
+ * added. The ring is split into segments of at most 1 GiB, so the total size
+ * is not limited by the 2 GiB bound of a single buffer.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class OffHeapPipe<E> extends AbstractPipe<E> {
+
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    private final RecordCodec<E> codec;
+    private final int recordSize;
+    private final int maxSegmentBytes;
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+    private final int segmentMask;
+    private int first;
+    private int length;
+
+    public OffHeapPipe(int max, RecordCodec<E> codec) {
+        this(max, codec, MAX_SEGMENT_BYTES);
+    }
+
+    OffHeapPipe(int max, RecordCodec<E> codec, int maxSegmentBytes) {
+        super(max);
+        if (max < 0 || codec == null) throw new IllegalArgumentException();
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        this.maxSegmentBytes = maxSegmentBytes;
+        if (recordSize <= 0 || recordSize > maxSegmentBytes) throw new IllegalArgumentException();
+        int recordsPerSegment = Integer.highestOneBit(maxSegmentBytes / recordSize);
+        segmentShift = Integer.numberOfTrailingZeros(recordsPerSegment);
+        segmentMask = recordsPerSegment - 1;
+        segments = new ByteBuffer[(int) (((long) max + segmentMask) >>> segmentShift)];
+        for (int i = 0; i < segments.length; i++) {
+            int records = Math.min(recordsPerSegment, max - (i << segmentShift));
+            segments[i] = ByteBuffer.allocateDirect(records * recordSize);
+        }
+        first = 0;
+        length = 0;
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) throw rejected("prepend");
+        first = first == 0 ? capacity() - 1 : first - 1;
+        write(first, element);
+        length++;
+        modCount++;
+    }
+
+    @Override
+    public void append(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) throw rejected("append");
+        write(index(length), element);
+        length++;
+        modCount++;
+    }
+
+    @Override
+    public E removeFirst() {
+        if (this.isEmpty()) throw rejected("removeFirst");
+        E firstElement = read(first);
+        first = (first + 1) % capacity();
+        length--;
+        modCount++;
+        return firstElement;
+    }
+
+    @Override
+    public E removeLast() {
+        if (this.isEmpty()) throw rejected("removeLast");
+        length--;
+        modCount++;
+        return read(index(length));
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new OffHeapPipe<>(capacity(), codec, maxSegmentBytes);
+    }
+
+    @Override
+    public Pipe<E> copy() {
+        OffHeapPipe<E> copy = new OffHeapPipe<>(capacity(), codec, maxSegmentBytes);
+        for (int i = 0; i < segments.length; i++) {
+            copy.segments[i].put(0, segments[i], 0, segments[i].capacity());
+        }
+        copy.first = first;
+        copy.length = length;
+        return copy;
+    }
+
+    @Override
+    public void clear() {
+        first = 0;
+        length = 0;
+        modCount++;
+    }
+
+    @Override
+    public E first() {
+        if (this.isEmpty()) return null;
+        return read(first);
+    }
+
+    @Override
+    public E last() {
+        if (this.isEmpty()) return null;
+        return read(index(length - 1));
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(true);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(false);
+    }
+
+    private int index(int offset) {
+        return (int) (((long) first + offset) % capacity());
+    }
+
+    private void write(int index, E element) {
+        codec.write(element, segments[index >>> segmentShift], (index & segmentMask) * recordSize);
+    }
+
+    private E read(int index) {
+        return codec.read(segments[index >>> segmentShift], (index & segmentMask) * recordSize);
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private int indexed = 0;
+        private final boolean ascending;
+        private final int expectedModCount = modCount;
+
+        private PipeIterator(boolean ascending) {
+            this.ascending = ascending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return indexed < length;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!this.hasNext()) throw new NoSuchElementException();
+            int offset = ascending ? indexed : length - 1 - indexed;
+            indexed++;
+            return read(index(offset));
+        }
+    }
+}
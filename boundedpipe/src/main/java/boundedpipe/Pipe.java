@@ -0,0 +1,493 @@
+package boundedpipe;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A bounded pipe. Elements in the pipe may not be null.</p>
+ * <p>
+ * A typical string representation of a bounded pipe is
+ * <code>[e_1, e_2, ..., e_n-1, e_n]:c</code>,
+ * where <code>e_1</code> is the first element of the pipe,
+ * <code>e_n</code> is the last element,
+ * and <code>c</code> is the capacity.
+ * </p>
+ * <p>
+ * Implementations of this interface should have a one-argument constructor
+ * that takes the desired capacity and creates an empty pipe.
+ * The capacity must be strictly greater than zero.
+ * </p>
+ * <p>Example: <code>public Pipe(int max)</code></p>
+ * <p>
+ * A pipe iterator iterates through the pipe from first to last, and a
+ * descending iterator from last to first. Unless an implementation says
+ * otherwise, iterators are fail-fast: if the pipe is modified after the
+ * iterator is created, the next call to <code>next</code> throws
+ * <code>ConcurrentModificationException</code>.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ * @author Miles Spence
+ */
+public interface Pipe<E> extends Iterable<E> {
+
+    /**
+     * <p>
+     * Adds the specified element to the beginning of this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>p.prepend(x)</code><br>
+     * { <code>p = [X, A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * </p>
+     *
+     * @param element the element to be prepended to this pipe
+     * @throws IllegalArgumentException if the specified element is null
+     * @throws IllegalStateException    if this pipe is full
+     */
+    void prepend(E element) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * <p>
+     * Adds the specified element to the end of this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>p.append(x)</code><br>
+     * { <code>p = [A, B, C, X]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * </p>
+     *
+     * @param element the element to be appended to this pipe
+     * @throws IllegalArgumentException if the specified element is null
+     * @throws IllegalStateException    if this pipe is full
+     */
+    void append(E element) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * <p>
+     * Removes and returns the first element from this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.removeFirst()</code><br>
+     * { <code>p = [B, C]:6</code> <em>and</em> <code>x = A</code> }<br>
+     * </p>
+     *
+     * @return the first element from this pipe
+     * @throws IllegalStateException if this pipe is empty
+     */
+    E removeFirst() throws IllegalStateException;
+
+    /**
+     * <p>
+     * Removes and returns the last element from this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.removeLast()</code><br>
+     * { <code>p = [A, B]:6</code> <em>and</em> <code>x = C</code> }<br>
+     * </p>
+     *
+     * @return the last element from this pipe
+     * @throws IllegalStateException if this pipe is empty
+     */
+    E removeLast() throws IllegalStateException;
+
+    /**
+     * <p>
+     * Adds the specified element to the beginning of this pipe if there is
+     * room, without throwing an exception if this pipe is full.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>b = p.tryPrepend(x)</code><br>
+     * { <code>p = [A, B, C]:3</code> <em>and</em> <code>b = false</code> }<br>
+     * </p>
+     *
+     * @param element the element to be prepended to this pipe
+     * @return true if the element was added and false if this pipe is full
+     * @throws IllegalArgumentException if the specified element is null
+     */
+    boolean tryPrepend(E element) throws IllegalArgumentException;
+
+    /**
+     * <p>
+     * Adds the specified element to the end of this pipe if there is room,
+     * without throwing an exception if this pipe is full.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B]:3</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>b = p.tryAppend(x)</code><br>
+     * { <code>p = [A, B, X]:3</code> <em>and</em> <code>b = true</code> }<br>
+     * </p>
+     *
+     * @param element the element to be appended to this pipe
+     * @return true if the element was added and false if this pipe is full
+     * @throws IllegalArgumentException if the specified element is null
+     */
+    boolean tryAppend(E element) throws IllegalArgumentException;
+
+    /**
+     * <p>
+     * Removes and returns the first element from this pipe, or returns null
+     * if this pipe is empty.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = []:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.pollFirst()</code><br>
+     * { <code>p = []:6</code> <em>and</em> <code>x = null</code> }<br>
+     * </p>
+     *
+     * @return the first element from this pipe, or null if this pipe is empty
+     */
+    E pollFirst();
+
+    /**
+     * <p>
+     * Removes and returns the last element from this pipe, or returns null
+     * if this pipe is empty.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.pollLast()</code><br>
+     * { <code>p = [A, B]:6</code> <em>and</em> <code>x = C</code> }<br>
+     * </p>
+     *
+     * @return the last element from this pipe, or null if this pipe is empty
+     */
+    E pollLast();
+
+    /**
+     * <p>
+     * Adds the specified range of an array to the beginning of this pipe,
+     * keeping the order of the elements in the array.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>a = [W, X, Y, Z]</code> }<br>
+     * <code>p.prependAll(a, 1, 2)</code><br>
+     * { <code>p = [X, Y, A, B, C]:6</code> <em>and</em> <code>a = [W, X, Y, Z]</code> }<br>
+     * </p>
+     *
+     * @param src the array holding the elements to be prepended
+     * @param off the index in <code>src</code> of the first element to be prepended
+     * @param len the number of elements to be prepended
+     * @throws IllegalArgumentException if the array or any element in the range is null,
+     *                                  or if the range is not within the array
+     * @throws IllegalStateException    if this pipe does not have room for <code>len</code> more elements
+     */
+    void prependAll(E[] src, int off, int len) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * <p>
+     * Adds the specified range of an array to the end of this pipe, keeping
+     * the order of the elements in the array.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>a = [W, X, Y, Z]</code> }<br>
+     * <code>p.appendAll(a, 1, 2)</code><br>
+     * { <code>p = [A, B, C, X, Y]:6</code> <em>and</em> <code>a = [W, X, Y, Z]</code> }<br>
+     * </p>
+     *
+     * @param src the array holding the elements to be appended
+     * @param off the index in <code>src</code> of the first element to be appended
+     * @param len the number of elements to be appended
+     * @throws IllegalArgumentException if the array or any element in the range is null,
+     *                                  or if the range is not within the array
+     * @throws IllegalStateException    if this pipe does not have room for <code>len</code> more elements
+     */
+    void appendAll(E[] src, int off, int len) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * <p>
+     * Removes up to <code>max</code> elements from the beginning of this pipe
+     * and stores them, first element first, at the start of an array.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>a = [W, X, Y, Z]</code> }<br>
+     * <code>n = p.removeFirst(a, 2)</code><br>
+     * { <code>p = [C]:6</code> <em>and</em> <code>a = [A, B, Y, Z]</code> <em>and</em> <code>n = 2</code> }<br>
+     * </p>
+     *
+     * @param dst the array to store the removed elements in
+     * @param max the maximum number of elements to be removed
+     * @return the number of elements removed, which is zero if this pipe is empty
+     * @throws IllegalArgumentException if the array is null, or if <code>max</code> is negative
+     *                                  or greater than the length of the array
+     */
+    int removeFirst(E[] dst, int max) throws IllegalArgumentException;
+
+    /**
+     * <p>
+     * Removes up to <code>max</code> elements from the end of this pipe and
+     * stores them, last element first, at the start of an array.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>a = [W, X, Y, Z]</code> }<br>
+     * <code>n = p.removeLast(a, 2)</code><br>
+     * { <code>p = [A]:6</code> <em>and</em> <code>a = [C, B, Y, Z]</code> <em>and</em> <code>n = 2</code> }<br>
+     * </p>
+     *
+     * @param dst the array to store the removed elements in
+     * @param max the maximum number of elements to be removed
+     * @return the number of elements removed, which is zero if this pipe is empty
+     * @throws IllegalArgumentException if the array is null, or if <code>max</code> is negative
+     *                                  or greater than the length of the array
+     */
+    int removeLast(E[] dst, int max) throws IllegalArgumentException;
+
+    /**
+     * <p>
+     * Performs an action on each element of this pipe, from first to last.
+     * The action must not modify the pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>sb = ""</code> }<br>
+     * <code>p.forEach(sb::append)</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>sb = "ABC"</code> }<br>
+     * </p>
+     *
+     * @param action the action to be performed on each element
+     * @throws NullPointerException if the action is null
+     */
+    @Override
+    void forEach(Consumer<? super E> action);
+
+    /**
+     * <p>
+     * Removes up to <code>max</code> elements from the beginning of this pipe
+     * and passes each one, first element first, to a consumer. An element is
+     * removed before it is passed on, so if the consumer throws an exception
+     * the elements already passed to it stay removed.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>sb = ""</code> }<br>
+     * <code>n = p.drainTo(sb::append, 2)</code><br>
+     * { <code>p = [C]:6</code> <em>and</em> <code>sb = "AB"</code> <em>and</em> <code>n = 2</code> }<br>
+     * </p>
+     *
+     * @param action the consumer of the removed elements
+     * @param max    the maximum number of elements to be removed
+     * @return the number of elements removed, which is zero if this pipe is empty
+     * @throws IllegalArgumentException if the consumer is null, or if <code>max</code> is negative
+     */
+    int drainTo(Consumer<? super E> action, int max) throws IllegalArgumentException;
+
+    /**
+     * <p>
+     * Moves up to <code>max</code> elements from the beginning of this pipe to
+     * the end of another pipe, keeping their order. No more elements are moved
+     * than the other pipe has room for.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>q = [X]:2</code> }<br>
+     * <code>n = p.drainTo(q, 3)</code><br>
+     * { <code>p = [B, C]:6</code> <em>and</em> <code>q = [X, A]:2</code> <em>and</em> <code>n = 1</code> }<br>
+     * </p>
+     *
+     * @param that the pipe to move the elements to
+     * @param max  the maximum number of elements to be moved
+     * @return the number of elements moved
+     * @throws IllegalArgumentException if <code>that</code> is null or this pipe,
+     *                                  or if <code>max</code> is negative
+     */
+    int drainTo(Pipe<E> that, int max) throws IllegalArgumentException;
+
+    /**
+     * <p>
+     * Returns the number of elements in this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.length()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = 3</code> }<br>
+     * </p>
+     *
+     * @return the number of elements in this pipe
+     */
+    int length();
+
+    /**
+     * <p>
+     * Returns the number of elements that this pipe can hold.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.capacity()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = 6</code> }<br>
+     * </p>
+     *
+     * @return the number of elements that this pipe can hold
+     */
+    int capacity();
+
+    /**
+     * <p>
+     * Creates a new, empty bounded pipe with the same capacity as this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.newInstance()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = []:6</code> }<br>
+     * </p>
+     *
+     * @return empty bounded pipe with the same capacity as this pipe
+     */
+    Pipe<E> newInstance();
+
+    /**
+     * <p>
+     * Removes all of the elements of this pipe, without altering the capacity.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> }<br>
+     * <code>p.clear()</code><br>
+     * { <code>p = []:6</code> }<br>
+     * </p>
+     */
+    void clear();
+
+    /**
+     * <p>
+     * Checks if this pipe has any elements.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.isEmpty()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = false</code> }<br>
+     * </p>
+     *
+     * @return true if this pipe has any elements and false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * <p>
+     * Checks if this pipe has any more space (basically if length == capacity).</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.isFull()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = false</code> }<br>
+     * </p>
+     *
+     * @return true if this pipe is full and false otherwise
+     */
+    boolean isFull();
+
+    /**
+     * <p>
+     * Takes another pipe and empties its elements into this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = [D, E, F]:6</code> }<br>
+     * <code>p.appendAll(x)</code><br>
+     * { <code>p = [A, B, C, D, E, F]:6</code> <em>and</em> <code>x = []:6</code> }<br>
+     * </p>
+     *
+     * @param that the pipe to be emptied
+     * @throws IllegalArgumentException if the specified pipe is null or is this pipe
+     * @throws IllegalStateException    if this pipe does not have room for every element
+     *                                  of <code>that</code>, in which case neither pipe is changed
+     */
+    void appendAll(Pipe<E> that) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * <p>
+     * Creates a complete copy of this pipe.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.copy()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = [A, B, C]:6</code> }<br>
+     * </p>
+     *
+     * @return a complete copy of this pipe
+     */
+    Pipe<E> copy();
+
+    /**
+     * <p>
+     * Returns the first element of this pipe, without removing the element.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.first()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = A</code> }<br>
+     * </p>
+     *
+     * @return the first element of this pipe
+     */
+    E first();
+
+    /**
+     * <p>
+     * Returns the last element of this pipe, without removing the element.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.last()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = C</code> }<br>
+     * </p>
+     *
+     * @return the last element of this pipe
+     */
+    E last();
+
+    /**
+     * <p>
+     * Returns an iterator over the elements of this pipe, from last to first.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.descendingIterator().next()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = C</code> }<br>
+     * </p>
+     *
+     * @return an iterator over the elements of this pipe in reverse order
+     */
+    Iterator<E> descendingIterator();
+
+    /**
+     * <p>
+     * Returns a spliterator over the elements of this pipe, from first to
+     * last. The spliterator reports <code>SIZED</code>, <code>SUBSIZED</code>,
+     * <code>ORDERED</code> and <code>NONNULL</code>, and splits into parts of
+     * known size so that a parallel stream divides the pipe evenly.</p>
+     *
+     * @return a spliterator over the elements of this pipe
+     */
+    @Override
+    Spliterator<E> spliterator();
+
+    /**
+     * <p>
+     * Returns a sequential stream of the elements of this pipe, from first to
+     * last.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.stream().filter(e -&gt; !e.equals("B")).count()</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = 2</code> }<br>
+     * </p>
+     *
+     * @return a sequential stream of the elements of this pipe
+     */
+    Stream<E> stream();
+
+    /**
+     * <p>
+     * Returns a possibly parallel stream of the elements of this pipe. The
+     * pipe must not be modified while the stream is running.</p>
+     * <p>
+     * Example:<br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = X</code> }<br>
+     * <code>x = p.parallelStream().map(String::toLowerCase).collect(joining())</code><br>
+     * { <code>p = [A, B, C]:6</code> <em>and</em> <code>x = abc</code> }<br>
+     * </p>
+     *
+     * @return a possibly parallel stream of the elements of this pipe
+     */
+    Stream<E> parallelStream();
+}
@@ -0,0 +1,79 @@
+package boundedpipe;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * <p>
+ * Names pipes for the periodic <code>boundedpipe.Occupancy</code> JDK Flight
+ * Recorder event, which samples the length and capacity of every registered
+ * pipe.</p>
+ * <p>
+ * The pipes of this package also emit <code>boundedpipe.Rejection</code>
+ * when an operation throws <code>IllegalStateException</code> because the
+ * pipe is full or empty, <code>boundedpipe.Iteration</code> when
+ * <code>forEach</code> runs longer than its threshold, and
+ * <code>boundedpipe.Transfer</code> for every <code>appendAll(Pipe)</code>.
+ * All four events are disabled by default, so they cost nothing unless a
+ * recording enables them, either through <code>Recording.enable</code> or
+ * with the settings file <code>boundedpipe.jfc</code> from the root of the
+ * module, combined with the JDK settings:
+ * <code>-XX:StartFlightRecording:settings=default,settings=boundedpipe.jfc</code>.</p>
+ * <p>
+ * Registered pipes are held weakly, so registering a pipe does not keep it
+ * alive. The recorder reads <code>length</code> from its own thread, so a
+ * sample of a pipe that is not thread-safe is approximate.</p>
+ */
+public final class PipeEvents {
+
+    private static final Map<String, WeakReference<Pipe<?>>> PIPES = new ConcurrentHashMap<>();
+
+    static {
+        FlightRecorder.addPeriodicEvent(OccupancyEvent.class, PipeEvents::sampleOccupancy);
+    }
+
+    private PipeEvents() {
+    }
+
+    /**
+     * Registers a pipe under a name for occupancy sampling, replacing any
+     * pipe registered under the same name.
+     *
+     * @param name the name reported in the occupancy events of the pipe
+     * @param pipe the pipe to be sampled
+     * @throws IllegalArgumentException if the name or the pipe is null
+     */
+    public static void register(String name, Pipe<?> pipe) throws IllegalArgumentException {
+        if (name == null || pipe == null) throw new IllegalArgumentException();
+        PIPES.put(name, new WeakReference<>(pipe));
+    }
+
+    /**
+     * Removes the pipe registered under a name, if there is one.
+     *
+     * @param name the name the pipe was registered under
+     * @throws IllegalArgumentException if the name is null
+     */
+    public static void unregister(String name) throws IllegalArgumentException {
+        if (name == null) throw new IllegalArgumentException();
+        PIPES.remove(name);
+    }
+
+    private static void sampleOccupancy() {
+        for (Map.Entry<String, WeakReference<Pipe<?>>> entry : PIPES.entrySet()) {
+            Pipe<?> pipe = entry.getValue().get();
+            if (pipe == null) {
+                PIPES.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            OccupancyEvent event = new OccupancyEvent();
+            event.name = entry.getKey();
+            event.pipeClass = pipe.getClass();
+            event.length = pipe.length();
+            event.capacity = pipe.capacity();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package boundedpipe;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * The metrics of an <code>InstrumentedPipe</code>. Counters are
+ * <code>LongAdder</code>s and the maxima are <code>LongAccumulator</code>s,
+ * so threads recording into the same metrics update separate cells instead
+ * of contending on one word.</p>
+ * <p>
+ * <code>register</code> publishes the metrics on the platform MBean server
+ * under <code>boundedpipe:type=Pipe,name=<em>name</em></code>.</p>
+ */
+public class PipeMetrics implements PipeMetricsMBean {
+
+    private static final int BUCKETS = 64;
+
+    private final Pipe<?> pipe;
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder prepends = new LongAdder();
+    private final LongAdder removes = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAccumulator highWaterMark = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] sojournBuckets = new LongAdder[BUCKETS];
+    private final LongAdder sojournTotal = new LongAdder();
+    private final LongAccumulator maxSojourn = new LongAccumulator(Math::max, 0);
+    private ObjectName objectName;
+
+    PipeMetrics(Pipe<?> pipe) {
+        this.pipe = pipe;
+        for (int i = 0; i < BUCKETS; i++) {
+            sojournBuckets[i] = new LongAdder();
+        }
+        highWaterMark.accumulate(pipe.length());
+    }
+
+    void recordAppend(int length) {
+        recordAppends(1, length);
+    }
+
+    void recordAppends(int count, int length) {
+        appends.add(count);
+        highWaterMark.accumulate(length);
+    }
+
+    void recordPrepend(int length) {
+        recordPrepends(1, length);
+    }
+
+    void recordPrepends(int count, int length) {
+        prepends.add(count);
+        highWaterMark.accumulate(length);
+    }
+
+    void recordRemove() {
+        removes.increment();
+    }
+
+    void recordRemoves(int count) {
+        removes.add(count);
+    }
+
+    void recordRejection() {
+        rejections.increment();
+    }
+
+    void recordRejections(int count) {
+        rejections.add(count);
+    }
+
+    void recordSojourn(long nanos) {
+        if (nanos < 0) nanos = 0;
+        sojournBuckets[bucket(nanos)].increment();
+        sojournTotal.add(nanos);
+        maxSojourn.accumulate(nanos);
+    }
+
+    private static int bucket(long nanos) {
+        return nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+
+    @Override
+    public int getCapacity() {
+        return pipe.capacity();
+    }
+
+    @Override
+    public int getLength() {
+        return pipe.length();
+    }
+
+    @Override
+    public long getAppends() {
+        return appends.sum();
+    }
+
+    @Override
+    public long getPrepends() {
+        return prepends.sum();
+    }
+
+    @Override
+    public long getRemoves() {
+        return removes.sum();
+    }
+
+    @Override
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    @Override
+    public int getHighWaterMark() {
+        return (int) highWaterMark.get();
+    }
+
+    @Override
+    public double getHighWaterMarkRatio() {
+        if (pipe.capacity() == 0) return 0;
+        return (double) highWaterMark.get() / pipe.capacity();
+    }
+
+    @Override
+    public long getSojournCount() {
+        long count = 0;
+        for (LongAdder bucket : sojournBuckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public double getMeanSojournNanos() {
+        long count = getSojournCount();
+        if (count == 0) return 0;
+        return (double) sojournTotal.sum() / count;
+    }
+
+    @Override
+    public long getMaxSojournNanos() {
+        return maxSojourn.get();
+    }
+
+    @Override
+    public long getMedianSojournNanos() {
+        return sojournPercentileNanos(50);
+    }
+
+    @Override
+    public long getP99SojournNanos() {
+        return sojournPercentileNanos(99);
+    }
+
+    @Override
+    public long[] getSojournHistogram() {
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = sojournBuckets[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public long sojournPercentileNanos(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) throw new IllegalArgumentException();
+        long[] histogram = getSojournHistogram();
+        long count = 0;
+        for (long bucketCount : histogram) {
+            count += bucketCount;
+        }
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    @Override
+    public void reset() {
+        appends.reset();
+        prepends.reset();
+        removes.reset();
+        rejections.reset();
+        highWaterMark.reset();
+        highWaterMark.accumulate(pipe.length());
+        for (LongAdder bucket : sojournBuckets) {
+            bucket.reset();
+        }
+        sojournTotal.reset();
+        maxSojourn.reset();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, replacing any
+     * earlier registration of these metrics.
+     *
+     * @param name the value of the <code>name</code> key of the object name
+     * @return the object name the metrics were registered under
+     * @throws IllegalArgumentException if the name is null, or if another
+     *                                  MBean is registered under the same object name
+     */
+    public synchronized ObjectName register(String name) throws IllegalArgumentException {
+        if (name == null) throw new IllegalArgumentException();
+        unregister();
+        try {
+            ObjectName newName = new ObjectName("boundedpipe:type=Pipe,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+            objectName = newName;
+            return newName;
+        } catch (JMException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server, if they are
+     * registered.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // already unregistered through the server
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            objectName = null;
+        }
+    }
+}
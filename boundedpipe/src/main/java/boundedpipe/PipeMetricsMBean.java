@@ -0,0 +1,133 @@
+package boundedpipe;
+
+/**
+ * <p>
+ * The management interface of the metrics an <code>InstrumentedPipe</code>
+ * keeps about the pipe it wraps.</p>
+ * <p>
+ * Sojourn times are the nanoseconds an element spent in the pipe between
+ * its insertion and its removal. They are recorded in a histogram of
+ * power-of-two buckets: bucket <code>i</code> counts sojourn times of at
+ * least <code>2^i</code> and less than <code>2^(i+1)</code> nanoseconds,
+ * except bucket 0, which also counts sojourn times of zero. Percentiles are
+ * reported as the upper bound of the bucket they fall in.</p>
+ */
+public interface PipeMetricsMBean {
+
+    /**
+     * Returns the capacity of the pipe.
+     *
+     * @return the capacity of the pipe
+     */
+    int getCapacity();
+
+    /**
+     * Returns the current length of the pipe.
+     *
+     * @return the number of elements in the pipe
+     */
+    int getLength();
+
+    /**
+     * Returns the number of elements appended to the pipe.
+     *
+     * @return the number of successful appends
+     */
+    long getAppends();
+
+    /**
+     * Returns the number of elements prepended to the pipe.
+     *
+     * @return the number of successful prepends
+     */
+    long getPrepends();
+
+    /**
+     * Returns the number of elements removed from either end of the pipe.
+     *
+     * @return the number of successful removals
+     */
+    long getRemoves();
+
+    /**
+     * Returns the number of insertions rejected because the pipe was full,
+     * whether they threw <code>IllegalStateException</code> or returned
+     * <code>false</code>. A rejected bulk insertion counts every element it
+     * would have inserted.
+     *
+     * @return the number of rejected insertions
+     */
+    long getRejections();
+
+    /**
+     * Returns the greatest length the pipe has reached.
+     *
+     * @return the high-water mark of the length of the pipe
+     */
+    int getHighWaterMark();
+
+    /**
+     * Returns the high-water mark as a fraction of the capacity.
+     *
+     * @return the high-water mark divided by the capacity, or zero if the
+     * capacity is zero
+     */
+    double getHighWaterMarkRatio();
+
+    /**
+     * Returns the number of sojourn times recorded.
+     *
+     * @return the number of sojourn times recorded
+     */
+    long getSojournCount();
+
+    /**
+     * Returns the mean of the recorded sojourn times.
+     *
+     * @return the mean sojourn time in nanoseconds, or zero if none was recorded
+     */
+    double getMeanSojournNanos();
+
+    /**
+     * Returns the longest recorded sojourn time.
+     *
+     * @return the maximum sojourn time in nanoseconds, or zero if none was recorded
+     */
+    long getMaxSojournNanos();
+
+    /**
+     * Returns the median of the recorded sojourn times.
+     *
+     * @return the upper bound of the bucket holding the median, in nanoseconds
+     */
+    long getMedianSojournNanos();
+
+    /**
+     * Returns the 99th percentile of the recorded sojourn times.
+     *
+     * @return the upper bound of the bucket holding the 99th percentile, in nanoseconds
+     */
+    long getP99SojournNanos();
+
+    /**
+     * Returns the sojourn time histogram.
+     *
+     * @return a copy of the histogram, indexed by bucket
+     */
+    long[] getSojournHistogram();
+
+    /**
+     * Returns a percentile of the recorded sojourn times.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound of the bucket holding the percentile, in
+     * nanoseconds, or zero if no sojourn time was recorded
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100
+     */
+    long sojournPercentileNanos(double percentile) throws IllegalArgumentException;
+
+    /**
+     * Resets every counter, the high-water mark and the histogram.
+     */
+    void reset();
+}
@@ -0,0 +1,250 @@
+package boundedpipe;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * A <code>Flow.Publisher</code> that delivers to one subscriber the elements
+ * submitted to a bounded blocking pipe. A producer calling
+ * <code>submit</code> waits while the pipe is full, so a slow subscriber
+ * holds back its producers instead of growing a buffer.</p>
+ * <p>
+ * Elements are delivered on an executor by a single drain task at a time.
+ * The task removes elements in batches of up to <code>batchSize</code>, or
+ * fewer if the subscriber has requested fewer, and wakes waiting producers
+ * once per batch.</p>
+ * <p>
+ * <code>close</code> completes the subscriber after every submitted element
+ * has been delivered; <code>closeExceptionally</code> discards undelivered
+ * elements and signals the error at once. A second subscriber is refused with
+ * <code>IllegalStateException</code>. As the reactive streams rules require,
+ * <code>subscribe</code> throws <code>NullPointerException</code> for a null
+ * subscriber and a non-positive <code>request</code> is signalled as
+ * <code>IllegalArgumentException</code>.</p>
+ *
+ * @param <E> the type of elements published
+ */
+public class PipePublisher<E> implements Flow.Publisher<E> {
+
+    private static final Flow.Subscription REFUSED = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final BlockingPipe<Object> pipe;
+    private final Executor executor;
+    private final Object[] batch;
+    private final AtomicReference<Flow.Subscriber<? super E>> subscriber;
+    private final AtomicLong requested;
+    private final AtomicInteger wip;
+    private final AtomicReference<Throwable> error;
+    private volatile boolean closed;
+    private volatile boolean cancelled;
+    private boolean subscribed;
+    private boolean terminated;
+
+    /**
+     * Creates a publisher that delivers on the common fork/join pool, in
+     * batches of up to 64 elements.
+     *
+     * @param capacity the most elements submitted and not yet delivered
+     * @throws IllegalArgumentException if the capacity is less than one
+     */
+    public PipePublisher(int capacity) throws IllegalArgumentException {
+        this(capacity, ForkJoinPool.commonPool(), 64);
+    }
+
+    /**
+     * Creates a publisher that delivers on the specified executor.
+     *
+     * @param capacity  the most elements submitted and not yet delivered
+     * @param executor  the executor that runs the drain task
+     * @param batchSize the most elements removed from the pipe at once
+     * @throws IllegalArgumentException if the executor is null, or if the
+     *                                  capacity or the batch size is less than one
+     */
+    public PipePublisher(int capacity, Executor executor, int batchSize) throws IllegalArgumentException {
+        if (capacity < 1 || executor == null || batchSize < 1) throw new IllegalArgumentException();
+        pipe = new CircArrayBlockingPipe<>(capacity);
+        this.executor = executor;
+        batch = new Object[Math.min(batchSize, capacity)];
+        subscriber = new AtomicReference<>();
+        requested = new AtomicLong();
+        wip = new AtomicInteger();
+        error = new AtomicReference<>();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super E> subscriber) {
+        if (subscriber == null) throw new NullPointerException();
+        if (!this.subscriber.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(REFUSED);
+            subscriber.onError(new IllegalStateException("already subscribed"));
+            return;
+        }
+        signal();
+    }
+
+    /**
+     * Adds an element, waiting while the pipe is full.
+     *
+     * @param element the element to publish
+     * @throws IllegalArgumentException if the element is null
+     * @throws IllegalStateException    if this publisher was closed, or its
+     *                                  subscriber cancelled
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    public void submit(E element) throws IllegalArgumentException, IllegalStateException, InterruptedException {
+        if (element == null) throw new IllegalArgumentException();
+        if (closed) throw new IllegalStateException();
+        pipe.putLast(element);
+        signal();
+    }
+
+    /**
+     * Adds an element if the pipe is not full.
+     *
+     * @param element the element to publish
+     * @return true if the element was added, and false if the pipe was full
+     * @throws IllegalArgumentException if the element is null
+     * @throws IllegalStateException    if this publisher was closed, or its
+     *                                  subscriber cancelled
+     */
+    public boolean offer(E element) throws IllegalArgumentException, IllegalStateException {
+        if (element == null) throw new IllegalArgumentException();
+        if (closed) throw new IllegalStateException();
+        if (!pipe.tryAppend(element)) return false;
+        signal();
+        return true;
+    }
+
+    /**
+     * Stops accepting elements, and completes the subscriber once every
+     * element submitted so far has been delivered.
+     */
+    public void close() {
+        closed = true;
+        signal();
+    }
+
+    /**
+     * Stops accepting elements, discards those not yet delivered, and signals
+     * the specified error to the subscriber.
+     *
+     * @param cause the error to signal
+     * @throws IllegalArgumentException if the cause is null
+     */
+    public void closeExceptionally(Throwable cause) throws IllegalArgumentException {
+        if (cause == null) throw new IllegalArgumentException();
+        error.compareAndSet(null, cause);
+        closed = true;
+        signal();
+    }
+
+    /**
+     * Returns the number of elements submitted and not yet delivered.
+     *
+     * @return the number of buffered elements
+     */
+    public int length() {
+        return pipe.length();
+    }
+
+    /**
+     * Returns whether this publisher no longer accepts elements, because it
+     * was closed or its subscriber cancelled.
+     *
+     * @return true if this publisher is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void signal() {
+        if (wip.getAndIncrement() == 0) executor.execute(this::drain);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super E> s = subscriber.get();
+            if (terminated) {
+                // wakes any producer still waiting, which then fails on its next submit
+                pipe.clear();
+            } else if (s != null) {
+                try {
+                    if (!subscribed) {
+                        subscribed = true;
+                        s.onSubscribe(new Subscription());
+                    }
+                    long r = requested.get();
+                    long emitted = 0;
+                    while (emitted < r && !cancelled && error.get() == null) {
+                        int n = pipe.removeFirst(batch, (int) Math.min(batch.length, r - emitted));
+                        if (n == 0) break;
+                        for (int i = 0; i < n; i++) {
+                            Object element = batch[i];
+                            batch[i] = null;
+                            s.onNext((E) element);
+                        }
+                        emitted += n;
+                    }
+                    if (emitted > 0 && r != Long.MAX_VALUE) requested.addAndGet(-emitted);
+                    Throwable cause = error.get();
+                    if (cancelled) {
+                        terminated = true;
+                        pipe.clear();
+                    } else if (cause != null) {
+                        terminated = true;
+                        pipe.clear();
+                        s.onError(cause);
+                    } else if (closed && pipe.isEmpty()) {
+                        terminated = true;
+                        s.onComplete();
+                    }
+                } catch (RuntimeException e) {
+                    // a subscriber that throws is treated as cancelled
+                    cancel();
+                    terminated = true;
+                    pipe.clear();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void cancel() {
+        cancelled = true;
+        closed = true;
+    }
+
+    private class Subscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error.compareAndSet(null, new IllegalArgumentException("non-positive request"));
+            } else {
+                requested.accumulateAndGet(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            PipePublisher.this.cancel();
+            signal();
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package boundedpipe;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Runs producer/consumer pairs, each connected by its own elastic
+ * <code>CircArrayBlockingPipe</code>. The producer of a pair runs as one
+ * task and the consumer as another, and each blocks on the pipe when it is
+ * full or empty.</p>
+ * <p>
+ * The tasks run on the threads of a thread factory or on an executor. The
+ * pipes wait on <code>ReentrantLock</code> conditions, never on monitors, so
+ * with virtual threads a blocked producer or consumer unmounts from its
+ * carrier and a single JVM can host hundreds of thousands of pairs. Virtual
+ * threads need JDK 21; <code>virtualThreadFactory</code> looks them up at
+ * run time, so this class also runs, on platform threads, on JDK 17.</p>
+ * <p>
+ * A producer returns null when it has no more elements. The consumer then
+ * receives every element already in the pipe, and the pair finishes. If the
+ * producer or the consumer of a pair throws, the other is interrupted and
+ * <code>join</code> reports the first such exception once every pair has
+ * finished; other pairs are not affected.</p>
+ */
+public class PipeRunner {
+
+    private static final Object END = new Object();
+
+    private final Executor executor;
+    private final Set<Pair> pairs;
+    private final AtomicReference<Throwable> failure;
+    private final ReentrantLock lock;
+    private final Condition finished;
+    private int running;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a runner that starts a virtual thread per task if the JDK has
+     * virtual threads, and a platform thread per task otherwise.
+     */
+    public PipeRunner() {
+        this(defaultThreadFactory());
+    }
+
+    public PipeRunner(ThreadFactory threadFactory) {
+        this(taskExecutor(threadFactory));
+    }
+
+    public PipeRunner(Executor executor) {
+        if (executor == null) throw new IllegalArgumentException();
+        this.executor = executor;
+        pairs = ConcurrentHashMap.newKeySet();
+        failure = new AtomicReference<>();
+        lock = new ReentrantLock();
+        finished = lock.newCondition();
+    }
+
+    private static Executor taskExecutor(ThreadFactory threadFactory) {
+        if (threadFactory == null) throw new IllegalArgumentException();
+        return task -> {
+            Thread thread = threadFactory.newThread(task);
+            if (thread == null) throw new IllegalStateException();
+            thread.start();
+        };
+    }
+
+    private static ThreadFactory defaultThreadFactory() {
+        try {
+            return virtualThreadFactory();
+        } catch (UnsupportedOperationException e) {
+            return Thread::new;
+        }
+    }
+
+    /**
+     * Returns a factory for virtual threads, found through reflection so that
+     * this class compiles and runs on JDKs without them.
+     *
+     * @return a factory that starts a new virtual thread for each task
+     * @throws UnsupportedOperationException if the running JDK has no virtual threads
+     */
+    public static ThreadFactory virtualThreadFactory() throws UnsupportedOperationException {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new UnsupportedOperationException(e);
+        }
+    }
+
+    /**
+     * Starts a producer and a consumer connected by a new pipe.
+     *
+     * @param capacity the capacity of the pipe between the producer and the consumer
+     * @param producer supplies the elements, then null when there are no more
+     * @param consumer receives the elements, in the order they were produced
+     * @param <E>      the type of elements passed from the producer to the consumer
+     * @throws IllegalArgumentException if the producer or the consumer is null,
+     *                                  or if the capacity is less than one
+     * @throws IllegalStateException    if this runner was cancelled
+     */
+    public <E> void run(int capacity, Supplier<? extends E> producer, Consumer<? super E> consumer)
+            throws IllegalArgumentException, IllegalStateException {
+        if (producer == null || consumer == null || capacity < 1) throw new IllegalArgumentException();
+        if (cancelled) throw new IllegalStateException();
+        @SuppressWarnings("unchecked")
+        Pair pair = new Pair((Supplier<Object>) producer, (Consumer<Object>) consumer, capacity);
+        lock.lock();
+        try {
+            running += 2;
+        } finally {
+            lock.unlock();
+        }
+        pairs.add(pair);
+        try {
+            executor.execute(pair::produce);
+        } catch (RuntimeException e) {
+            pair.finish(true, e);
+            pair.finish(false, null);
+            throw e;
+        }
+        try {
+            executor.execute(pair::consume);
+        } catch (RuntimeException e) {
+            pair.finish(false, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of pairs that have not finished.
+     *
+     * @return the number of running pairs
+     */
+    public int running() {
+        return pairs.size();
+    }
+
+    /**
+     * Interrupts every running pair. A later call to <code>join</code> throws
+     * <code>CancellationException</code>, and <code>run</code> throws
+     * <code>IllegalStateException</code>.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Pair pair : pairs) {
+            pair.interrupt();
+        }
+    }
+
+    /**
+     * Waits for every pair started so far to finish.
+     *
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws ExecutionException    if the producer or consumer of a pair threw
+     *                               an exception, which is the cause
+     * @throws CancellationException if this runner was cancelled
+     */
+    public void join() throws InterruptedException, ExecutionException {
+        lock.lockInterruptibly();
+        try {
+            while (running > 0) {
+                finished.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Waits up to the specified time for every pair started so far to finish.
+     *
+     * @param timeout how long to wait, in units of <code>unit</code>
+     * @param unit    the unit of the <code>timeout</code> argument
+     * @return true if every pair finished, and false if the time elapsed first
+     * @throws IllegalArgumentException if the unit is null
+     * @throws InterruptedException     if interrupted while waiting
+     * @throws ExecutionException       if the producer or consumer of a pair threw
+     *                                  an exception, which is the cause
+     * @throws CancellationException    if this runner was cancelled
+     */
+    public boolean join(long timeout, TimeUnit unit)
+            throws IllegalArgumentException, InterruptedException, ExecutionException {
+        if (unit == null) throw new IllegalArgumentException();
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (running > 0) {
+                if (nanos <= 0) return false;
+                nanos = finished.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+        checkFailure();
+        return true;
+    }
+
+    private void checkFailure() throws ExecutionException {
+        if (cancelled) throw new CancellationException();
+        Throwable cause = failure.get();
+        if (cause != null) throw new ExecutionException(cause);
+    }
+
+    private class Pair {
+
+        private final Supplier<Object> producer;
+        private final Consumer<Object> consumer;
+        private final BlockingPipe<Object> pipe;
+        // guarded by lock, so a thread is never interrupted once its task has returned
+        private Thread producerThread;
+        private Thread consumerThread;
+        private volatile boolean failed;
+        private int unfinished = 2;
+
+        private Pair(Supplier<Object> producer, Consumer<Object> consumer, int capacity) {
+            this.producer = producer;
+            this.consumer = consumer;
+            this.pipe = new CircArrayBlockingPipe<>(capacity, true);
+        }
+
+        private void produce() {
+            Throwable thrown = null;
+            if (attach(true)) {
+                try {
+                    Object element;
+                    while ((element = producer.get()) != null) {
+                        pipe.putLast(element);
+                    }
+                    pipe.putLast(END);
+                } catch (InterruptedException e) {
+                    if (!failed && !cancelled) thrown = e;
+                } catch (RuntimeException | Error e) {
+                    thrown = e;
+                }
+            }
+            finish(true, thrown);
+        }
+
+        private void consume() {
+            Throwable thrown = null;
+            if (attach(false)) {
+                try {
+                    Object element;
+                    while ((element = pipe.takeFirst()) != END) {
+                        consumer.accept(element);
+                    }
+                } catch (InterruptedException e) {
+                    if (!failed && !cancelled) thrown = e;
+                } catch (RuntimeException | Error e) {
+                    thrown = e;
+                }
+            }
+            finish(false, thrown);
+        }
+
+        private boolean attach(boolean producing) {
+            lock.lock();
+            try {
+                if (failed || cancelled) return false;
+                if (producing) {
+                    producerThread = Thread.currentThread();
+                } else {
+                    consumerThread = Thread.currentThread();
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void interrupt() {
+            lock.lock();
+            try {
+                if (producerThread != null) producerThread.interrupt();
+                if (consumerThread != null) consumerThread.interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void finish(boolean producing, Throwable thrown) {
+            boolean attached;
+            lock.lock();
+            try {
+                if (producing) {
+                    attached = producerThread == Thread.currentThread();
+                    producerThread = null;
+                } else {
+                    attached = consumerThread == Thread.currentThread();
+                    consumerThread = null;
+                }
+                if (thrown != null) {
+                    failed = true;
+                    failure.compareAndSet(null, thrown);
+                    if (producerThread != null) producerThread.interrupt();
+                    if (consumerThread != null) consumerThread.interrupt();
+                }
+                // leave the set before join can return, so running() agrees with it
+                if (--unfinished == 0) pairs.remove(this);
+                if (--running == 0) finished.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            // no interrupt can arrive once detached, so clear any that was not
+            // consumed before the thread goes back to its executor
+            if (attached) Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package boundedpipe;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * A <code>Flow.Subscriber</code> that buffers the elements it receives in a
+ * bounded blocking pipe, for threads that consume them with
+ * <code>take</code>.</p>
+ * <p>
+ * Demand follows the free space in the pipe. On subscription it requests
+ * <code>capacity() - length()</code> elements, so the publisher can never
+ * overfill the pipe. Space freed by <code>take</code> is requested again
+ * only once at least a batch of slots is free and unrequested, so the
+ * publisher sees one <code>request</code> per batch rather than one per
+ * element.</p>
+ * <p>
+ * As the reactive streams rules require, the <code>Flow.Subscriber</code>
+ * methods throw <code>NullPointerException</code> for null arguments.</p>
+ *
+ * @param <E> the type of elements received
+ */
+public class PipeSubscriber<E> implements Flow.Subscriber<E> {
+
+    private static final Object END = new Object();
+
+    private static final Flow.Subscription CANCELLED = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final int capacity;
+    private final int batchSize;
+    private final BlockingPipe<Object> pipe;
+    private final AtomicLong unrequested;
+    private final AtomicReference<Flow.Subscription> subscription;
+    private final AtomicBoolean terminated;
+    private volatile Throwable error;
+
+    /**
+     * Creates a subscriber that requests more elements once half of its
+     * capacity is free and unrequested.
+     *
+     * @param capacity the most elements buffered at once
+     * @throws IllegalArgumentException if the capacity is less than one
+     */
+    public PipeSubscriber(int capacity) throws IllegalArgumentException {
+        this(capacity, Math.max(1, capacity / 2));
+    }
+
+    /**
+     * Creates a subscriber that requests more elements once
+     * <code>batchSize</code> slots are free and unrequested.
+     *
+     * @param capacity  the most elements buffered at once
+     * @param batchSize the fewest elements requested by one <code>request</code>
+     *                  after the first
+     * @throws IllegalArgumentException if the capacity or the batch size is less
+     *                                  than one, or if the batch size is greater
+     *                                  than the capacity
+     */
+    public PipeSubscriber(int capacity, int batchSize) throws IllegalArgumentException {
+        if (capacity < 1 || batchSize < 1 || batchSize > capacity) throw new IllegalArgumentException();
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        // one slot more than is ever requested, so the end marker always fits
+        pipe = new CircArrayBlockingPipe<>(capacity + 1);
+        unrequested = new AtomicLong(capacity);
+        subscription = new AtomicReference<>();
+        terminated = new AtomicBoolean();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (subscription == null) throw new NullPointerException();
+        if (!this.subscription.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        long n = unrequested.getAndSet(0);
+        if (n > 0) subscription.request(n);
+    }
+
+    @Override
+    public void onNext(E item) {
+        if (item == null) throw new NullPointerException();
+        if (terminated.get()) return;
+        if (pipe.length() >= capacity) {
+            cancelSubscription();
+            terminate(new IllegalStateException("more elements than requested"));
+            return;
+        }
+        pipe.append(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (throwable == null) throw new NullPointerException();
+        terminate(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        terminate(null);
+    }
+
+    /**
+     * Cancels the subscription. Elements already buffered are discarded, and
+     * <code>take</code> throws <code>CancellationException</code>.
+     */
+    public void cancel() {
+        cancelSubscription();
+        if (terminated.compareAndSet(false, true)) {
+            error = new CancellationException();
+            pipe.clear();
+            pipe.append(END);
+        }
+    }
+
+    /**
+     * Returns the number of elements received and not yet taken.
+     *
+     * @return the number of buffered elements
+     */
+    public int length() {
+        int length = pipe.length();
+        return terminated.get() && length > 0 ? length - 1 : length;
+    }
+
+    /**
+     * Returns the most elements this subscriber buffers at once.
+     *
+     * @return the capacity of this subscriber
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes the next element, waiting for one if none has been received.
+     *
+     * @return the next element, or null if the publisher completed and every
+     * element has been taken
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws ExecutionException    if the publisher signalled an error, which is
+     *                               the cause
+     * @throws CancellationException if this subscriber was cancelled
+     */
+    public E take() throws InterruptedException, ExecutionException {
+        Object element = pipe.takeFirst();
+        if (element == END) {
+            ended();
+            return null;
+        }
+        released(1);
+        @SuppressWarnings("unchecked")
+        E e = (E) element;
+        return e;
+    }
+
+    /**
+     * Removes up to <code>max</code> elements and stores them at the start of
+     * an array, waiting for at least one if none has been received. The slots
+     * they free are requested again together.
+     *
+     * @param dst the array that receives the elements
+     * @param max the most elements to remove
+     * @return the number of elements removed, or -1 if the publisher completed
+     * and every element has been taken
+     * @throws IllegalArgumentException if the array is null, or if
+     *                                  <code>max</code> is negative or greater
+     *                                  than the length of the array
+     * @throws InterruptedException     if interrupted while waiting
+     * @throws ExecutionException       if the publisher signalled an error, which
+     *                                  is the cause
+     * @throws CancellationException    if this subscriber was cancelled
+     */
+    public int take(E[] dst, int max) throws IllegalArgumentException, InterruptedException, ExecutionException {
+        if (dst == null || max < 0 || max > dst.length) throw new IllegalArgumentException();
+        if (max == 0) return 0;
+        Object element = pipe.takeFirst();
+        int taken = 0;
+        while (element != END) {
+            @SuppressWarnings("unchecked")
+            E e = (E) element;
+            dst[taken++] = e;
+            if (taken == max || (element = pipe.pollFirst()) == null) break;
+        }
+        if (element == END) {
+            if (taken == 0) {
+                ended();
+                return -1;
+            }
+            pipe.prepend(END);
+        }
+        released(taken);
+        return taken;
+    }
+
+    private void ended() throws ExecutionException {
+        // leave the marker for the next call, on this or another thread
+        pipe.prepend(END);
+        Throwable cause = error;
+        if (cause instanceof CancellationException) throw (CancellationException) cause;
+        if (cause != null) throw new ExecutionException(cause);
+    }
+
+    private void released(int count) {
+        if (terminated.get()) return;
+        if (unrequested.addAndGet(count) < batchSize) return;
+        long n = unrequested.getAndSet(0);
+        if (n > 0) subscription.get().request(n);
+    }
+
+    private void terminate(Throwable cause) {
+        if (terminated.compareAndSet(false, true)) {
+            error = cause;
+            pipe.append(END);
+        }
+    }
+
+    private void cancelSubscription() {
+        Flow.Subscription s = subscription.getAndSet(CANCELLED);
+        if (s != null) s.cancel();
+    }
+}
@@ -0,0 +1,390 @@
+package boundedpipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * A chain of processing stages connected by bounded blocking pipes. Each
+ * stage has a function, a number of worker threads and the capacity of the
+ * pipe it reads from. Workers take elements from their pipe in batches,
+ * apply the function to each, and put the results into the next stage's
+ * pipe in one batch; the last stage feeds a sink consumer run by a single
+ * thread. A function that returns null drops the element.</p>
+ * <p>
+ * A full pipe blocks the workers of the stage before it, and a full first
+ * pipe blocks <code>submit</code>, so a slow stage slows everything upstream
+ * and the elements in flight never exceed the pipe capacities plus one
+ * batch per worker. Elements keep their order through stages with a single
+ * worker; stages with several workers may reorder them.</p>
+ * <p>
+ * The worker threads are created and started by <code>build</code>. After
+ * <code>complete</code>, every stage finishes the elements already submitted
+ * and its threads exit. If a function or the sink throws, the pipeline
+ * fails: its threads are interrupted, the elements in flight are discarded,
+ * and <code>join</code> reports the exception.</p>
+ * <p>
+ * Example:</p>
+ * <pre>
+ * Pipeline&lt;String, Integer&gt; pipeline = Pipeline.&lt;String&gt;builder()
+ *         .stage(Integer::parseInt, 2, 1024)
+ *         .stage(x -&gt; x * x, 4, 1024)
+ *         .build(results::add, 1024);
+ * pipeline.submit("7");
+ * pipeline.complete();
+ * pipeline.join();
+ * </pre>
+ *
+ * @param <I> the type of elements submitted to the pipeline
+ * @param <O> the type of elements passed to the sink
+ */
+public class Pipeline<I, O> {
+
+    /**
+     * The default number of elements a worker moves per handoff.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final Object END = new Object();
+
+    private final BlockingPipe<Object> input;
+    private final List<BlockingPipe<Object>> pipes;
+    private final List<Thread> threads;
+    private final AtomicReference<Throwable> failure;
+    private volatile boolean completed;
+
+    private Pipeline(Builder<I, O> builder, Consumer<? super O> sink, int sinkCapacity) {
+        pipes = new ArrayList<>();
+        threads = new ArrayList<>();
+        failure = new AtomicReference<>();
+        for (StageSpec spec : builder.stages) {
+            pipes.add(new CircArrayBlockingPipe<>(spec.capacity));
+        }
+        pipes.add(new CircArrayBlockingPipe<>(sinkCapacity));
+        input = pipes.get(0);
+        for (int i = 0; i < builder.stages.size(); i++) {
+            StageSpec spec = builder.stages.get(i);
+            AtomicInteger running = new AtomicInteger(spec.parallelism);
+            for (int j = 0; j < spec.parallelism; j++) {
+                Worker worker = new Worker(pipes.get(i), pipes.get(i + 1), spec.function, null, running, builder.batchSize);
+                threads.add(newThread(builder.threadFactory, worker));
+            }
+        }
+        @SuppressWarnings("unchecked")
+        Consumer<Object> sinkAction = (Consumer<Object>) sink;
+        Worker sinkWorker = new Worker(pipes.get(pipes.size() - 1), null, null, sinkAction, new AtomicInteger(1), builder.batchSize);
+        threads.add(newThread(builder.threadFactory, sinkWorker));
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    private static Thread newThread(ThreadFactory threadFactory, Runnable runnable) {
+        Thread thread = threadFactory.newThread(runnable);
+        if (thread == null) throw new IllegalStateException();
+        return thread;
+    }
+
+    /**
+     * Returns a builder for a pipeline whose elements are of type <code>T</code>
+     * until the first stage transforms them.
+     *
+     * @param <T> the type of elements submitted to the pipeline
+     * @return a builder with no stages
+     */
+    public static <T> Builder<T, T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Submits an element to the first stage, waiting if necessary for space
+     * in its pipe.
+     *
+     * @param element the element to be processed
+     * @throws IllegalArgumentException if the element is null
+     * @throws IllegalStateException    if the pipeline was completed or has
+     *                                  failed, including while waiting
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    public void submit(I element) throws IllegalArgumentException, IllegalStateException, InterruptedException {
+        if (element == null) throw new IllegalArgumentException();
+        if (completed || failure.get() != null) throw new IllegalStateException();
+        input.putLast(element);
+        checkNotFailed();
+    }
+
+    /**
+     * Submits the elements of a range of an array to the first stage, in
+     * order, waiting as often as necessary for space in its pipe.
+     *
+     * @param src the array holding the elements to be processed
+     * @param off the index of the first element to be processed
+     * @param len the number of elements to be processed
+     * @throws IllegalArgumentException if the array or any element in the range is null,
+     *                                  or if the range is not within the array
+     * @throws IllegalStateException    if the pipeline was completed or has
+     *                                  failed, including while waiting
+     * @throws InterruptedException     if interrupted while waiting
+     */
+    public void submitAll(I[] src, int off, int len)
+            throws IllegalArgumentException, IllegalStateException, InterruptedException {
+        if (src == null || off < 0 || len < 0 || off > src.length - len) throw new IllegalArgumentException();
+        for (int i = off; i < off + len; i++) {
+            if (src[i] == null) throw new IllegalArgumentException();
+        }
+        if (completed || failure.get() != null) throw new IllegalStateException();
+        // no more than the pipe holds at once, so a failure is noticed before
+        // a put can wait for workers that have stopped
+        int step = input.capacity();
+        for (int done = 0; done < len; done += step) {
+            input.putAllLast(src, off + done, Math.min(step, len - done));
+            checkNotFailed();
+        }
+    }
+
+    /**
+     * Signals that no more elements will be submitted. The stages finish the
+     * elements already submitted, then their threads exit. Must not be called
+     * while another thread is submitting.
+     *
+     * @throws IllegalStateException if the pipeline has failed, including while
+     *                               waiting for space in the first pipe
+     * @throws InterruptedException  if interrupted while waiting for space in the first pipe
+     */
+    public void complete() throws IllegalStateException, InterruptedException {
+        if (completed) return;
+        completed = true;
+        input.putLast(END);
+        checkNotFailed();
+    }
+
+    /**
+     * Stops the pipeline, discarding the elements in flight. A later call to
+     * <code>join</code> throws <code>CancellationException</code>.
+     */
+    public void cancel() {
+        fail(new CancellationException());
+    }
+
+    /**
+     * Waits for every thread of the pipeline to exit.
+     *
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws ExecutionException    if a stage function or the sink threw an
+     *                               exception, which is the cause
+     * @throws CancellationException if the pipeline was cancelled
+     */
+    public void join() throws InterruptedException, ExecutionException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Waits up to the specified time for every thread of the pipeline to exit.
+     *
+     * @param timeout how long to wait, in units of <code>unit</code>
+     * @param unit    the unit of the <code>timeout</code> argument
+     * @return true if every thread exited, and false if the time elapsed first
+     * @throws IllegalArgumentException if the unit is null
+     * @throws InterruptedException     if interrupted while waiting
+     * @throws ExecutionException       if a stage function or the sink threw an
+     *                                  exception, which is the cause
+     * @throws CancellationException    if the pipeline was cancelled
+     */
+    public boolean join(long timeout, TimeUnit unit)
+            throws IllegalArgumentException, InterruptedException, ExecutionException {
+        if (unit == null) throw new IllegalArgumentException();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread thread : threads) {
+            long nanos = deadline - System.nanoTime();
+            if (nanos > 0) TimeUnit.NANOSECONDS.timedJoin(thread, nanos);
+            if (thread.isAlive()) return false;
+        }
+        checkFailure();
+        return true;
+    }
+
+    private void checkFailure() throws ExecutionException {
+        Throwable cause = failure.get();
+        if (cause instanceof CancellationException) throw (CancellationException) cause;
+        if (cause != null) throw new ExecutionException(cause);
+    }
+
+    private void checkNotFailed() {
+        if (failure.get() == null) return;
+        // fail() cleared the pipe to wake this thread; clearing it again drops
+        // what was just put and wakes the next producer still waiting
+        input.clear();
+        throw new IllegalStateException();
+    }
+
+    private void fail(Throwable cause) {
+        if (!failure.compareAndSet(null, cause)) return;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (BlockingPipe<Object> pipe : pipes) {
+            pipe.clear();
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final BlockingPipe<Object> from;
+        private final BlockingPipe<Object> to;
+        private final Function<Object, Object> function;
+        private final Consumer<Object> sink;
+        private final AtomicInteger running;
+        private final Object[] batch;
+        private final Object[] results;
+
+        private Worker(BlockingPipe<Object> from, BlockingPipe<Object> to, Function<Object, Object> function,
+                       Consumer<Object> sink, AtomicInteger running, int batchSize) {
+            this.from = from;
+            this.to = to;
+            this.function = function;
+            this.sink = sink;
+            this.running = running;
+            this.batch = new Object[batchSize];
+            this.results = sink == null ? new Object[batchSize] : null;
+        }
+
+        @Override
+        public void run() {
+            try {
+                boolean end = false;
+                while (!end) {
+                    int taken = from.takeFirst(batch, batch.length);
+                    int produced = 0;
+                    for (int i = 0; i < taken; i++) {
+                        Object element = batch[i];
+                        batch[i] = null;
+                        if (element == END) {
+                            end = true;
+                        } else if (sink != null) {
+                            sink.accept(element);
+                        } else {
+                            Object result = function.apply(element);
+                            if (result != null) results[produced++] = result;
+                        }
+                    }
+                    if (produced > 0) {
+                        to.putAllLast(results, 0, produced);
+                        Arrays.fill(results, 0, produced, null);
+                    }
+                }
+                from.putFirst(END);
+                if (running.decrementAndGet() == 0 && to != null) to.putLast(END);
+            } catch (InterruptedException e) {
+                if (failure.get() == null) fail(e);
+            } catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+    }
+
+    private static class StageSpec {
+        private final Function<Object, Object> function;
+        private final int parallelism;
+        private final int capacity;
+
+        private StageSpec(Function<Object, Object> function, int parallelism, int capacity) {
+            this.function = function;
+            this.parallelism = parallelism;
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * <p>
+     * Builds a pipeline one stage at a time. Each call to <code>stage</code>
+     * returns a builder for pipelines whose elements have the result type of
+     * the new stage.</p>
+     *
+     * @param <I> the type of elements submitted to the pipeline
+     * @param <O> the type of elements produced by the last stage so far
+     */
+    public static class Builder<I, O> {
+
+        private final List<StageSpec> stages = new ArrayList<>();
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private ThreadFactory threadFactory = Thread::new;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a stage at the end of the pipeline.
+         *
+         * @param function    the function applied to each element; a null result drops the element
+         * @param parallelism the number of worker threads of the stage
+         * @param capacity    the capacity of the pipe the stage reads from
+         * @param <R>         the type of elements produced by the stage
+         * @return this builder, typed for the results of the new stage
+         * @throws IllegalArgumentException if the function is null, or if the
+         *                                  parallelism or the capacity is less than one
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Builder<I, R> stage(Function<? super O, ? extends R> function, int parallelism, int capacity)
+                throws IllegalArgumentException {
+            if (function == null || parallelism < 1 || capacity < 1) throw new IllegalArgumentException();
+            stages.add(new StageSpec((Function<Object, Object>) function, parallelism, capacity));
+            return (Builder<I, R>) this;
+        }
+
+        /**
+         * Sets the number of elements a worker takes from its pipe, and puts
+         * into the next, in one handoff.
+         *
+         * @param batchSize the maximum number of elements per handoff
+         * @return this builder
+         * @throws IllegalArgumentException if the batch size is less than one
+         */
+        public Builder<I, O> batchSize(int batchSize) throws IllegalArgumentException {
+            if (batchSize < 1) throw new IllegalArgumentException();
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the factory that creates the threads of the pipeline.
+         *
+         * @param threadFactory the factory for the worker and sink threads
+         * @return this builder
+         * @throws IllegalArgumentException if the factory is null
+         */
+        public Builder<I, O> threadFactory(ThreadFactory threadFactory) throws IllegalArgumentException {
+            if (threadFactory == null) throw new IllegalArgumentException();
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Creates the pipes and threads of the pipeline and starts the threads.
+         *
+         * @param sink         the consumer of the results of the last stage, run by one thread
+         * @param sinkCapacity the capacity of the pipe the sink reads from
+         * @return the running pipeline
+         * @throws IllegalArgumentException if the sink is null, or if the capacity is less than one
+         * @throws IllegalStateException    if the pipeline has no stages, or if the
+         *                                  thread factory does not create a thread
+         */
+        public Pipeline<I, O> build(Consumer<? super O> sink, int sinkCapacity)
+                throws IllegalArgumentException, IllegalStateException {
+            if (sink == null || sinkCapacity < 1) throw new IllegalArgumentException();
+            if (stages.isEmpty()) throw new IllegalStateException();
+            return new Pipeline<>(this, sink, sinkCapacity);
+        }
+    }
+}
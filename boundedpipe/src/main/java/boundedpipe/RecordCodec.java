@@ -0,0 +1,45 @@
+package boundedpipe;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Converts pipe elements to and from fixed-size binary records, so that an
+ * <code>OffHeapPipe</code> can store them outside the Java heap.</p>
+ * <p>
+ * Both methods work directly on the pipe's buffer at an absolute offset and
+ * must neither read nor write outside the <code>recordSize()</code> bytes
+ * starting at that offset, nor change the buffer's position or limit.</p>
+ *
+ * @param <E> the type of elements encoded by this codec
+ */
+public interface RecordCodec<E> {
+
+    /**
+     * <p>
+     * Returns the number of bytes in every record written by this codec.</p>
+     *
+     * @return the size of a record in bytes, strictly greater than zero
+     */
+    int recordSize();
+
+    /**
+     * <p>
+     * Writes the specified element as a record at the specified offset.</p>
+     *
+     * @param element the element to be written, never null
+     * @param buffer  the buffer holding the record
+     * @param offset  the absolute offset of the record in the buffer
+     */
+    void write(E element, ByteBuffer buffer, int offset);
+
+    /**
+     * <p>
+     * Reads the record at the specified offset and returns it as an element.</p>
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the absolute offset of the record in the buffer
+     * @return the element stored in the record, never null
+     */
+    E read(ByteBuffer buffer, int offset);
+}
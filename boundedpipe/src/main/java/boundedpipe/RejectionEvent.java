@@ -0,0 +1,29 @@
+package boundedpipe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("boundedpipe.Rejection")
+@Label("Pipe Rejection")
+@Category("Bounded Pipe")
+@Description("An operation threw IllegalStateException because the pipe was full or empty")
+@Enabled(false)
+@StackTrace(true)
+final class RejectionEvent extends jdk.jfr.Event {
+
+    @Label("Pipe Class")
+    Class<?> pipeClass;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Length")
+    int length;
+
+    @Label("Capacity")
+    int capacity;
+}
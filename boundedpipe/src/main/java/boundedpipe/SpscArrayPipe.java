@@ -0,0 +1,250 @@
+package boundedpipe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A lock-free circular-array pipe for a single producer and a single consumer.</p>
+ * <p>
+ * Exactly one thread may call <code>append</code>, <code>tryAppend</code> and
+ * <code>last</code>, and exactly one (possibly different) thread may call
+ * <code>removeFirst</code>, <code>pollFirst</code>, <code>first</code> and
+ * <code>clear</code>, without any external locking.
+ * <code>length</code>, <code>isEmpty</code> and <code>isFull</code> may be called
+ * from any thread and return a recent snapshot. The remaining methods
+ * (<code>prepend</code>, <code>removeLast</code>, iteration and the methods of
+ * <code>AbstractPipe</code>) behave as in the other pipes but must only be
+ * called while no other thread is using the pipe. Iterators are not
+ * fail-fast.</p>
+ * <p>
+ * The head and tail are monotonically increasing sequences published with
+ * release/acquire ordering, and the backing array is rounded up to a power of
+ * two so a slot index is a mask of its sequence.</p>
+ * <p>
+ * The consumer's fields (the head and its cached copy of the tail) and the
+ * producer's fields (the tail and its cached copy of the head) are declared
+ * in separate superclasses with 128 bytes of padding before, between and
+ * after them. The JVM lays out superclass fields before subclass fields, so
+ * the two threads never write to the same cache line, or to adjacent lines
+ * that the hardware may prefetch as a pair.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class SpscArrayPipe<E> extends SpscTailPadding<E> {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(SpscTail.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final E[] elements;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    public SpscArrayPipe(int max) {
+        super(max);
+        if (max < 0 || max > 1 << 30) throw new IllegalArgumentException();
+        int size = max <= 1 ? 1 : Integer.highestOneBit(max - 1) << 1;
+        elements = (E[]) new Object[size];
+        mask = size - 1;
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) throw rejected("prepend");
+        long newHead = head - 1;
+        elements[(int) newHead & mask] = element;
+        HEAD.setRelease(this, newHead);
+        headCache = newHead;
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        long currentTail = (long) TAIL.getOpaque(this);
+        if (currentTail - headCache >= capacity()) {
+            headCache = (long) HEAD.getAcquire(this);
+            if (currentTail - headCache >= capacity()) return false;
+        }
+        elements[(int) currentTail & mask] = element;
+        TAIL.setRelease(this, currentTail + 1);
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        long currentHead = (long) HEAD.getOpaque(this);
+        if (currentHead >= tailCache) {
+            tailCache = (long) TAIL.getAcquire(this);
+            if (currentHead >= tailCache) return null;
+        }
+        int index = (int) currentHead & mask;
+        E firstElement = elements[index];
+        elements[index] = null;
+        HEAD.setRelease(this, currentHead + 1);
+        return firstElement;
+    }
+
+    @Override
+    public E removeLast() {
+        if (this.isEmpty()) throw rejected("removeLast");
+        long newTail = tail - 1;
+        int index = (int) newTail & mask;
+        E lastElement = elements[index];
+        elements[index] = null;
+        TAIL.setRelease(this, newTail);
+        tailCache = newTail;
+        return lastElement;
+    }
+
+    @Override
+    public int length() {
+        long currentHead = head;
+        while (true) {
+            long currentTail = tail;
+            long headAfter = head;
+            if (headAfter == currentHead) {
+                return (int) (currentTail - currentHead);
+            }
+            currentHead = headAfter;
+        }
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new SpscArrayPipe<>(capacity());
+    }
+
+    @Override
+    public void clear() {
+        long currentHead = (long) HEAD.getOpaque(this);
+        long currentTail = (long) TAIL.getAcquire(this);
+        for (long i = currentHead; i < currentTail; i++) {
+            elements[(int) i & mask] = null;
+        }
+        tailCache = currentTail;
+        HEAD.setRelease(this, currentTail);
+    }
+
+    @Override
+    public E first() {
+        long currentHead = head;
+        if (currentHead == tail) return null;
+        return elements[(int) currentHead & mask];
+    }
+
+    @Override
+    public E last() {
+        long currentTail = tail;
+        if (head == currentTail) return null;
+        return elements[(int) (currentTail - 1) & mask];
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(true);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(false);
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private long indexOfNext;
+        private long remaining;
+        private final int step;
+
+        private PipeIterator(boolean ascending) {
+            long start = head;
+            long end = tail;
+            remaining = end - start;
+            indexOfNext = ascending ? start : end - 1;
+            step = ascending ? 1 : -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = elements[(int) indexOfNext & mask];
+            remaining--;
+            indexOfNext += step;
+            return result;
+        }
+    }
+}
+
+abstract class SpscHeadPadding<E> extends AbstractPipe<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    SpscHeadPadding(int max) {
+        super(max);
+    }
+}
+
+abstract class SpscHead<E> extends SpscHeadPadding<E> {
+    volatile long head;
+    long tailCache;
+
+    SpscHead(int max) {
+        super(max);
+    }
+}
+
+abstract class SpscMidPadding<E> extends SpscHead<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    SpscMidPadding(int max) {
+        super(max);
+    }
+}
+
+abstract class SpscTail<E> extends SpscMidPadding<E> {
+    volatile long tail;
+    long headCache;
+
+    SpscTail(int max) {
+        super(max);
+    }
+}
+
+abstract class SpscTailPadding<E> extends SpscTail<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    SpscTailPadding(int max) {
+        super(max);
+    }
+}
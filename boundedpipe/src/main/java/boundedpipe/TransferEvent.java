@@ -0,0 +1,30 @@
+package boundedpipe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("boundedpipe.Transfer")
+@Label("Pipe Transfer")
+@Category("Bounded Pipe")
+@Description("appendAll moved the elements of one pipe onto the end of another")
+@Enabled(false)
+@StackTrace(false)
+final class TransferEvent extends jdk.jfr.Event {
+
+    @Label("Source Class")
+    Class<?> sourceClass;
+
+    @Label("Target Class")
+    Class<?> targetClass;
+
+    @Label("Elements")
+    int count;
+
+    @Label("Bulk")
+    @Description("Whether the target moved the elements in one step rather than one at a time")
+    boolean bulk;
+}
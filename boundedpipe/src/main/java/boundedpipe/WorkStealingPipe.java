@@ -0,0 +1,205 @@
+package boundedpipe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A bounded Chase-Lev work-stealing pipe for one owner thread and any number
+ * of thief threads.</p>
+ * <p>
+ * The owner treats the end of the pipe as a stack: it calls
+ * <code>append</code> or <code>tryAppend</code> to push and
+ * <code>removeLast</code> or <code>pollLast</code> to pop, none of which needs
+ * a compare-and-set unless the pipe holds a single element. Thieves call
+ * <code>removeFirst</code> or <code>pollFirst</code> to steal the oldest
+ * element with a compare-and-set on the head. The owner may also call
+ * <code>last</code> and <code>clear</code>, thieves may call
+ * <code>first</code>, and anyone may call
+ * <code>length</code>, <code>isEmpty</code> and <code>isFull</code>. The
+ * remaining methods (<code>prepend</code>, iteration and the methods of
+ * <code>AbstractPipe</code>) must only be called while no other thread is
+ * using the pipe. Iterators are not fail-fast.</p>
+ * <p>
+ * A stolen element's slot is released when the owner next overwrites it.</p>
+ *
+ * @param <E> the type of elements in this pipe
+ */
+public class WorkStealingPipe<E> extends AbstractPipe<E> {
+
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(WorkStealingPipe.class, "top", long.class);
+            BOTTOM = lookup.findVarHandle(WorkStealingPipe.class, "bottom", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final E[] elements;
+    private final int mask;
+    private volatile long top;
+    private volatile long bottom;
+
+    @SuppressWarnings("unchecked")
+    public WorkStealingPipe(int max) {
+        super(max);
+        if (max < 0 || max > 1 << 30) throw new IllegalArgumentException();
+        int size = max <= 1 ? 1 : Integer.highestOneBit(max - 1) << 1;
+        elements = (E[]) new Object[size];
+        mask = size - 1;
+    }
+
+    @Override
+    public void prepend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        if (this.isFull()) throw rejected("prepend");
+        long newTop = top - 1;
+        elements[(int) newTop & mask] = element;
+        top = newTop;
+    }
+
+    @Override
+    public void append(E element) {
+        if (!tryAppend(element)) throw rejected("append");
+    }
+
+    @Override
+    public boolean tryAppend(E element) {
+        if (element == null) throw new IllegalArgumentException();
+        long currentBottom = (long) BOTTOM.getOpaque(this);
+        if (currentBottom - top >= capacity()) return false;
+        elements[(int) currentBottom & mask] = element;
+        BOTTOM.setRelease(this, currentBottom + 1);
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        E firstElement = pollFirst();
+        if (firstElement == null) throw rejected("removeFirst");
+        return firstElement;
+    }
+
+    @Override
+    public E pollFirst() {
+        while (true) {
+            long currentTop = top;
+            long currentBottom = bottom;
+            if (currentTop >= currentBottom) return null;
+            E firstElement = elements[(int) currentTop & mask];
+            if (TOP.compareAndSet(this, currentTop, currentTop + 1)) {
+                return firstElement;
+            }
+        }
+    }
+
+    @Override
+    public E removeLast() {
+        E lastElement = pollLast();
+        if (lastElement == null) throw rejected("removeLast");
+        return lastElement;
+    }
+
+    @Override
+    public int length() {
+        long currentTop = top;
+        long currentBottom = bottom;
+        long length = currentBottom - currentTop;
+        if (length < 0) return 0;
+        if (length > capacity()) return capacity();
+        return (int) length;
+    }
+
+    @Override
+    public Pipe<E> newInstance() {
+        return new WorkStealingPipe<>(capacity());
+    }
+
+    @Override
+    public void clear() {
+        while (pollLast() != null) {
+        }
+    }
+
+    @Override
+    public E first() {
+        long currentTop = top;
+        if (currentTop >= bottom) return null;
+        return elements[(int) currentTop & mask];
+    }
+
+    @Override
+    public E last() {
+        long currentBottom = bottom;
+        if (top >= currentBottom) return null;
+        return elements[(int) (currentBottom - 1) & mask];
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new PipeIterator(true);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new PipeIterator(false);
+    }
+
+    @Override
+    public E pollLast() {
+        long newBottom = bottom - 1;
+        bottom = newBottom;
+        long currentTop = top;
+        if (currentTop > newBottom) {
+            bottom = newBottom + 1;
+            return null;
+        }
+        int index = (int) newBottom & mask;
+        E lastElement = elements[index];
+        if (currentTop == newBottom) {
+            if (!TOP.compareAndSet(this, currentTop, currentTop + 1)) {
+                lastElement = null;
+            }
+            bottom = newBottom + 1;
+            return lastElement;
+        }
+        elements[index] = null;
+        return lastElement;
+    }
+
+    private class PipeIterator implements Iterator<E> {
+
+        private long indexOfNext;
+        private long remaining;
+        private final int step;
+
+        private PipeIterator(boolean ascending) {
+            long start = top;
+            long end = bottom;
+            remaining = end - start;
+            indexOfNext = ascending ? start : end - 1;
+            step = ascending ? 1 : -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (!this.hasNext()) throw new NoSuchElementException();
+            E result = elements[(int) indexOfNext & mask];
+            remaining--;
+            indexOfNext += step;
+            return result;
+        }
+    }
+}
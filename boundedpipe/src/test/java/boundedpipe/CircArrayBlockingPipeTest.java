@@ -0,0 +1,353 @@
+package boundedpipe;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class CircArrayBlockingPipeTest {
+
+    private BlockingPipe<String> pipe_abc_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_abc_6 = new CircArrayBlockingPipe<>(6);
+        pipe_abc_6.append("A");
+        pipe_abc_6.append("B");
+        pipe_abc_6.append("C");
+    }
+
+    @org.junit.Test
+    public void prependAndAppend() {
+        pipe_abc_6.prepend("D");
+        pipe_abc_6.append("E");
+        assertEquals(5, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.first());
+        assertEquals("E", pipe_abc_6.last());
+        assertEquals("[D, A, B, C, E]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void removeFirstAndLast() {
+        assertEquals("A", pipe_abc_6.removeFirst());
+        assertEquals("C", pipe_abc_6.removeLast());
+        assertEquals("[B]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void newInstance() {
+        Pipe<String> newInstancePipe = pipe_abc_6.newInstance();
+        assertTrue(newInstancePipe instanceof CircArrayBlockingPipe);
+        assertEquals(6, newInstancePipe.capacity());
+        assertEquals(0, newInstancePipe.length());
+    }
+
+    @org.junit.Test
+    public void clear() {
+        pipe_abc_6.clear();
+        assertTrue(pipe_abc_6.isEmpty());
+        assertNull(pipe_abc_6.first());
+        assertNull(pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void appendAll() {
+        Pipe<String> appendAll_pipe = new LinkedPipe<>(2);
+        appendAll_pipe.append("D");
+        appendAll_pipe.append("E");
+        pipe_abc_6.appendAll(appendAll_pipe);
+        assertEquals("[A, B, C, D, E]:6", pipe_abc_6.toString());
+        assertEquals(0, appendAll_pipe.length());
+    }
+
+    @org.junit.Test
+    public void testEqualsCircArrayPipe() {
+        Pipe<String> circ_abc_6 = new CircArrayPipe<>(6);
+        circ_abc_6.append("A");
+        circ_abc_6.append("B");
+        circ_abc_6.append("C");
+        assertEquals(circ_abc_6, pipe_abc_6);
+        assertEquals(circ_abc_6.hashCode(), pipe_abc_6.hashCode());
+    }
+
+    @org.junit.Test
+    public void iteratorIsSnapshot() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        pipe_abc_6.clear();
+        assertEquals("A", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("C", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void iteratorExhausted() {
+        Iterator<String> iterator = new CircArrayBlockingPipe<String>(1).iterator();
+        iterator.next();
+    }
+
+    @org.junit.Test
+    public void putAndTakeWithoutWaiting() throws InterruptedException {
+        pipe_abc_6.putFirst("D");
+        pipe_abc_6.putLast("E");
+        assertEquals("D", pipe_abc_6.takeFirst());
+        assertEquals("E", pipe_abc_6.takeLast());
+        assertEquals("[A, B, C]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void timedPutOnFullPipe() throws InterruptedException {
+        BlockingPipe<String> pipe_1 = new CircArrayBlockingPipe<>(1);
+        assertTrue(pipe_1.putLast("A", 10, TimeUnit.MILLISECONDS));
+        assertFalse(pipe_1.putLast("B", 10, TimeUnit.MILLISECONDS));
+        assertFalse(pipe_1.putFirst("B", 10, TimeUnit.MILLISECONDS));
+        assertEquals("[A]:1", pipe_1.toString());
+    }
+
+    @org.junit.Test
+    public void timedTakeOnEmptyPipe() throws InterruptedException {
+        BlockingPipe<String> pipe_1 = new CircArrayBlockingPipe<>(1);
+        assertNull(pipe_1.takeFirst(10, TimeUnit.MILLISECONDS));
+        assertNull(pipe_1.takeLast(10, TimeUnit.MILLISECONDS));
+        pipe_1.putFirst("A", 10, TimeUnit.MILLISECONDS);
+        assertEquals("A", pipe_1.takeLast(10, TimeUnit.MILLISECONDS));
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void takeWaitsForPut() throws InterruptedException {
+        final BlockingPipe<String> pipe_1 = new CircArrayBlockingPipe<>(1);
+        final AtomicReference<String> taken = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                taken.set(pipe_1.takeFirst());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        pipe_1.putLast("A");
+        consumer.join();
+        assertEquals("A", taken.get());
+        assertTrue(pipe_1.isEmpty());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void putWaitsForTake() throws InterruptedException {
+        final BlockingPipe<Integer> pipe_2 = new CircArrayBlockingPipe<>(2);
+        final int count = 10_000;
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++) {
+                    pipe_2.putLast(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, pipe_2.takeFirst().intValue());
+        }
+        producer.join();
+        assertTrue(pipe_2.isEmpty());
+    }
+
+    @org.junit.Test(expected = InterruptedException.class)
+    public void takeInterrupted() throws InterruptedException {
+        BlockingPipe<String> pipe_1 = new CircArrayBlockingPipe<>(1);
+        Thread.currentThread().interrupt();
+        pipe_1.takeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() {
+        Pipe<String> pipe_1 = new CircArrayBlockingPipe<>(1);
+        pipe_1.append("A");
+        pipe_1.append("B");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() {
+        Pipe<String> pipe_1 = new CircArrayBlockingPipe<>(1);
+        pipe_1.removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionPutLast() throws InterruptedException {
+        pipe_abc_6.putLast(null);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionTimedTake() throws InterruptedException {
+        pipe_abc_6.takeFirst(1, null);
+    }
+
+    @org.junit.Test
+    public void tryPrependAndTryAppend() {
+        assertTrue(pipe_abc_6.tryPrepend("D"));
+        assertTrue(pipe_abc_6.tryAppend("E"));
+        assertTrue(pipe_abc_6.tryAppend("F"));
+        assertFalse(pipe_abc_6.tryAppend("G"));
+        assertFalse(pipe_abc_6.tryPrepend("G"));
+        assertEquals("[D, A, B, C, E, F]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void pollFirstAndPollLast() {
+        assertEquals("A", pipe_abc_6.pollFirst());
+        assertEquals("C", pipe_abc_6.pollLast());
+        assertEquals("B", pipe_abc_6.pollLast());
+        assertNull(pipe_abc_6.pollFirst());
+        assertNull(pipe_abc_6.pollLast());
+        assertEquals("[]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionTryAppend() {
+        pipe_abc_6.tryAppend(null);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionTryPrepend() {
+        pipe_abc_6.tryPrepend(null);
+    }
+
+    @org.junit.Test
+    public void copyIsIndependent() {
+        Pipe<String> copy = pipe_abc_6.copy();
+        assertNotSame(pipe_abc_6, copy);
+        assertEquals(pipe_abc_6, copy);
+        copy.append("D");
+        pipe_abc_6.removeFirst();
+        assertEquals("[B, C]:6", pipe_abc_6.toString());
+        assertEquals("[A, B, C, D]:6", copy.toString());
+    }
+
+    @org.junit.Test
+    public void copyEmpty() {
+        Pipe<String> copy = new CircArrayBlockingPipe<String>(2).copy();
+        assertTrue(copy.isEmpty());
+        copy.append("A");
+        assertEquals("[A]:2", copy.toString());
+    }
+
+    @org.junit.Test
+    public void descendingIterator() {
+        pipe_abc_6.prepend("D");
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        assertEquals("C", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("A", iterator.next());
+        assertEquals("D", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void descendingIteratorExhausted() {
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.descendingIterator().next();
+    }
+
+    @org.junit.Test
+    public void descendingIteratorIsSnapshot() {
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        pipe_abc_6.clear();
+        assertEquals("C", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("A", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void putAllLastLongerThanCapacity() throws InterruptedException {
+        final BlockingPipe<Integer> pipe_4 = new CircArrayBlockingPipe<>(4);
+        final Integer[] src = new Integer[1000];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = i;
+        }
+        Thread producer = new Thread(() -> {
+            try {
+                pipe_4.putAllLast(src, 0, src.length);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Integer[] dst = new Integer[3];
+        int next = 0;
+        while (next < src.length) {
+            int taken = pipe_4.takeFirst(dst, dst.length);
+            assertTrue(taken >= 1 && taken <= 3);
+            for (int i = 0; i < taken; i++) {
+                assertEquals(next++, dst[i].intValue());
+            }
+        }
+        producer.join();
+        assertTrue(pipe_4.isEmpty());
+    }
+
+    @org.junit.Test
+    public void takeFirstBatch() throws InterruptedException {
+        String[] dst = new String[4];
+        assertEquals(2, pipe_abc_6.takeFirst(dst, 2));
+        assertEquals("A", dst[0]);
+        assertEquals("B", dst[1]);
+        assertEquals(1, pipe_abc_6.takeFirst(dst, 4));
+        assertEquals("C", dst[0]);
+        assertEquals(0, pipe_abc_6.takeFirst(dst, 0));
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void putAllLastNullElement() throws InterruptedException {
+        try {
+            pipe_abc_6.putAllLast(new String[]{"D", null}, 0, 2);
+        } finally {
+            assertEquals("[A, B, C]:6", pipe_abc_6.toString());
+        }
+    }
+
+    @org.junit.Test(expected = InterruptedException.class)
+    public void takeFirstBatchInterrupted() throws InterruptedException {
+        BlockingPipe<String> pipe_1 = new CircArrayBlockingPipe<>(1);
+        Thread.currentThread().interrupt();
+        pipe_1.takeFirst(new String[1], 1);
+    }
+
+    @org.junit.Test
+    public void elastic() {
+        BlockingPipe<String> pipe_6 = new CircArrayBlockingPipe<>(6, true);
+        for (String s : new String[]{"A", "B", "C", "D", "E", "F"}) {
+            pipe_6.append(s);
+        }
+        assertTrue(pipe_6.isFull());
+        assertFalse(pipe_6.tryAppend("G"));
+        assertEquals("A", pipe_6.removeFirst());
+        assertEquals("[B, C, D, E, F]:6", pipe_6.toString());
+        assertEquals("[B, C, D, E, F]:6", pipe_6.copy().toString());
+        assertEquals("[]:6", pipe_6.newInstance().toString());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void elasticPutAndTake() throws InterruptedException {
+        final BlockingPipe<Integer> pipe_4 = new CircArrayBlockingPipe<>(4, true);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 1000; i++) {
+                    pipe_4.putLast(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, pipe_4.takeFirst().intValue());
+        }
+        producer.join();
+        assertTrue(pipe_4.isEmpty());
+    }
+}
@@ -0,0 +1,192 @@
+package boundedpipe;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.Assert.*;
+
+public class CircArrayDoublePipeTest {
+
+    private DoublePipe pipe_123_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_123_6 = new CircArrayDoublePipe(6);
+        pipe_123_6.append(1.0);
+        pipe_123_6.append(2.0);
+        pipe_123_6.append(3.0);
+    }
+
+    @org.junit.Test
+    public void prepend() {
+        pipe_123_6.prepend(9.0);
+        assertEquals(4, pipe_123_6.length());
+        assertEquals(9, pipe_123_6.first(), 0.0);
+        assertEquals("[9.0, 1.0, 2.0, 3.0]:6", pipe_123_6.toString());
+    }
+
+    @org.junit.Test
+    public void append() {
+        pipe_123_6.append(9.0);
+        assertEquals(4, pipe_123_6.length());
+        assertEquals(9, pipe_123_6.last(), 0.0);
+        assertEquals("[1.0, 2.0, 3.0, 9.0]:6", pipe_123_6.toString());
+    }
+
+    @org.junit.Test
+    public void removeFirstAndLast() {
+        assertEquals(1, pipe_123_6.removeFirst(), 0.0);
+        assertEquals(3, pipe_123_6.removeLast(), 0.0);
+        assertEquals("[2.0]:6", pipe_123_6.toString());
+    }
+
+    @org.junit.Test
+    public void wrapAround() {
+        DoublePipe pipe_3 = new CircArrayDoublePipe(3);
+        for (int i = 0; i < 10; i++) {
+            pipe_3.prepend(i);
+            pipe_3.append(i + 1);
+            pipe_3.prepend(i + 2);
+            assertTrue(pipe_3.isFull());
+            assertEquals(i + 2, pipe_3.removeFirst(), 0.0);
+            assertEquals(i + 1, pipe_3.removeLast(), 0.0);
+            assertEquals(i, pipe_3.removeLast(), 0.0);
+            assertTrue(pipe_3.isEmpty());
+        }
+    }
+
+    @org.junit.Test
+    public void capacityAndNewInstance() {
+        DoublePipe newInstancePipe = pipe_123_6.newInstance();
+        assertEquals(6, pipe_123_6.capacity());
+        assertEquals(6, newInstancePipe.capacity());
+        assertEquals(0, newInstancePipe.length());
+    }
+
+    @org.junit.Test
+    public void clear() {
+        pipe_123_6.clear();
+        assertTrue(pipe_123_6.isEmpty());
+        assertEquals("[]:6", pipe_123_6.toString());
+    }
+
+    @org.junit.Test
+    public void appendAll() {
+        DoublePipe appendAll_pipe = new CircArrayDoublePipe(2);
+        appendAll_pipe.append(4.0);
+        appendAll_pipe.append(5.0);
+        pipe_123_6.appendAll(appendAll_pipe);
+        assertEquals("[1.0, 2.0, 3.0, 4.0, 5.0]:6", pipe_123_6.toString());
+        assertTrue(appendAll_pipe.isEmpty());
+    }
+
+    @org.junit.Test
+    public void appendAllWrapped() {
+        DoublePipe source_4 = new CircArrayDoublePipe(4);
+        for (int i = 0; i < 3; i++) {
+            source_4.append(0.0);
+            source_4.removeFirst();
+        }
+        source_4.append(4.0);
+        source_4.append(5.0);
+        source_4.append(6.0);
+        pipe_123_6.appendAll(source_4);
+        assertEquals("[1.0, 2.0, 3.0, 4.0, 5.0, 6.0]:6", pipe_123_6.toString());
+        assertTrue(source_4.isEmpty());
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void appendAllSelf() {
+        try {
+            pipe_123_6.appendAll(pipe_123_6);
+        } finally {
+            assertEquals("[1.0, 2.0, 3.0]:6", pipe_123_6.toString());
+        }
+    }
+
+    @org.junit.Test
+    public void appendAllOverflow() {
+        DoublePipe source_4 = new CircArrayDoublePipe(4);
+        for (int i = 4; i <= 7; i++) {
+            source_4.append(i);
+        }
+        try {
+            pipe_123_6.appendAll(source_4);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("[1.0, 2.0, 3.0]:6", pipe_123_6.toString());
+            assertEquals("[4.0, 5.0, 6.0, 7.0]:4", source_4.toString());
+        }
+    }
+
+    @org.junit.Test
+    public void copy() {
+        DoublePipe copy = pipe_123_6.copy();
+        assertEquals(pipe_123_6, copy);
+        copy.append(4.0);
+        assertEquals("[1.0, 2.0, 3.0]:6", pipe_123_6.toString());
+        assertEquals("[1.0, 2.0, 3.0, 4.0]:6", copy.toString());
+    }
+
+    @org.junit.Test
+    public void equalsAndHashCode() {
+        DoublePipe pipe_6 = new CircArrayDoublePipe(6);
+        pipe_6.prepend(3.0);
+        pipe_6.prepend(2.0);
+        pipe_6.prepend(1.0);
+        assertEquals(pipe_123_6, pipe_6);
+        assertEquals(pipe_123_6.hashCode(), pipe_6.hashCode());
+        pipe_6.removeLast();
+        assertNotEquals(pipe_123_6, pipe_6);
+        assertNotEquals(pipe_123_6, new CircArrayDoublePipe(5));
+        assertNotEquals(pipe_123_6, "[1.0, 2.0, 3.0]:6");
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void iterator() {
+        PrimitiveIterator.OfDouble iterator = pipe_123_6.iterator();
+        assertEquals(1, iterator.nextDouble(), 0.0);
+        assertEquals(2, iterator.nextDouble(), 0.0);
+        assertEquals(3, iterator.nextDouble(), 0.0);
+        assertFalse(iterator.hasNext());
+        iterator.nextDouble();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionPrepend() {
+        DoublePipe pipe_0 = new CircArrayDoublePipe(0);
+        pipe_0.prepend(1.0);
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() {
+        DoublePipe pipe_1 = new CircArrayDoublePipe(1);
+        pipe_1.append(1.0);
+        pipe_1.append(2.0);
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() {
+        new CircArrayDoublePipe(1).removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveLast() {
+        new CircArrayDoublePipe(1).removeLast();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionFirst() {
+        new CircArrayDoublePipe(1).first();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionLast() {
+        new CircArrayDoublePipe(1).last();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppendAll() {
+        pipe_123_6.appendAll(null);
+    }
+}
@@ -0,0 +1,192 @@
+package boundedpipe;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.Assert.*;
+
+public class CircArrayLongPipeTest {
+
+    private LongPipe pipe_123_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_123_6 = new CircArrayLongPipe(6);
+        pipe_123_6.append(1L);
+        pipe_123_6.append(2L);
+        pipe_123_6.append(3L);
+    }
+
+    @org.junit.Test
+    public void prepend() {
+        pipe_123_6.prepend(9L);
+        assertEquals(4, pipe_123_6.length());
+        assertEquals(9, pipe_123_6.first());
+        assertEquals("[9, 1, 2, 3]:6", pipe_123_6.toString());
+    }
+
+    @org.junit.Test
+    public void append() {
+        pipe_123_6.append(9L);
+        assertEquals(4, pipe_123_6.length());
+        assertEquals(9, pipe_123_6.last());
+        assertEquals("[1, 2, 3, 9]:6", pipe_123_6.toString());
+    }
+
+    @org.junit.Test
+    public void removeFirstAndLast() {
+        assertEquals(1, pipe_123_6.removeFirst());
+        assertEquals(3, pipe_123_6.removeLast());
+        assertEquals("[2]:6", pipe_123_6.toString());
+    }
+
+    @org.junit.Test
+    public void wrapAround() {
+        LongPipe pipe_3 = new CircArrayLongPipe(3);
+        for (int i = 0; i < 10; i++) {
+            pipe_3.prepend(i);
+            pipe_3.append(i + 1L);
+            pipe_3.prepend(i + 2L);
+            assertTrue(pipe_3.isFull());
+            assertEquals(i + 2, pipe_3.removeFirst());
+            assertEquals(i + 1, pipe_3.removeLast());
+            assertEquals(i, pipe_3.removeLast());
+            assertTrue(pipe_3.isEmpty());
+        }
+    }
+
+    @org.junit.Test
+    public void capacityAndNewInstance() {
+        LongPipe newInstancePipe = pipe_123_6.newInstance();
+        assertEquals(6, pipe_123_6.capacity());
+        assertEquals(6, newInstancePipe.capacity());
+        assertEquals(0, newInstancePipe.length());
+    }
+
+    @org.junit.Test
+    public void clear() {
+        pipe_123_6.clear();
+        assertTrue(pipe_123_6.isEmpty());
+        assertEquals("[]:6", pipe_123_6.toString());
+    }
+
+    @org.junit.Test
+    public void appendAll() {
+        LongPipe appendAll_pipe = new CircArrayLongPipe(2);
+        appendAll_pipe.append(4L);
+        appendAll_pipe.append(5L);
+        pipe_123_6.appendAll(appendAll_pipe);
+        assertEquals("[1, 2, 3, 4, 5]:6", pipe_123_6.toString());
+        assertTrue(appendAll_pipe.isEmpty());
+    }
+
+    @org.junit.Test
+    public void appendAllWrapped() {
+        LongPipe source_4 = new CircArrayLongPipe(4);
+        for (int i = 0; i < 3; i++) {
+            source_4.append(0L);
+            source_4.removeFirst();
+        }
+        source_4.append(4L);
+        source_4.append(5L);
+        source_4.append(6L);
+        pipe_123_6.appendAll(source_4);
+        assertEquals("[1, 2, 3, 4, 5, 6]:6", pipe_123_6.toString());
+        assertTrue(source_4.isEmpty());
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void appendAllSelf() {
+        try {
+            pipe_123_6.appendAll(pipe_123_6);
+        } finally {
+            assertEquals("[1, 2, 3]:6", pipe_123_6.toString());
+        }
+    }
+
+    @org.junit.Test
+    public void appendAllOverflow() {
+        LongPipe source_4 = new CircArrayLongPipe(4);
+        for (int i = 4; i <= 7; i++) {
+            source_4.append(i);
+        }
+        try {
+            pipe_123_6.appendAll(source_4);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("[1, 2, 3]:6", pipe_123_6.toString());
+            assertEquals("[4, 5, 6, 7]:4", source_4.toString());
+        }
+    }
+
+    @org.junit.Test
+    public void copy() {
+        LongPipe copy = pipe_123_6.copy();
+        assertEquals(pipe_123_6, copy);
+        copy.append(4L);
+        assertEquals("[1, 2, 3]:6", pipe_123_6.toString());
+        assertEquals("[1, 2, 3, 4]:6", copy.toString());
+    }
+
+    @org.junit.Test
+    public void equalsAndHashCode() {
+        LongPipe pipe_6 = new CircArrayLongPipe(6);
+        pipe_6.prepend(3L);
+        pipe_6.prepend(2L);
+        pipe_6.prepend(1L);
+        assertEquals(pipe_123_6, pipe_6);
+        assertEquals(pipe_123_6.hashCode(), pipe_6.hashCode());
+        pipe_6.removeLast();
+        assertNotEquals(pipe_123_6, pipe_6);
+        assertNotEquals(pipe_123_6, new CircArrayLongPipe(5));
+        assertNotEquals(pipe_123_6, "[1, 2, 3]:6");
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void iterator() {
+        PrimitiveIterator.OfLong iterator = pipe_123_6.iterator();
+        assertEquals(1, iterator.nextLong());
+        assertEquals(2, iterator.nextLong());
+        assertEquals(3, iterator.nextLong());
+        assertFalse(iterator.hasNext());
+        iterator.nextLong();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionPrepend() {
+        LongPipe pipe_0 = new CircArrayLongPipe(0);
+        pipe_0.prepend(1L);
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() {
+        LongPipe pipe_1 = new CircArrayLongPipe(1);
+        pipe_1.append(1L);
+        pipe_1.append(2L);
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() {
+        new CircArrayLongPipe(1).removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveLast() {
+        new CircArrayLongPipe(1).removeLast();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionFirst() {
+        new CircArrayLongPipe(1).first();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionLast() {
+        new CircArrayLongPipe(1).last();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppendAll() {
+        pipe_123_6.appendAll(null);
+    }
+}
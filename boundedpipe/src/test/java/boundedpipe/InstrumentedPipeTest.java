@@ -0,0 +1,317 @@
+package boundedpipe;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.*;
+
+public class InstrumentedPipeTest {
+
+    private InstrumentedPipe<String> pipe_abc_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_abc_6 = new InstrumentedPipe<>(new CircArrayPipe<>(6));
+        pipe_abc_6.append("A");
+        pipe_abc_6.append("B");
+        pipe_abc_6.append("C");
+    }
+
+    @org.junit.Test
+    public void delegates() {
+        assertEquals("[A, B, C]:6", pipe_abc_6.toString());
+        assertEquals(3, pipe_abc_6.length());
+        assertEquals(6, pipe_abc_6.capacity());
+        assertEquals("A", pipe_abc_6.first());
+        assertEquals("C", pipe_abc_6.last());
+        pipe_abc_6.prepend("D");
+        assertEquals("D", pipe_abc_6.removeFirst());
+        assertEquals("C", pipe_abc_6.removeLast());
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        assertEquals("B", iterator.next());
+        StringBuilder sb = new StringBuilder();
+        pipe_abc_6.forEach(sb::append);
+        assertEquals("AB", sb.toString());
+        assertEquals("[A, B]:6", pipe_abc_6.copy().toString());
+        assertEquals("[]:6", pipe_abc_6.newInstance().toString());
+        assertTrue(pipe_abc_6.copy() instanceof InstrumentedPipe);
+    }
+
+    @org.junit.Test
+    public void counters() {
+        pipe_abc_6.prepend("D");
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeLast();
+        assertNotNull(pipe_abc_6.pollFirst());
+        assertNotNull(pipe_abc_6.pollLast());
+        assertNull(pipe_abc_6.pollFirst());
+        PipeMetrics metrics = pipe_abc_6.metrics();
+        assertEquals(3, metrics.getAppends());
+        assertEquals(1, metrics.getPrepends());
+        assertEquals(4, metrics.getRemoves());
+        assertEquals(0, metrics.getRejections());
+        assertEquals(0, metrics.getLength());
+        assertEquals(6, metrics.getCapacity());
+    }
+
+    @org.junit.Test
+    public void rejections() {
+        pipe_abc_6.appendAll(new String[]{"D", "E", "F"}, 0, 3);
+        try {
+            pipe_abc_6.append("G");
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(1, pipe_abc_6.metrics().getRejections());
+        }
+        assertFalse(pipe_abc_6.tryPrepend("G"));
+        assertFalse(pipe_abc_6.tryAppend("G"));
+        assertEquals(3, pipe_abc_6.metrics().getRejections());
+        assertEquals(6, pipe_abc_6.metrics().getAppends());
+        assertEquals("[A, B, C, D, E, F]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void highWaterMark() {
+        PipeMetrics metrics = pipe_abc_6.metrics();
+        assertEquals(3, metrics.getHighWaterMark());
+        pipe_abc_6.append("D");
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.prepend("E");
+        assertEquals(4, metrics.getHighWaterMark());
+        assertEquals(4.0 / 6, metrics.getHighWaterMarkRatio(), 1e-9);
+        metrics.reset();
+        assertEquals(3, metrics.getHighWaterMark());
+        assertEquals(0, metrics.getAppends());
+    }
+
+    @org.junit.Test
+    public void wrapsNonEmptyPipe() {
+        Pipe<String> pipe = new LinkedPipe<>(4);
+        pipe.append("A");
+        pipe.append("B");
+        InstrumentedPipe<String> instrumented = new InstrumentedPipe<>(pipe);
+        assertEquals(2, instrumented.metrics().getHighWaterMark());
+        instrumented.removeLast();
+        instrumented.removeLast();
+        assertEquals(2, instrumented.metrics().getSojournCount());
+    }
+
+    @org.junit.Test
+    public void sojournTimes() throws InterruptedException {
+        InstrumentedPipe<String> pipe = new InstrumentedPipe<>(new CircArrayPipe<>(4));
+        pipe.append("A");
+        Thread.sleep(20);
+        pipe.prepend("B");
+        pipe.removeFirst();
+        pipe.removeFirst();
+        PipeMetrics metrics = pipe.metrics();
+        assertEquals(2, metrics.getSojournCount());
+        assertTrue(metrics.getMaxSojournNanos() >= 20_000_000);
+        assertTrue(metrics.getMedianSojournNanos() < 20_000_000);
+        assertTrue(metrics.getP99SojournNanos() >= metrics.getMaxSojournNanos());
+        assertTrue(metrics.getMeanSojournNanos() >= 10_000_000);
+        long total = 0;
+        for (long count : metrics.getSojournHistogram()) {
+            total += count;
+        }
+        assertEquals(2, total);
+        assertEquals(64, metrics.getSojournHistogram().length);
+    }
+
+    @org.junit.Test
+    public void overwriteModeEvictions() throws InterruptedException {
+        InstrumentedPipe<String> pipe = new InstrumentedPipe<>(new CircArrayPipe<>(2, true));
+        pipe.append("A");
+        Thread.sleep(50);
+        pipe.append("B");
+        pipe.append("C");
+        assertEquals("[B, C]:2", pipe.toString());
+        assertEquals("B", pipe.removeFirst());
+        assertTrue(pipe.metrics().getMaxSojournNanos() < 50_000_000);
+        pipe.prepend("D");
+        Thread.sleep(50);
+        pipe.prepend("E");
+        assertEquals("[E, D]:2", pipe.toString());
+        assertEquals("D", pipe.removeLast());
+        assertTrue(pipe.metrics().getMaxSojournNanos() >= 50_000_000);
+        assertEquals("E", pipe.removeFirst());
+        assertEquals(3, pipe.metrics().getSojournCount());
+        assertEquals(0, pipe.length());
+    }
+
+    @org.junit.Test
+    public void bulkOperations() throws InterruptedException {
+        pipe_abc_6.prependAll(new String[]{"D", "E"}, 0, 2);
+        Thread.sleep(50);
+        pipe_abc_6.appendAll(new String[]{"F"}, 0, 1);
+        String[] a = new String[6];
+        assertEquals(2, pipe_abc_6.removeFirst(a, 2));
+        assertEquals(1, pipe_abc_6.removeLast(a, 1));
+        assertEquals("F", a[0]);
+        PipeMetrics metrics = pipe_abc_6.metrics();
+        assertEquals(3, metrics.getSojournCount());
+        assertTrue(metrics.getMaxSojournNanos() >= 50_000_000);
+        Pipe<String> q = new LinkedPipe<>(2);
+        assertEquals(2, pipe_abc_6.drainTo(q, 3));
+        assertEquals("[A, B]:2", q.toString());
+        assertEquals("[C]:6", pipe_abc_6.toString());
+        assertEquals(4, metrics.getAppends());
+        assertEquals(2, metrics.getPrepends());
+        assertEquals(5, metrics.getRemoves());
+        assertEquals(5, metrics.getSojournCount());
+        assertEquals(6, metrics.getHighWaterMark());
+    }
+
+    @org.junit.Test
+    public void bulkRejection() {
+        try {
+            pipe_abc_6.appendAll(new String[]{"D", "E", "F", "G"}, 0, 4);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(4, pipe_abc_6.metrics().getRejections());
+        }
+        try {
+            pipe_abc_6.appendAll(pipe_abc_6);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("[A, B, C]:6", pipe_abc_6.toString());
+        }
+        try {
+            pipe_abc_6.drainTo(pipe_abc_6, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("[A, B, C]:6", pipe_abc_6.toString());
+        }
+        assertEquals(3, pipe_abc_6.metrics().getAppends());
+    }
+
+    @org.junit.Test
+    public void bulkOverwriteModeEvictions() throws InterruptedException {
+        InstrumentedPipe<String> pipe = new InstrumentedPipe<>(new CircArrayPipe<>(3, true));
+        pipe.appendAll(new String[]{"A", "B"}, 0, 2);
+        Thread.sleep(50);
+        pipe.appendAll(new String[]{"C", "D", "E", "F"}, 0, 4);
+        assertEquals("[D, E, F]:3", pipe.toString());
+        pipe.prependAll(new String[]{"G"}, 0, 1);
+        assertEquals("[G, D, E]:3", pipe.toString());
+        assertEquals(3, pipe.removeFirst(new String[3], 3));
+        assertEquals(3, pipe.metrics().getSojournCount());
+        assertTrue(pipe.metrics().getMaxSojournNanos() < 50_000_000);
+        assertEquals(6, pipe.metrics().getAppends());
+        assertEquals(1, pipe.metrics().getPrepends());
+    }
+
+    @org.junit.Test
+    public void appendAllPipe() {
+        Pipe<String> x = new LinkedPipe<>(3);
+        x.append("D");
+        x.append("E");
+        pipe_abc_6.appendAll(x);
+        assertEquals("[A, B, C, D, E]:6", pipe_abc_6.toString());
+        assertTrue(x.isEmpty());
+        assertEquals(5, pipe_abc_6.metrics().getAppends());
+        assertEquals(5, pipe_abc_6.removeFirst(new String[5], 5));
+        assertEquals(5, pipe_abc_6.metrics().getSojournCount());
+    }
+
+    @org.junit.Test
+    public void sojournPercentiles() {
+        assertEquals(0, pipe_abc_6.metrics().sojournPercentileNanos(50));
+        pipe_abc_6.removeFirst();
+        assertTrue(pipe_abc_6.metrics().sojournPercentileNanos(0) > 0);
+        assertEquals(pipe_abc_6.metrics().sojournPercentileNanos(100), pipe_abc_6.metrics().getMedianSojournNanos());
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void sojournPercentileOutOfRange() {
+        pipe_abc_6.metrics().sojournPercentileNanos(101);
+    }
+
+    @org.junit.Test
+    public void clear() {
+        pipe_abc_6.clear();
+        assertTrue(pipe_abc_6.isEmpty());
+        pipe_abc_6.append("D");
+        pipe_abc_6.removeFirst();
+        assertEquals(1, pipe_abc_6.metrics().getSojournCount());
+    }
+
+    @org.junit.Test
+    public void withoutSojournTracking() {
+        InstrumentedPipe<String> pipe = new InstrumentedPipe<>(new LinkedPipe<>(2), false);
+        pipe.append("A");
+        pipe.prepend("B");
+        assertFalse(pipe.tryAppend("C"));
+        pipe.removeFirst();
+        assertEquals(1, pipe.metrics().getAppends());
+        assertEquals(1, pipe.metrics().getPrepends());
+        assertEquals(1, pipe.metrics().getRemoves());
+        assertEquals(1, pipe.metrics().getRejections());
+        assertEquals(2, pipe.metrics().getHighWaterMark());
+        assertEquals(0, pipe.metrics().getSojournCount());
+        assertEquals("[A]:2", pipe.copy().toString());
+    }
+
+    @org.junit.Test
+    public void concurrentCounters() throws InterruptedException {
+        InstrumentedPipe<Integer> pipe = new InstrumentedPipe<>(new MpmcArrayPipe<>(64), false);
+        Thread[] producers = new Thread[2];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    while (!pipe.tryAppend(i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers[t].start();
+        }
+        int removed = 0;
+        while (removed < 20_000) {
+            if (pipe.pollFirst() == null) {
+                Thread.yield();
+            } else {
+                removed++;
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(20_000, pipe.metrics().getAppends());
+        assertEquals(20_000, pipe.metrics().getRemoves());
+        assertTrue(pipe.metrics().getHighWaterMark() <= 64);
+    }
+
+    @org.junit.Test
+    public void registersMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = pipe_abc_6.metrics().register("test-pipe");
+        try {
+            assertEquals("Pipe", name.getKeyProperty("type"));
+            assertEquals(3L, server.getAttribute(name, "Appends"));
+            assertEquals(6, server.getAttribute(name, "Capacity"));
+            pipe_abc_6.removeFirst();
+            assertEquals(1L, server.getAttribute(name, "SojournCount"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "Removes"));
+            try {
+                new InstrumentedPipe<>(new CircArrayPipe<String>(1)).metrics().register("test-pipe");
+                fail();
+            } catch (IllegalArgumentException e) {
+                // name already taken
+            }
+        } finally {
+            pipe_abc_6.metrics().unregister();
+        }
+        assertFalse(server.isRegistered(name));
+        pipe_abc_6.metrics().unregister();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void nullPipe() {
+        new InstrumentedPipe<String>(null);
+    }
+}
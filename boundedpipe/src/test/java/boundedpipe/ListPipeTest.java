@@ -0,0 +1,828 @@
+package boundedpipe;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class ListPipeTest {
+
+    private Pipe<String> pipe_abc_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_abc_6 = new ListPipe<>(6);
+        pipe_abc_6.append("A");
+        pipe_abc_6.append("B");
+        pipe_abc_6.append("C");
+    }
+
+    @org.junit.Test
+    public void prepend() {
+        assertEquals(3, pipe_abc_6.length());
+        pipe_abc_6.prepend("D");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.first());
+    }
+
+    @org.junit.Test
+    public void append() {
+        assertEquals(3, pipe_abc_6.length());
+        pipe_abc_6.append("D");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void removeFirst() {
+        assertEquals(3, pipe_abc_6.length());
+        String first = pipe_abc_6.removeFirst();
+        assertEquals(2, pipe_abc_6.length());
+        assertEquals("A", first);
+        assertEquals("B", pipe_abc_6.first());
+    }
+
+    @org.junit.Test
+    public void removeLast() {
+        assertEquals(3, pipe_abc_6.length());
+        String last = pipe_abc_6.removeLast();
+        assertEquals(2, pipe_abc_6.length());
+        assertEquals("C", last);
+        assertEquals("B", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void length() {
+        assertEquals(3, pipe_abc_6.length());
+
+        Pipe<String> length_pipe = new ListPipe<>(5);
+        assertEquals(0, length_pipe.length());
+
+        length_pipe.prepend("A");
+        assertEquals(1, length_pipe.length());
+        length_pipe.prepend("B");
+        assertEquals(2, length_pipe.length());
+        length_pipe.append("C");
+        assertEquals(3, length_pipe.length());
+        length_pipe.prepend("D");
+        assertEquals(4, length_pipe.length());
+        length_pipe.append("E");
+        assertEquals(5, length_pipe.length());
+        length_pipe.removeFirst();
+        assertEquals(4, length_pipe.length());
+        length_pipe.removeFirst();
+        assertEquals(3, length_pipe.length());
+        length_pipe.removeLast();
+        assertEquals(2, length_pipe.length());
+        length_pipe.append("a");
+        assertEquals(3, length_pipe.length());
+        length_pipe.removeFirst();
+        assertEquals(2, length_pipe.length());
+        length_pipe.prepend("b");
+        assertEquals(3, length_pipe.length());
+    }
+
+    @org.junit.Test
+    public void capacity() {
+        Pipe<String> append_pipe = new ListPipe<>(2);
+        assertEquals(6, pipe_abc_6.capacity());
+        assertEquals(2, append_pipe.capacity());
+    }
+
+    @org.junit.Test
+    public void newInstance() {
+        Pipe<String> newInstancePipe = pipe_abc_6.newInstance();
+        assertEquals(6, newInstancePipe.capacity());
+        assertEquals(0, newInstancePipe.length());
+    }
+
+    @org.junit.Test
+    public void clear() {
+        assertEquals(3, pipe_abc_6.length());
+        pipe_abc_6.clear();
+        assertEquals(0, pipe_abc_6.length());
+        assertEquals(6, pipe_abc_6.capacity());
+        assertNull(pipe_abc_6.first());
+        assertEquals("[]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void iterator() {
+        String result = "";
+        for (String s : pipe_abc_6) {
+            result += s;
+        }
+        assertEquals("ABC", result);
+    }
+
+    @org.junit.Test
+    public void appendAll() {
+        Pipe<String> appendAll_pipe = new ListPipe<>(2);
+        appendAll_pipe.append("D");
+        appendAll_pipe.append("E");
+        assertEquals(2, appendAll_pipe.length());
+        assertEquals("D", appendAll_pipe.first());
+        assertEquals("E", appendAll_pipe.last());
+
+        assertEquals(3, pipe_abc_6.length());
+        assertEquals(6, pipe_abc_6.capacity());
+        pipe_abc_6.appendAll(appendAll_pipe);
+        assertEquals(5, pipe_abc_6.length());
+        assertEquals("E", pipe_abc_6.last());
+        assertEquals(0, appendAll_pipe.length());
+    }
+
+    @org.junit.Test
+    public void appendAllEmpty() {
+        Pipe<String> appendAllEmpty_pipe = new ListPipe<>(2);
+        assertEquals(0, appendAllEmpty_pipe.length());
+        pipe_abc_6.appendAll(appendAllEmpty_pipe);
+        assertEquals(3, pipe_abc_6.length());
+        assertEquals("C", pipe_abc_6.last());
+        assertEquals(0, appendAllEmpty_pipe.length());
+    }
+
+    @org.junit.Test
+    public void copy() {
+        Pipe<String> copy = pipe_abc_6.copy();
+        assertEquals(copy.length(), pipe_abc_6.length());
+        assertEquals(copy.capacity(), pipe_abc_6.capacity());
+        assertEquals(copy.first(), pipe_abc_6.first());
+        assertEquals(copy.last(), pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void testABCEqualsNUll() {
+        Pipe<String> s = null;
+        assertFalse(pipe_abc_6.equals(s));
+    }
+
+    @org.junit.Test
+    public void testABCEqualsSelf() {
+        assertTrue(pipe_abc_6.equals(pipe_abc_6));
+    }
+
+    @org.junit.Test
+    public void testABCEqualsNonPipe() {
+        assertFalse(pipe_abc_6.equals("[A, B, C]:6"));
+    }
+
+    @org.junit.Test
+    public void testABC6EqualsDifferentABC6() {
+        Pipe<String> diff_pipe_abc_6 = new ListPipe<>(6);
+        diff_pipe_abc_6.append("A");
+        diff_pipe_abc_6.append("B");
+        diff_pipe_abc_6.append("C");
+        assertTrue(pipe_abc_6.equals(diff_pipe_abc_6));
+    }
+
+    @org.junit.Test
+    public void testABC6EqualsABC10() {
+        Pipe<String> pipe_abc_10 = new ListPipe<>(10);
+        pipe_abc_10.append("A");
+        pipe_abc_10.append("B");
+        pipe_abc_10.append("C");
+        assertFalse(pipe_abc_6.equals(pipe_abc_10));
+    }
+
+    @org.junit.Test
+    public void testABC6EqualsAB6() {
+        Pipe<String> pipe_ab_6 = new ListPipe<>(6);
+        pipe_ab_6.append("A");
+        pipe_ab_6.append("B");
+        assertFalse(pipe_abc_6.equals(pipe_ab_6));
+    }
+
+    @org.junit.Test
+    public void testEmpty3EqualsDifferentEmpty3() {
+        Pipe<String> empty_3 = new ListPipe<>(3);
+        Pipe<String> empty_3_dup = new ListPipe<>(3);
+        assertTrue(empty_3.equals(empty_3_dup));
+    }
+
+    @org.junit.Test
+    public void testEmpty3EqualsDifferentEmpty5() {
+        Pipe<String> empty_5 = new ListPipe<>(5);
+        Pipe<String> empty_3 = new ListPipe<>(3);
+        assertFalse(empty_3.equals(empty_5));
+    }
+
+    @org.junit.Test
+    public void testABC6EqualsDEF6() {
+        Pipe<String> pipe_def_6 = new ListPipe<>(6);
+        pipe_def_6.append("D");
+        pipe_def_6.append("E");
+        pipe_def_6.append("F");
+        assertEquals(3, pipe_def_6.length());
+        assertEquals("D", pipe_def_6.first());
+        assertEquals("F", pipe_def_6.last());
+        assertFalse(pipe_abc_6.equals(pipe_def_6));
+    }
+
+    @org.junit.Test
+    public void testHashCodeABC6AndAB6() {
+        Pipe<String> pipe_ab_6 = new ListPipe<>(6);
+        pipe_ab_6.append("A");
+        pipe_ab_6.append("B");
+        assertNotEquals(pipe_abc_6.hashCode(), pipe_ab_6.hashCode());
+    }
+
+    @org.junit.Test
+    public void testHashCodeABC6EqualsDifferentABC6() {
+        Pipe<String> diff_pipe_abc_6 = new ListPipe<>(6);
+        diff_pipe_abc_6.append("A");
+        diff_pipe_abc_6.append("B");
+        diff_pipe_abc_6.append("C");
+        assertEquals(pipe_abc_6.hashCode(), diff_pipe_abc_6.hashCode());
+    }
+
+    @org.junit.Test
+    public void testHashCodeABC6EqualsABC10() {
+        Pipe<String> pipe_abc_10 = new ListPipe<>(10);
+        pipe_abc_10.append("A");
+        pipe_abc_10.append("B");
+        pipe_abc_10.append("C");
+        assertNotEquals(pipe_abc_6.hashCode(), pipe_abc_10.hashCode());
+    }
+
+    @org.junit.Test
+    public void isEmpty() {
+        assertFalse(pipe_abc_6.isEmpty());
+        Pipe<String> pipe_1 = new ListPipe<>(1);
+        assertTrue(pipe_1.isEmpty());
+    }
+
+    @org.junit.Test
+    public void isFull() {
+        assertFalse(pipe_abc_6.isFull());
+        Pipe<String> pipe_a_1 = new ListPipe<>(1);
+        pipe_a_1.append("A");
+        assertTrue(pipe_a_1.isFull());
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionPrepend() {
+        Pipe<String> pipe_a_1 = new ListPipe<>(1);
+        pipe_a_1.prepend("A");
+        pipe_a_1.prepend("B");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() {
+        Pipe<String> pipe_a_1 = new ListPipe<>(1);
+        pipe_a_1.prepend("A");
+        pipe_a_1.append("A");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() {
+        Pipe<String> pipe_1 = new ListPipe<>(1);
+        pipe_1.removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveLast() {
+        Pipe<String> pipe_1 = new ListPipe<>(1);
+        pipe_1.removeLast();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionPrepend() {
+        Pipe<String> pipe_1 = new ListPipe<>(1);
+        pipe_1.prepend(null);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppend() {
+        Pipe<String> pipe_1 = new ListPipe<>(1);
+        pipe_1.append(null);
+    }
+
+    @org.junit.Test
+    public void first() {
+        assertEquals("A", pipe_abc_6.first());
+    }
+
+    @org.junit.Test
+    public void last() {
+        assertEquals("C", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void testNullFirst() {
+        Pipe<String> pipe_0 = new ListPipe<>(0);
+        assertEquals(null, pipe_0.first());
+    }
+
+    @org.junit.Test
+    public void testNullLast() {
+        Pipe<String> pipe_0 = new ListPipe<>(0);
+        assertEquals(null, pipe_0.last());
+    }
+
+    @org.junit.Test
+    public void toStringABC() {
+        assertEquals("[A, B, C]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void toStringEmpty() {
+        Pipe<String> pipe_5 = new ListPipe<>(5);
+        assertEquals("[]:5", pipe_5.toString());
+    }
+
+    @org.junit.Test
+    public void removeFirstEmpty() {
+        Pipe<String> pipe_1 = new ListPipe<>(1);
+        pipe_1.append("A");
+        pipe_1.removeFirst();
+        assertEquals("[]:1", pipe_1.toString());
+    }
+
+    @org.junit.Test
+    public void removeLastEmpty() {
+        Pipe<String> pipe_1 = new ListPipe<>(1);
+        pipe_1.prepend("A");
+        pipe_1.removeLast();
+        assertEquals("[]:1", pipe_1.toString());
+    }
+
+    @org.junit.Test
+    public void anotherLengthTest() {
+        Pipe<String> pipe_1 = new ListPipe<>(1);
+        assertEquals(0, pipe_1.length());
+    }
+
+    @org.junit.Test
+    public void testABCD6EqualsABCD6() {
+        Pipe<String> pipe_def_6 = pipe_abc_6.newInstance();
+        pipe_def_6.append("A");
+        pipe_def_6.append("B");
+        pipe_def_6.append("C");
+        pipe_def_6.append("D");
+        assertEquals(6, pipe_def_6.capacity());
+        assertEquals(4, pipe_def_6.length());
+        assertEquals("A", pipe_def_6.first());
+        assertEquals("D", pipe_def_6.last());
+        pipe_abc_6.append("D");
+        assertTrue(pipe_abc_6.equals(pipe_def_6));
+    }
+
+    @org.junit.Test
+    public void testHashCodeABCD6AndABCD6() {
+        Pipe<String> pipe_ABCD_6 = new ListPipe<>(6);
+        pipe_ABCD_6.append("A");
+        pipe_ABCD_6.append("B");
+        pipe_ABCD_6.append("C");
+        pipe_ABCD_6.append("D");
+        pipe_abc_6.append("D");
+        assertEquals(pipe_abc_6.hashCode(), pipe_ABCD_6.hashCode());
+    }
+
+    @org.junit.Test
+    public void testABCD6EqualsABCD4() {
+        Pipe<String> pipe_ABCD_4 = new ListPipe<>(4);
+        pipe_ABCD_4.append("A");
+        pipe_ABCD_4.append("B");
+        pipe_ABCD_4.append("C");
+        pipe_ABCD_4.append("D");
+
+        pipe_abc_6.append("D");
+        assertEquals(4, pipe_ABCD_4.length());
+        assertEquals("A", pipe_ABCD_4.first());
+        assertEquals("D", pipe_ABCD_4.last());
+        assertEquals(4, pipe_ABCD_4.capacity());
+
+        assertFalse(pipe_abc_6.equals(pipe_ABCD_4));
+    }
+
+    @org.junit.Test
+    public void testHashCodeABCD6AndABCD4() {
+        Pipe<String> pipe_ABCD_4 = new ListPipe<>(4);
+        pipe_ABCD_4.append("A");
+        pipe_ABCD_4.append("B");
+        pipe_ABCD_4.append("C");
+        pipe_ABCD_4.append("D");
+        pipe_abc_6.append("D");
+        assertNotEquals(pipe_abc_6.hashCode(), pipe_ABCD_4.hashCode());
+    }
+
+    @org.junit.Test
+    public void testABCAndDiffABC() {
+        Pipe<String> pipe_ABC_6 = new ListPipe<>(6);
+        pipe_ABC_6.append("C");
+        pipe_ABC_6.prepend("B");
+        pipe_ABC_6.prepend("A");
+        assertEquals(pipe_abc_6, pipe_ABC_6);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void appendAllThatIsNull() {
+        Pipe<String> append_pipe = null;
+        assertEquals(3, pipe_abc_6.length());
+        assertEquals(6, pipe_abc_6.capacity());
+        pipe_abc_6.appendAll(append_pipe);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void appendAllThatFirstIsNull() {
+        Pipe<String> appendAllError_pipe = new ListPipe<>(3);
+        appendAllError_pipe.append(null);
+        assertEquals(3, pipe_abc_6.length());
+        assertEquals(6, pipe_abc_6.capacity());
+        pipe_abc_6.appendAll(appendAllError_pipe);
+    }
+
+    @org.junit.Test
+    public void prependAllArray() {
+        String[] src = {"W", "X", "Y", "Z"};
+        pipe_abc_6.prependAll(src, 1, 2);
+        assertEquals("[X, Y, A, B, C]:6", pipe_abc_6.toString());
+        assertEquals("X", pipe_abc_6.first());
+        assertEquals("C", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void appendAllArray() {
+        String[] src = {"W", "X", "Y", "Z"};
+        pipe_abc_6.appendAll(src, 1, 3);
+        assertEquals("[A, B, C, X, Y, Z]:6", pipe_abc_6.toString());
+        assertTrue(pipe_abc_6.isFull());
+        assertEquals("Z", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void appendAllArrayEmpty() {
+        Pipe<String> pipe_4 = new ListPipe<>(4);
+        pipe_4.appendAll(new String[]{"A", "B"}, 0, 2);
+        pipe_4.prependAll(new String[]{"C", "D"}, 0, 2);
+        assertEquals("[C, D, A, B]:4", pipe_4.toString());
+        pipe_4.appendAll(new String[0], 0, 0);
+        assertEquals(4, pipe_4.length());
+    }
+
+    @org.junit.Test
+    public void removeFirstArray() {
+        String[] dst = {"W", "X", "Y", "Z"};
+        assertEquals(2, pipe_abc_6.removeFirst(dst, 2));
+        assertArrayEquals(new String[]{"A", "B", "Y", "Z"}, dst);
+        assertEquals("[C]:6", pipe_abc_6.toString());
+        assertEquals(1, pipe_abc_6.removeFirst(dst, 4));
+        assertEquals("C", dst[0]);
+        assertTrue(pipe_abc_6.isEmpty());
+        assertEquals(0, pipe_abc_6.removeFirst(dst, 4));
+        pipe_abc_6.append("D");
+        assertEquals("[D]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void removeLastArray() {
+        String[] dst = {"W", "X", "Y", "Z"};
+        assertEquals(2, pipe_abc_6.removeLast(dst, 2));
+        assertArrayEquals(new String[]{"C", "B", "Y", "Z"}, dst);
+        assertEquals("[A]:6", pipe_abc_6.toString());
+        assertEquals(1, pipe_abc_6.removeLast(dst, 4));
+        assertEquals("A", dst[0]);
+        assertTrue(pipe_abc_6.isEmpty());
+        pipe_abc_6.prepend("D");
+        assertEquals("[D]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void bulkWrapAround() {
+        Pipe<String> pipe_5 = new ListPipe<>(5);
+        String[] dst = new String[5];
+        pipe_5.appendAll(new String[]{"A", "B", "C", "D"}, 0, 4);
+        assertEquals(3, pipe_5.removeFirst(dst, 3));
+        pipe_5.appendAll(new String[]{"E", "F", "G"}, 0, 3);
+        pipe_5.prependAll(new String[]{"H"}, 0, 1);
+        assertEquals("[H, D, E, F, G]:5", pipe_5.toString());
+        assertEquals(4, pipe_5.removeLast(dst, 4));
+        assertArrayEquals(new String[]{"G", "F", "E", "D", null}, dst);
+        assertEquals("[H]:5", pipe_5.toString());
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppendAllArray() {
+        pipe_abc_6.appendAll(new String[]{"W", "X", "Y", "Z"}, 0, 4);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppendAllArrayNull() {
+        pipe_abc_6.appendAll(new String[]{"W", null}, 0, 2);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionPrependAllArrayRange() {
+        pipe_abc_6.prependAll(new String[]{"W", "X"}, 1, 2);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionRemoveFirstArray() {
+        pipe_abc_6.removeFirst(new String[2], 3);
+    }
+
+    @org.junit.Test
+    public void tryPrependAndTryAppend() {
+        assertTrue(pipe_abc_6.tryPrepend("D"));
+        assertTrue(pipe_abc_6.tryAppend("E"));
+        assertTrue(pipe_abc_6.tryAppend("F"));
+        assertFalse(pipe_abc_6.tryAppend("G"));
+        assertFalse(pipe_abc_6.tryPrepend("G"));
+        assertEquals("[D, A, B, C, E, F]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void pollFirstAndPollLast() {
+        assertEquals("A", pipe_abc_6.pollFirst());
+        assertEquals("C", pipe_abc_6.pollLast());
+        assertEquals("B", pipe_abc_6.pollLast());
+        assertNull(pipe_abc_6.pollFirst());
+        assertNull(pipe_abc_6.pollLast());
+        assertEquals("[]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionTryAppend() {
+        pipe_abc_6.tryAppend(null);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionTryPrepend() {
+        pipe_abc_6.tryPrepend(null);
+    }
+
+    @org.junit.Test
+    public void appendAllLargePipe() {
+        Pipe<Integer> source = new ListPipe<>(100_000);
+        Pipe<Integer> target = new ListPipe<>(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            source.append(i);
+        }
+        target.appendAll(source);
+        assertEquals(100_000, target.length());
+        assertEquals(0, target.first().intValue());
+        assertEquals(99_999, target.last().intValue());
+        assertTrue(source.isEmpty());
+    }
+
+    @org.junit.Test
+    public void appendAllOtherImplementation() {
+        Pipe<String> source = new LinkedPipe<>(3);
+        source.append("D");
+        source.append("E");
+        pipe_abc_6.appendAll(source);
+        assertEquals("[A, B, C, D, E]:6", pipe_abc_6.toString());
+        assertTrue(source.isEmpty());
+        source.append("F");
+        assertEquals("[F]:3", source.toString());
+    }
+
+    @org.junit.Test
+    public void appendAllIntoEmptyPipe() {
+        Pipe<String> target = new ListPipe<>(4);
+        target.appendAll(pipe_abc_6);
+        assertEquals("[A, B, C]:4", target.toString());
+        assertTrue(pipe_abc_6.isEmpty());
+        pipe_abc_6.append("D");
+        target.append("E");
+        assertEquals("[D]:6", pipe_abc_6.toString());
+        assertEquals("[A, B, C, E]:4", target.toString());
+    }
+
+    @org.junit.Test
+    public void testIllegalStateExceptionAppendAllPipe() {
+        Pipe<String> source = new ListPipe<>(4);
+        source.append("D");
+        source.append("E");
+        source.append("F");
+        source.append("G");
+        try {
+            pipe_abc_6.appendAll(source);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("[A, B, C]:6", pipe_abc_6.toString());
+            assertEquals("[D, E, F, G]:4", source.toString());
+        }
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppendAllSelf() {
+        pipe_abc_6.appendAll(pipe_abc_6);
+    }
+
+    @org.junit.Test
+    public void copyIsIndependent() {
+        Pipe<String> copy = pipe_abc_6.copy();
+        assertNotSame(pipe_abc_6, copy);
+        assertEquals(pipe_abc_6, copy);
+        copy.append("D");
+        pipe_abc_6.removeFirst();
+        assertEquals("[B, C]:6", pipe_abc_6.toString());
+        assertEquals("[A, B, C, D]:6", copy.toString());
+    }
+
+    @org.junit.Test
+    public void copyEmpty() {
+        Pipe<String> copy = new ListPipe<String>(2).copy();
+        assertTrue(copy.isEmpty());
+        copy.append("A");
+        assertEquals("[A]:2", copy.toString());
+    }
+
+    @org.junit.Test
+    public void descendingIterator() {
+        pipe_abc_6.prepend("D");
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        assertEquals("C", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("A", iterator.next());
+        assertEquals("D", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void descendingIteratorExhausted() {
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.descendingIterator().next();
+    }
+
+    @org.junit.Test(expected = ConcurrentModificationException.class)
+    public void iteratorFailFast() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        iterator.next();
+        pipe_abc_6.append("D");
+        iterator.next();
+    }
+
+    @org.junit.Test(expected = ConcurrentModificationException.class)
+    public void descendingIteratorFailFast() {
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        iterator.next();
+        pipe_abc_6.removeFirst();
+        iterator.next();
+    }
+
+    @org.junit.Test
+    public void stream() {
+        pipe_abc_6.prepend("D");
+        assertEquals("DABC", pipe_abc_6.stream().collect(Collectors.joining()));
+        assertEquals(2, pipe_abc_6.stream().filter(e -> !e.equals("B") && !e.equals("C")).count());
+        assertEquals(4, pipe_abc_6.spliterator().getExactSizeIfKnown());
+        assertTrue(pipe_abc_6.spliterator().hasCharacteristics(
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL));
+    }
+
+    @org.junit.Test
+    public void parallelStream() {
+        Pipe<Integer> pipe_100000 = new ListPipe<>(100_000);
+        for (int i = 0; i < 50_000; i++) {
+            pipe_100000.append(i);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            pipe_100000.removeFirst();
+            pipe_100000.append(50_000 + i);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            pipe_100000.prepend(49_999 - i);
+        }
+        assertEquals(4_999_950_000L, pipe_100000.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(IntStream.range(0, 100_000).boxed().collect(Collectors.toList()),
+                pipe_100000.parallelStream().collect(Collectors.toList()));
+    }
+
+    @org.junit.Test
+    public void spliteratorSplitsEvenly() {
+        Pipe<String> pipe_3000 = new ListPipe<>(3000);
+        for (int i = 0; i < 3000; i++) {
+            pipe_3000.append("E" + i);
+        }
+        pipe_3000.removeFirst();
+        pipe_3000.append("F");
+        Spliterator<String> suffix = pipe_3000.spliterator();
+        Spliterator<String> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(3000, prefix.estimateSize() + suffix.estimateSize());
+        StringBuilder sb = new StringBuilder();
+        prefix.forEachRemaining(sb::append);
+        while (suffix.tryAdvance(sb::append)) {
+        }
+        assertEquals(pipe_3000.stream().collect(Collectors.joining()), sb.toString());
+    }
+
+    @org.junit.Test(expected = ConcurrentModificationException.class)
+    public void spliteratorFailFast() {
+        pipe_abc_6.stream().forEach(e -> pipe_abc_6.append("D"));
+    }
+
+    @org.junit.Test
+    public void forEachVisitsInOrder() {
+        pipe_abc_6.prepend("D");
+        StringBuilder sb = new StringBuilder();
+        pipe_abc_6.forEach(sb::append);
+        assertEquals("DABC", sb.toString());
+        assertEquals("[D, A, B, C]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test(expected = ConcurrentModificationException.class)
+    public void forEachFailFast() {
+        pipe_abc_6.forEach(e -> pipe_abc_6.append("D"));
+    }
+
+    @org.junit.Test(expected = NullPointerException.class)
+    public void forEachNull() {
+        pipe_abc_6.forEach(null);
+    }
+
+    @org.junit.Test
+    public void drainToConsumer() {
+        pipe_abc_6.prepend("D");
+        StringBuilder sb = new StringBuilder();
+        assertEquals(2, pipe_abc_6.drainTo(sb::append, 2));
+        assertEquals("DA", sb.toString());
+        assertEquals("[B, C]:6", pipe_abc_6.toString());
+        assertEquals(2, pipe_abc_6.drainTo(sb::append, 10));
+        assertEquals("DABC", sb.toString());
+        assertTrue(pipe_abc_6.isEmpty());
+        assertEquals(0, pipe_abc_6.drainTo(sb::append, 10));
+        pipe_abc_6.append("E");
+        assertEquals("[E]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void drainToConsumerThrows() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            pipe_abc_6.drainTo(e -> {
+                if (e.equals("B")) throw new UnsupportedOperationException();
+                sb.append(e);
+            }, 3);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertEquals("A", sb.toString());
+            assertEquals("[C]:6", pipe_abc_6.toString());
+        }
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void drainToConsumerNull() {
+        pipe_abc_6.drainTo((java.util.function.Consumer<String>) null, 1);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void drainToConsumerNegative() {
+        pipe_abc_6.drainTo(e -> { }, -1);
+    }
+
+    @org.junit.Test
+    public void drainToPipe() {
+        pipe_abc_6.prepend("D");
+        Pipe<String> pipe_3 = new ListPipe<>(3);
+        pipe_3.append("X");
+        assertEquals(2, pipe_abc_6.drainTo(pipe_3, 5));
+        assertEquals("[B, C]:6", pipe_abc_6.toString());
+        assertEquals("[X, D, A]:3", pipe_3.toString());
+        assertEquals(0, pipe_abc_6.drainTo(pipe_3, 5));
+        Pipe<String> other = new ListPipe<>(6);
+        assertEquals(1, pipe_abc_6.drainTo(other, 1));
+        assertEquals(1, pipe_abc_6.drainTo(other, 1));
+        assertEquals("[B, C]:6", other.toString());
+        assertTrue(pipe_abc_6.isEmpty());
+        pipe_abc_6.append("E");
+        assertEquals("[E]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void drainToPipeWrapped() {
+        Pipe<String> pipe_5 = new ListPipe<>(5);
+        for (int i = 0; i < 5; i++) {
+            pipe_5.append("E" + i);
+        }
+        pipe_5.removeFirst();
+        pipe_5.removeFirst();
+        pipe_5.append("E5");
+        pipe_5.append("E6");
+        Pipe<String> target = new ListPipe<>(5);
+        assertEquals(4, pipe_5.drainTo(target, 4));
+        assertEquals("[E2, E3, E4, E5]:5", target.toString());
+        assertEquals("[E6]:5", pipe_5.toString());
+        pipe_5.prepend("E1");
+        assertEquals("[E1, E6]:5", pipe_5.toString());
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void drainToPipeSelf() {
+        pipe_abc_6.drainTo(pipe_abc_6, 1);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void drainToPipeNull() {
+        pipe_abc_6.drainTo((Pipe<String>) null, 1);
+    }
+}
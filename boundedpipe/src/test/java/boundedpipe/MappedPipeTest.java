@@ -0,0 +1,269 @@
+package boundedpipe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class MappedPipeTest {
+
+    private static final RecordCodec<String> CHARS = new RecordCodec<String>() {
+        @Override
+        public int recordSize() {
+            return 2;
+        }
+
+        @Override
+        public void write(String element, ByteBuffer buffer, int offset) {
+            buffer.putChar(offset, element.charAt(0));
+        }
+
+        @Override
+        public String read(ByteBuffer buffer, int offset) {
+            return String.valueOf(buffer.getChar(offset));
+        }
+    };
+
+    @org.junit.Rule
+    public org.junit.rules.TemporaryFolder folder = new org.junit.rules.TemporaryFolder();
+
+    private Path file;
+    private Pipe<String> pipe_abc_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        file = folder.getRoot().toPath().resolve("abc.pipe");
+        pipe_abc_6 = new MappedPipe<>(file, 6, CHARS);
+        pipe_abc_6.append("A");
+        pipe_abc_6.append("B");
+        pipe_abc_6.append("C");
+    }
+
+    @org.junit.Test
+    public void prependAndAppend() {
+        pipe_abc_6.prepend("D");
+        pipe_abc_6.append("E");
+        assertEquals("D", pipe_abc_6.first());
+        assertEquals("E", pipe_abc_6.last());
+        assertEquals("[D, A, B, C, E]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void removeFirstAndLast() {
+        assertEquals("A", pipe_abc_6.removeFirst());
+        assertEquals("C", pipe_abc_6.removeLast());
+        assertEquals("[B]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void reopen() throws IOException {
+        pipe_abc_6.prepend("D");
+        pipe_abc_6.removeLast();
+        Pipe<String> reopened = new MappedPipe<>(file, 6, CHARS);
+        assertEquals("[D, A, B]:6", reopened.toString());
+        reopened.append("E");
+        assertEquals("E", reopened.last());
+    }
+
+    @org.junit.Test
+    public void reopenAfterClear() throws IOException {
+        pipe_abc_6.clear();
+        assertTrue(pipe_abc_6.isEmpty());
+        assertNull(pipe_abc_6.first());
+        assertTrue(new MappedPipe<>(file, 6, CHARS).isEmpty());
+    }
+
+    @org.junit.Test
+    public void wrapAround() throws IOException {
+        Pipe<String> pipe_3 = new MappedPipe<>(folder.getRoot().toPath().resolve("3.pipe"), 3, CHARS);
+        for (int i = 0; i < 10; i++) {
+            String element = String.valueOf((char) ('a' + i));
+            pipe_3.append(element);
+            if (pipe_3.isFull()) {
+                pipe_3.removeFirst();
+            }
+        }
+        assertEquals("[i, j]:3", pipe_3.toString());
+        ((MappedPipe<String>) pipe_3).force();
+        assertEquals(pipe_3, new MappedPipe<>(folder.getRoot().toPath().resolve("3.pipe"), 3, CHARS));
+    }
+
+    @org.junit.Test
+    public void newInstance() {
+        Pipe<String> newInstancePipe = pipe_abc_6.newInstance();
+        assertTrue(newInstancePipe instanceof MappedPipe);
+        assertEquals(6, newInstancePipe.capacity());
+        assertEquals(0, newInstancePipe.length());
+        assertNotEquals(file, ((MappedPipe<String>) newInstancePipe).file());
+        assertTrue(Files.exists(((MappedPipe<String>) newInstancePipe).file()));
+    }
+
+    @org.junit.Test
+    public void appendAll() {
+        Pipe<String> appendAll_pipe = new CircArrayPipe<>(2);
+        appendAll_pipe.append("D");
+        appendAll_pipe.append("E");
+        pipe_abc_6.appendAll(appendAll_pipe);
+        assertEquals("[A, B, C, D, E]:6", pipe_abc_6.toString());
+        assertTrue(appendAll_pipe.isEmpty());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void iterator() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        assertEquals("A", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("C", iterator.next());
+        iterator.next();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionCapacityMismatch() throws IOException {
+        new MappedPipe<>(file, 7, CHARS);
+    }
+
+    @org.junit.Test
+    public void capacityMismatchLeavesFile() throws IOException {
+        long size = Files.size(file);
+        try {
+            new MappedPipe<>(file, 1000, CHARS);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(size, Files.size(file));
+        }
+        assertEquals("[A, B, C]:6", new MappedPipe<>(file, 6, CHARS).toString());
+    }
+
+    @org.junit.Test(expected = IOException.class)
+    public void testIOExceptionNotAPipe() throws IOException {
+        Path other = folder.newFile("other.txt").toPath();
+        Files.write(other, "not a pipe".getBytes());
+        try {
+            new MappedPipe<>(other, 6, CHARS);
+        } finally {
+            assertEquals("not a pipe", Files.readString(other));
+        }
+    }
+
+    @org.junit.Test(expected = IOException.class)
+    public void testIOExceptionTruncated() throws IOException {
+        Path truncated = folder.getRoot().toPath().resolve("truncated.pipe");
+        new MappedPipe<>(truncated, 6, CHARS).close();
+        try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(70);
+        }
+        new MappedPipe<>(truncated, 6, CHARS);
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() throws IOException {
+        Pipe<String> pipe_1 = new MappedPipe<>(folder.getRoot().toPath().resolve("1.pipe"), 1, CHARS);
+        pipe_1.append("A");
+        pipe_1.append("B");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() throws IOException {
+        new MappedPipe<>(folder.getRoot().toPath().resolve("1.pipe"), 1, CHARS).removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppend() {
+        pipe_abc_6.append(null);
+    }
+
+    @org.junit.Test
+    public void descendingIterator() {
+        pipe_abc_6.prepend("D");
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        assertEquals("C", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("A", iterator.next());
+        assertEquals("D", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void descendingIteratorExhausted() {
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.descendingIterator().next();
+    }
+
+    @org.junit.Test(expected = ConcurrentModificationException.class)
+    public void iteratorFailFast() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        iterator.next();
+        pipe_abc_6.append("D");
+        iterator.next();
+    }
+
+    @org.junit.Test(expected = ConcurrentModificationException.class)
+    public void descendingIteratorFailFast() {
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        iterator.next();
+        pipe_abc_6.removeFirst();
+        iterator.next();
+    }
+
+    @org.junit.Test
+    public void copy() throws IOException {
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.append("D");
+        MappedPipe<String> copy = (MappedPipe<String>) pipe_abc_6.copy();
+        assertEquals("[B, C, D]:6", copy.toString());
+        assertNotEquals(file, copy.file());
+        copy.append("E");
+        assertEquals("[B, C, D]:6", pipe_abc_6.toString());
+        Path copyFile = copy.file();
+        copy.close();
+        assertFalse(Files.exists(copyFile));
+    }
+
+    @org.junit.Test
+    public void closeKeepsFile() throws IOException {
+        ((MappedPipe<String>) pipe_abc_6).close();
+        ((MappedPipe<String>) pipe_abc_6).close();
+        assertTrue(Files.exists(file));
+        assertEquals("[A, B, C]:6", new MappedPipe<>(file, 6, CHARS).toString());
+    }
+
+    @org.junit.Test
+    public void closeDeletesTemporaryFile() {
+        MappedPipe<String> newInstancePipe = (MappedPipe<String>) pipe_abc_6.newInstance();
+        Path newFile = newInstancePipe.file();
+        newInstancePipe.close();
+        assertFalse(Files.exists(newFile));
+    }
+
+    @org.junit.Test
+    public void delete() {
+        ((MappedPipe<String>) pipe_abc_6).delete();
+        assertFalse(Files.exists(file));
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionClosed() {
+        ((MappedPipe<String>) pipe_abc_6).close();
+        pipe_abc_6.first();
+    }
+
+    @org.junit.Test
+    public void prependWrapsAround() throws IOException {
+        Pipe<String> pipe_3 = new MappedPipe<>(folder.getRoot().toPath().resolve("p.pipe"), 3, CHARS);
+        pipe_3.prepend("A");
+        pipe_3.prepend("B");
+        pipe_3.append("C");
+        assertEquals("[B, A, C]:3", pipe_3.toString());
+        assertEquals("B", pipe_3.removeFirst());
+        assertEquals("C", pipe_3.removeLast());
+    }
+}
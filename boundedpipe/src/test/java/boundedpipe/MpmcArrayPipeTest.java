@@ -0,0 +1,301 @@
+package boundedpipe;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class MpmcArrayPipeTest {
+
+    private Pipe<String> pipe_abc_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_abc_6 = new MpmcArrayPipe<>(6);
+        pipe_abc_6.append("A");
+        pipe_abc_6.append("B");
+        pipe_abc_6.append("C");
+    }
+
+    @org.junit.Test
+    public void prepend() {
+        assertEquals(3, pipe_abc_6.length());
+        pipe_abc_6.prepend("D");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.first());
+        assertEquals("[D, A, B, C]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void append() {
+        assertEquals(3, pipe_abc_6.length());
+        pipe_abc_6.append("D");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void removeFirst() {
+        String first = pipe_abc_6.removeFirst();
+        assertEquals(2, pipe_abc_6.length());
+        assertEquals("A", first);
+        assertEquals("B", pipe_abc_6.first());
+    }
+
+    @org.junit.Test
+    public void removeLast() {
+        String last = pipe_abc_6.removeLast();
+        assertEquals(2, pipe_abc_6.length());
+        assertEquals("C", last);
+        assertEquals("B", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void length() {
+        Pipe<String> length_pipe = new MpmcArrayPipe<>(5);
+        assertEquals(0, length_pipe.length());
+        length_pipe.prepend("A");
+        length_pipe.prepend("B");
+        length_pipe.append("C");
+        length_pipe.prepend("D");
+        length_pipe.append("E");
+        assertEquals(5, length_pipe.length());
+        assertTrue(length_pipe.isFull());
+        assertEquals("[D, B, A, C, E]:5", length_pipe.toString());
+        length_pipe.removeFirst();
+        length_pipe.removeLast();
+        assertEquals(3, length_pipe.length());
+        assertEquals("[B, A, C]:5", length_pipe.toString());
+    }
+
+    @org.junit.Test
+    public void wrapAround() {
+        Pipe<Integer> pipe_3 = new MpmcArrayPipe<>(3);
+        for (int i = 0; i < 100; i++) {
+            pipe_3.append(i);
+            pipe_3.append(i + 1);
+            assertEquals(Integer.valueOf(i), pipe_3.removeFirst());
+            assertEquals(Integer.valueOf(i + 1), pipe_3.removeFirst());
+        }
+        assertTrue(pipe_3.isEmpty());
+    }
+
+    @org.junit.Test
+    public void exactCapacityAcrossWraps() {
+        Pipe<Integer> pipe_5 = new MpmcArrayPipe<>(5);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 50; round++) {
+            while (pipe_5.tryAppend(next)) {
+                next++;
+            }
+            assertEquals(5, pipe_5.length());
+            assertTrue(pipe_5.isFull());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(Integer.valueOf(expected++), pipe_5.pollFirst());
+            }
+        }
+        pipe_5.prepend(-1);
+        pipe_5.prepend(-2);
+        pipe_5.prepend(-3);
+        assertFalse(pipe_5.tryAppend(next));
+        assertEquals(Integer.valueOf(-3), pipe_5.removeFirst());
+        assertEquals(Integer.valueOf(next - 1), pipe_5.removeLast());
+        assertEquals("[-2, -1, " + expected + "]:5", pipe_5.toString());
+    }
+
+    @org.junit.Test
+    public void capacity() {
+        assertEquals(6, pipe_abc_6.capacity());
+        assertEquals(6, pipe_abc_6.newInstance().capacity());
+    }
+
+    @org.junit.Test
+    public void clear() {
+        pipe_abc_6.clear();
+        assertEquals(0, pipe_abc_6.length());
+        assertNull(pipe_abc_6.first());
+        assertNull(pipe_abc_6.last());
+        assertEquals("[]:6", pipe_abc_6.toString());
+        pipe_abc_6.append("D");
+        assertEquals("[D]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void appendAll() {
+        Pipe<String> appendAll_pipe = new MpmcArrayPipe<>(2);
+        appendAll_pipe.append("D");
+        appendAll_pipe.append("E");
+        pipe_abc_6.appendAll(appendAll_pipe);
+        assertEquals("[A, B, C, D, E]:6", pipe_abc_6.toString());
+        assertEquals(0, appendAll_pipe.length());
+    }
+
+    @org.junit.Test
+    public void testEqualsCircArrayPipe() {
+        Pipe<String> circ_abc_6 = new CircArrayPipe<>(6);
+        circ_abc_6.append("A");
+        circ_abc_6.append("B");
+        circ_abc_6.append("C");
+        assertEquals(circ_abc_6, pipe_abc_6);
+        assertEquals(circ_abc_6.hashCode(), pipe_abc_6.hashCode());
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionPrepend() {
+        Pipe<String> pipe_1 = new MpmcArrayPipe<>(1);
+        pipe_1.prepend("A");
+        pipe_1.prepend("B");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() {
+        Pipe<String> pipe_3 = new MpmcArrayPipe<>(3);
+        pipe_3.append("A");
+        pipe_3.append("B");
+        pipe_3.append("C");
+        pipe_3.append("D");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppendAfterPrepend() {
+        Pipe<String> pipe_2 = new MpmcArrayPipe<>(2);
+        pipe_2.append("A");
+        pipe_2.prepend("B");
+        pipe_2.append("C");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() {
+        Pipe<String> pipe_1 = new MpmcArrayPipe<>(1);
+        pipe_1.removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirstAfterRemoveLast() {
+        Pipe<String> pipe_1 = new MpmcArrayPipe<>(1);
+        pipe_1.append("A");
+        pipe_1.removeLast();
+        pipe_1.removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveLast() {
+        Pipe<String> pipe_1 = new MpmcArrayPipe<>(1);
+        pipe_1.removeLast();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppend() {
+        pipe_abc_6.append(null);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionCapacity() {
+        new MpmcArrayPipe<String>(-1);
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void iterator() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        assertEquals("A", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("C", iterator.next());
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionZeroCapacity() {
+        new MpmcArrayPipe<String>(0);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionCapacityTooLarge() {
+        new MpmcArrayPipe<String>((1 << 30) + 1);
+    }
+
+    @org.junit.Test(timeout = 20000)
+    public void producersConsumers() throws InterruptedException {
+        final int threads = 4;
+        final int perThread = 25_000;
+        final Pipe<Integer> pipe_8 = new MpmcArrayPipe<>(8);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicInteger removed = new AtomicInteger();
+        Thread[] workers = new Thread[2 * threads];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * perThread;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    boolean appended = false;
+                    while (!appended) {
+                        try {
+                            pipe_8.append(offset + i);
+                            appended = true;
+                        } catch (IllegalStateException full) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            workers[threads + t] = new Thread(() -> {
+                while (removed.get() < threads * perThread) {
+                    try {
+                        sum.addAndGet(pipe_8.removeFirst());
+                        removed.incrementAndGet();
+                    } catch (IllegalStateException empty) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long n = (long) threads * perThread;
+        assertEquals(n * (n - 1) / 2, sum.get());
+        assertEquals(n, removed.get());
+        assertTrue(pipe_8.isEmpty());
+    }
+
+    @org.junit.Test
+    public void tryAppendAndPollFirst() {
+        assertTrue(pipe_abc_6.tryAppend("D"));
+        assertTrue(pipe_abc_6.tryAppend("E"));
+        assertTrue(pipe_abc_6.tryAppend("F"));
+        assertFalse(pipe_abc_6.tryAppend("G"));
+        assertEquals("A", pipe_abc_6.pollFirst());
+        assertEquals("[B, C, D, E, F]:6", pipe_abc_6.toString());
+        pipe_abc_6.clear();
+        assertNull(pipe_abc_6.pollFirst());
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionTryAppend() {
+        pipe_abc_6.tryAppend(null);
+    }
+
+    @org.junit.Test
+    public void descendingIterator() {
+        pipe_abc_6.prepend("D");
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        assertEquals("C", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("A", iterator.next());
+        assertEquals("D", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void descendingIteratorExhausted() {
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.descendingIterator().next();
+    }
+}
@@ -0,0 +1,205 @@
+package boundedpipe;
+
+import java.nio.ByteBuffer;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class OffHeapPipeTest {
+
+    private static final RecordCodec<String> CHARS = new RecordCodec<String>() {
+        @Override
+        public int recordSize() {
+            return 4;
+        }
+
+        @Override
+        public void write(String element, ByteBuffer buffer, int offset) {
+            buffer.putChar(offset, element.charAt(0));
+            buffer.putChar(offset + 2, element.length() > 1 ? element.charAt(1) : 0);
+        }
+
+        @Override
+        public String read(ByteBuffer buffer, int offset) {
+            char second = buffer.getChar(offset + 2);
+            String first = String.valueOf(buffer.getChar(offset));
+            return second == 0 ? first : first + second;
+        }
+    };
+
+    private Pipe<String> pipe_abc_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_abc_6 = new OffHeapPipe<>(6, CHARS);
+        pipe_abc_6.append("A");
+        pipe_abc_6.append("B");
+        pipe_abc_6.append("C");
+    }
+
+    @org.junit.Test
+    public void prepend() {
+        pipe_abc_6.prepend("D");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.first());
+        assertEquals("[D, A, B, C]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void append() {
+        pipe_abc_6.append("DE");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("DE", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void removeFirstAndLast() {
+        assertEquals("A", pipe_abc_6.removeFirst());
+        assertEquals("C", pipe_abc_6.removeLast());
+        assertEquals("[B]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void wrapAroundSegments() {
+        Pipe<String> pipe_5 = new OffHeapPipe<>(5, CHARS, 8);
+        Pipe<String> expected_5 = new CircArrayPipe<>(5);
+        for (int i = 0; i < 20; i++) {
+            String element = String.valueOf((char) ('a' + i));
+            pipe_5.append(element);
+            expected_5.append(element);
+            if (pipe_5.isFull()) {
+                assertEquals(expected_5.removeFirst(), pipe_5.removeFirst());
+            }
+            pipe_5.prepend(element.toUpperCase());
+            expected_5.prepend(element.toUpperCase());
+            if (pipe_5.isFull()) {
+                assertEquals(expected_5.removeLast(), pipe_5.removeLast());
+            }
+            assertEquals(expected_5, pipe_5);
+        }
+        assertEquals(4, pipe_5.length());
+    }
+
+    @org.junit.Test
+    public void newInstance() {
+        Pipe<String> newInstancePipe = pipe_abc_6.newInstance();
+        assertTrue(newInstancePipe instanceof OffHeapPipe);
+        assertEquals(6, newInstancePipe.capacity());
+        assertEquals(0, newInstancePipe.length());
+    }
+
+    @org.junit.Test
+    public void clear() {
+        pipe_abc_6.clear();
+        assertTrue(pipe_abc_6.isEmpty());
+        assertNull(pipe_abc_6.first());
+        assertNull(pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void appendAll() {
+        Pipe<String> appendAll_pipe = new CircArrayPipe<>(2);
+        appendAll_pipe.append("D");
+        appendAll_pipe.append("E");
+        pipe_abc_6.appendAll(appendAll_pipe);
+        assertEquals("[A, B, C, D, E]:6", pipe_abc_6.toString());
+        assertTrue(appendAll_pipe.isEmpty());
+    }
+
+    @org.junit.Test
+    public void testEqualsCircArrayPipe() {
+        Pipe<String> circ_abc_6 = new CircArrayPipe<>(6);
+        circ_abc_6.append("A");
+        circ_abc_6.append("B");
+        circ_abc_6.append("C");
+        assertEquals(circ_abc_6, pipe_abc_6);
+        assertEquals(circ_abc_6.hashCode(), pipe_abc_6.hashCode());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void iterator() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        assertEquals("A", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("C", iterator.next());
+        iterator.next();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() {
+        Pipe<String> pipe_1 = new OffHeapPipe<>(1, CHARS);
+        pipe_1.append("A");
+        pipe_1.append("B");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() {
+        new OffHeapPipe<>(1, CHARS).removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppend() {
+        pipe_abc_6.append(null);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionCodec() {
+        new OffHeapPipe<String>(1, null);
+    }
+
+    @org.junit.Test
+    public void copyIsIndependent() {
+        Pipe<String> copy = pipe_abc_6.copy();
+        assertNotSame(pipe_abc_6, copy);
+        assertEquals(pipe_abc_6, copy);
+        copy.append("D");
+        pipe_abc_6.removeFirst();
+        assertEquals("[B, C]:6", pipe_abc_6.toString());
+        assertEquals("[A, B, C, D]:6", copy.toString());
+    }
+
+    @org.junit.Test
+    public void copyEmpty() {
+        Pipe<String> copy = new OffHeapPipe<>(2, CHARS).copy();
+        assertTrue(copy.isEmpty());
+        copy.append("A");
+        assertEquals("[A]:2", copy.toString());
+    }
+
+    @org.junit.Test
+    public void descendingIterator() {
+        pipe_abc_6.prepend("D");
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        assertEquals("C", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("A", iterator.next());
+        assertEquals("D", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void descendingIteratorExhausted() {
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.descendingIterator().next();
+    }
+
+    @org.junit.Test(expected = ConcurrentModificationException.class)
+    public void iteratorFailFast() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        iterator.next();
+        pipe_abc_6.append("D");
+        iterator.next();
+    }
+
+    @org.junit.Test(expected = ConcurrentModificationException.class)
+    public void descendingIteratorFailFast() {
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        iterator.next();
+        pipe_abc_6.removeFirst();
+        iterator.next();
+    }
+}
@@ -0,0 +1,169 @@
+package boundedpipe;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.Assert.*;
+
+public class PipeEventsTest {
+
+    private Pipe<String> pipe_abc_3;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_abc_3 = new CircArrayPipe<>(3);
+        pipe_abc_3.append("A");
+        pipe_abc_3.append("B");
+        pipe_abc_3.append("C");
+    }
+
+    private static List<RecordedEvent> events(Recording recording, String name) throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("boundedpipe", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(name))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @org.junit.Test
+    public void rejection() throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable("boundedpipe.Rejection");
+            recording.start();
+            assertFalse(pipe_abc_3.tryAppend("D"));
+            try {
+                pipe_abc_3.append("D");
+                fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            try {
+                new LinkedPipe<String>(1).removeLast();
+                fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            List<RecordedEvent> events = events(recording, "boundedpipe.Rejection");
+            assertEquals(2, events.size());
+            assertEquals("append", events.get(0).getString("operation"));
+            assertEquals(CircArrayPipe.class.getName(), events.get(0).getClass("pipeClass").getName());
+            assertEquals(3, events.get(0).getInt("length"));
+            assertEquals(3, events.get(0).getInt("capacity"));
+            assertEquals("removeLast", events.get(1).getString("operation"));
+            assertEquals(0, events.get(1).getInt("length"));
+        }
+    }
+
+    @org.junit.Test
+    public void bulkRejectionNamesOperation() throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable("boundedpipe.Rejection");
+            recording.start();
+            String[] src = {"D"};
+            for (Pipe<String> pipe : List.of(pipe_abc_3, new ListPipe<String>(0))) {
+                try {
+                    pipe.prependAll(src, 0, 1);
+                    fail();
+                } catch (IllegalStateException e) {
+                    // expected
+                }
+                try {
+                    pipe.appendAll(src, 0, 1);
+                    fail();
+                } catch (IllegalStateException e) {
+                    // expected
+                }
+            }
+            List<String> operations = events(recording, "boundedpipe.Rejection").stream()
+                    .map(e -> e.getString("operation"))
+                    .collect(Collectors.toList());
+            assertEquals(List.of("prependAll", "appendAll", "prependAll", "appendAll"), operations);
+        }
+    }
+
+    @org.junit.Test
+    public void disabledByDefault() throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.start();
+            try {
+                pipe_abc_3.append("D");
+                fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            pipe_abc_3.forEach(e -> { });
+            assertTrue(events(recording, "boundedpipe.Rejection").isEmpty());
+        }
+    }
+
+    @org.junit.Test
+    public void iteration() throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable("boundedpipe.Iteration").withThreshold(Duration.ZERO);
+            recording.start();
+            StringBuilder sb = new StringBuilder();
+            pipe_abc_3.forEach(sb::append);
+            new ListPipe<String>(2).forEach(sb::append);
+            assertEquals("ABC", sb.toString());
+            List<RecordedEvent> events = events(recording, "boundedpipe.Iteration");
+            assertEquals(2, events.size());
+            assertEquals(3, events.get(0).getInt("length"));
+            assertEquals(ListPipe.class.getName(), events.get(1).getClass("pipeClass").getName());
+        }
+    }
+
+    @org.junit.Test
+    public void transfer() throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable("boundedpipe.Transfer");
+            recording.start();
+            Pipe<String> circ = new CircArrayPipe<>(6);
+            circ.appendAll(pipe_abc_3);
+            Pipe<String> list = new ListPipe<>(6);
+            list.appendAll(circ);
+            List<RecordedEvent> events = events(recording, "boundedpipe.Transfer");
+            assertEquals(2, events.size());
+            assertEquals(3, events.get(0).getInt("count"));
+            assertTrue(events.get(0).getBoolean("bulk"));
+            assertEquals(ListPipe.class.getName(), events.get(1).getClass("targetClass").getName());
+            assertEquals(CircArrayPipe.class.getName(), events.get(1).getClass("sourceClass").getName());
+            assertFalse(events.get(1).getBoolean("bulk"));
+            assertEquals("[A, B, C]:6", list.toString());
+        }
+    }
+
+    @org.junit.Test
+    public void occupancy() throws IOException, InterruptedException {
+        PipeEvents.register("abc", pipe_abc_3);
+        try (Recording recording = new Recording()) {
+            recording.enable("boundedpipe.Occupancy").withPeriod(Duration.ofMillis(20));
+            recording.start();
+            Thread.sleep(200);
+            List<RecordedEvent> events = events(recording, "boundedpipe.Occupancy").stream()
+                    .filter(e -> "abc".equals(e.getString("name")))
+                    .collect(Collectors.toList());
+            assertFalse(events.isEmpty());
+            assertEquals(3, events.get(0).getInt("length"));
+            assertEquals(3, events.get(0).getInt("capacity"));
+        } finally {
+            PipeEvents.unregister("abc");
+        }
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void registerNull() {
+        PipeEvents.register("abc", null);
+    }
+}
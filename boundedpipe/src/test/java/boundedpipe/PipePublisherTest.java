@@ -0,0 +1,181 @@
+package boundedpipe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PipePublisherTest {
+
+    private PipePublisher<String> publisher_6;
+    private Recorder recorder;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        publisher_6 = new PipePublisher<>(6, Runnable::run, 2);
+        recorder = new Recorder();
+    }
+
+    private static class Recorder implements Flow.Subscriber<String> {
+
+        private final List<String> signals = new ArrayList<>();
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            signals.add("subscribe");
+        }
+
+        @Override
+        public void onNext(String item) {
+            signals.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signals.add(throwable.getClass().getSimpleName());
+        }
+
+        @Override
+        public void onComplete() {
+            signals.add("complete");
+        }
+    }
+
+    @org.junit.Test
+    public void deliversOnlyWhatIsRequested() throws Exception {
+        publisher_6.subscribe(recorder);
+        publisher_6.submit("A");
+        publisher_6.submit("B");
+        publisher_6.submit("C");
+        assertEquals(List.of("subscribe"), recorder.signals);
+        assertEquals(3, publisher_6.length());
+        recorder.subscription.request(2);
+        assertEquals(List.of("subscribe", "A", "B"), recorder.signals);
+        recorder.subscription.request(5);
+        publisher_6.submit("D");
+        assertEquals(List.of("subscribe", "A", "B", "C", "D"), recorder.signals);
+        assertEquals(0, publisher_6.length());
+    }
+
+    @org.junit.Test
+    public void offerToFullPipe() {
+        for (String s : new String[]{"A", "B", "C", "D", "E", "F"}) {
+            assertTrue(publisher_6.offer(s));
+        }
+        assertFalse(publisher_6.offer("G"));
+        publisher_6.subscribe(recorder);
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertEquals(List.of("subscribe", "A", "B", "C", "D", "E", "F"), recorder.signals);
+        assertTrue(publisher_6.offer("G"));
+        assertEquals("G", recorder.signals.get(7));
+    }
+
+    @org.junit.Test
+    public void closeCompletesAfterDelivery() throws Exception {
+        publisher_6.subscribe(recorder);
+        publisher_6.submit("A");
+        publisher_6.close();
+        assertTrue(publisher_6.isClosed());
+        assertEquals(List.of("subscribe"), recorder.signals);
+        recorder.subscription.request(1);
+        assertEquals(List.of("subscribe", "A", "complete"), recorder.signals);
+    }
+
+    @org.junit.Test
+    public void closeExceptionallyDiscards() throws Exception {
+        publisher_6.subscribe(recorder);
+        publisher_6.submit("A");
+        publisher_6.closeExceptionally(new ArithmeticException());
+        assertEquals(List.of("subscribe", "ArithmeticException"), recorder.signals);
+        assertEquals(0, publisher_6.length());
+    }
+
+    @org.junit.Test
+    public void nonPositiveRequest() {
+        publisher_6.subscribe(recorder);
+        recorder.subscription.request(0);
+        assertEquals(List.of("subscribe", "IllegalArgumentException"), recorder.signals);
+    }
+
+    @org.junit.Test
+    public void cancel() throws Exception {
+        publisher_6.subscribe(recorder);
+        publisher_6.submit("A");
+        recorder.subscription.cancel();
+        recorder.subscription.request(1);
+        assertEquals(List.of("subscribe"), recorder.signals);
+        assertTrue(publisher_6.isClosed());
+        assertEquals(0, publisher_6.length());
+    }
+
+    @org.junit.Test
+    public void secondSubscriberIsRefused() {
+        publisher_6.subscribe(recorder);
+        Recorder second = new Recorder();
+        publisher_6.subscribe(second);
+        assertEquals(List.of("subscribe", "IllegalStateException"), second.signals);
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void submitAfterClose() throws Exception {
+        publisher_6.close();
+        publisher_6.submit("A");
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void submitNull() throws Exception {
+        publisher_6.submit(null);
+    }
+
+    @org.junit.Test(expected = NullPointerException.class)
+    public void subscribeNull() {
+        publisher_6.subscribe(null);
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void toPipeSubscriber() throws Exception {
+        PipePublisher<Integer> publisher = new PipePublisher<>(4);
+        PipeSubscriber<Integer> subscriber = new PipeSubscriber<>(4);
+        publisher.subscribe(subscriber);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 1000; i++) {
+                    publisher.submit(i);
+                }
+                publisher.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Integer[] dst = new Integer[3];
+        int next = 0;
+        int taken;
+        while ((taken = subscriber.take(dst, dst.length)) != -1) {
+            for (int i = 0; i < taken; i++) {
+                assertEquals(next++, dst[i].intValue());
+            }
+        }
+        assertEquals(1000, next);
+        producer.join();
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void errorReachesPipeSubscriber() throws Exception {
+        PipePublisher<String> publisher = new PipePublisher<>(4);
+        PipeSubscriber<String> subscriber = new PipeSubscriber<>(4);
+        publisher.subscribe(subscriber);
+        publisher.closeExceptionally(new ArithmeticException());
+        try {
+            subscriber.take();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ArithmeticException);
+        }
+    }
+}
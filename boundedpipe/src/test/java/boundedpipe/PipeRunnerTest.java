@@ -0,0 +1,225 @@
+package boundedpipe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class PipeRunnerTest {
+
+    private static Supplier<Integer> counter(int count) {
+        int[] next = {0};
+        return () -> next[0] < count ? next[0]++ : null;
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void keepsOrder() throws Exception {
+        List<Integer> results = new ArrayList<>();
+        PipeRunner runner = new PipeRunner();
+        runner.run(4, counter(1000), results::add);
+        runner.join();
+        assertEquals(1000, results.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, results.get(i).intValue());
+        }
+        assertEquals(0, runner.running());
+    }
+
+    @org.junit.Test(timeout = 20000)
+    public void manyPairs() throws Exception {
+        AtomicLong sum = new AtomicLong();
+        PipeRunner runner = new PipeRunner();
+        for (int i = 0; i < 200; i++) {
+            runner.run(2, counter(50), x -> sum.addAndGet(x));
+        }
+        assertTrue(runner.join(15, TimeUnit.SECONDS));
+        assertEquals(200L * (49 * 50 / 2), sum.get());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void virtualThreads() throws Exception {
+        ThreadFactory factory;
+        try {
+            factory = PipeRunner.virtualThreadFactory();
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        AtomicInteger count = new AtomicInteger();
+        PipeRunner runner = new PipeRunner(factory);
+        for (int i = 0; i < 1000; i++) {
+            runner.run(1, counter(10), x -> count.incrementAndGet());
+        }
+        runner.join();
+        assertEquals(10000, count.get());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void threadFactory() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        PipeRunner runner = new PipeRunner(r -> {
+            created.incrementAndGet();
+            return new Thread(r);
+        });
+        runner.run(1, counter(3), x -> { });
+        runner.run(1, counter(3), x -> { });
+        runner.join();
+        assertEquals(4, created.get());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void executor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            AtomicInteger count = new AtomicInteger();
+            PipeRunner runner = new PipeRunner(executor);
+            runner.run(2, counter(100), x -> count.incrementAndGet());
+            runner.join();
+            assertEquals(100, count.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @org.junit.Test(timeout = 20000)
+    public void pooledThreadsAreNotLeftInterrupted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                PipeRunner failing = new PipeRunner(executor);
+                failing.run(1, () -> 1, x -> {
+                    throw new IllegalStateException();
+                });
+                try {
+                    failing.join();
+                    fail();
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException);
+                }
+                PipeRunner cancelled = new PipeRunner(executor);
+                CountDownLatch started = new CountDownLatch(1);
+                cancelled.run(1, () -> {
+                    started.countDown();
+                    return 1;
+                }, x -> { });
+                started.await();
+                cancelled.cancel();
+                try {
+                    cancelled.join();
+                    fail();
+                } catch (CancellationException e) {
+                    // expected
+                }
+                AtomicInteger count = new AtomicInteger();
+                PipeRunner runner = new PipeRunner(executor);
+                for (int i = 0; i < 5; i++) {
+                    runner.run(1, counter(20), x -> count.incrementAndGet());
+                }
+                runner.join();
+                assertEquals(100, count.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void failingConsumer() throws Exception {
+        PipeRunner runner = new PipeRunner();
+        AtomicInteger other = new AtomicInteger();
+        runner.run(2, () -> 1, x -> {
+            throw new IllegalStateException("boom");
+        });
+        runner.run(2, counter(10), x -> other.incrementAndGet());
+        try {
+            runner.join();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("boom", e.getCause().getMessage());
+        }
+        assertEquals(10, other.get());
+        assertEquals(0, runner.running());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void failingProducer() throws Exception {
+        PipeRunner runner = new PipeRunner();
+        runner.run(2, () -> {
+            throw new ArithmeticException();
+        }, x -> { });
+        try {
+            runner.join();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ArithmeticException);
+        }
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void cancel() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        PipeRunner runner = new PipeRunner();
+        runner.run(1, () -> {
+            started.countDown();
+            return 1;
+        }, x -> { });
+        started.await();
+        runner.cancel();
+        try {
+            runner.join();
+            fail();
+        } catch (CancellationException e) {
+            assertEquals(0, runner.running());
+        }
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void runAfterCancel() {
+        PipeRunner runner = new PipeRunner();
+        runner.cancel();
+        runner.run(1, counter(1), x -> { });
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void joinTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PipeRunner runner = new PipeRunner();
+        runner.run(1, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }, x -> { });
+        assertFalse(runner.join(50, TimeUnit.MILLISECONDS));
+        assertEquals(1, runner.running());
+        release.countDown();
+        assertTrue(runner.join(5, TimeUnit.SECONDS));
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void zeroCapacity() {
+        new PipeRunner().run(0, counter(1), x -> { });
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void nullProducer() {
+        new PipeRunner().run(1, null, x -> { });
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void nullThreadFactory() {
+        new PipeRunner((ThreadFactory) null);
+    }
+}
@@ -0,0 +1,167 @@
+package boundedpipe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+import static org.junit.Assert.*;
+
+public class PipeSubscriberTest {
+
+    private PipeSubscriber<String> subscriber_6;
+    private List<Long> requests;
+    private boolean cancelled;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        subscriber_6 = new PipeSubscriber<>(6, 2);
+        requests = new ArrayList<>();
+        cancelled = false;
+        subscriber_6.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requests.add(n);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+        });
+    }
+
+    @org.junit.Test
+    public void requestsCapacityOnSubscribe() {
+        assertEquals(List.of(6L), requests);
+        assertEquals(6, subscriber_6.capacity());
+    }
+
+    @org.junit.Test
+    public void requestsInBatches() throws Exception {
+        for (String s : new String[]{"A", "B", "C", "D"}) {
+            subscriber_6.onNext(s);
+        }
+        assertEquals(4, subscriber_6.length());
+        assertEquals("A", subscriber_6.take());
+        assertEquals(List.of(6L), requests);
+        assertEquals("B", subscriber_6.take());
+        assertEquals(List.of(6L, 2L), requests);
+        String[] dst = new String[4];
+        assertEquals(2, subscriber_6.take(dst, 4));
+        assertEquals("C", dst[0]);
+        assertEquals("D", dst[1]);
+        assertEquals(List.of(6L, 2L, 2L), requests);
+    }
+
+    @org.junit.Test
+    public void complete() throws Exception {
+        subscriber_6.onNext("A");
+        subscriber_6.onNext("B");
+        subscriber_6.onComplete();
+        assertEquals(2, subscriber_6.length());
+        String[] dst = new String[4];
+        assertEquals(2, subscriber_6.take(dst, 4));
+        assertEquals(-1, subscriber_6.take(dst, 4));
+        assertNull(subscriber_6.take());
+        assertNull(subscriber_6.take());
+        assertEquals(List.of(6L), requests);
+    }
+
+    @org.junit.Test
+    public void error() throws Exception {
+        subscriber_6.onNext("A");
+        subscriber_6.onError(new ArithmeticException());
+        assertEquals("A", subscriber_6.take());
+        for (int i = 0; i < 2; i++) {
+            try {
+                subscriber_6.take();
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ArithmeticException);
+            }
+        }
+    }
+
+    @org.junit.Test
+    public void tooManyElements() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            subscriber_6.onNext("A");
+        }
+        assertTrue(cancelled);
+        for (int i = 0; i < 6; i++) {
+            assertEquals("A", subscriber_6.take());
+        }
+        try {
+            subscriber_6.take();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @org.junit.Test(expected = CancellationException.class)
+    public void cancel() throws Exception {
+        subscriber_6.onNext("A");
+        subscriber_6.cancel();
+        assertTrue(cancelled);
+        assertEquals(0, subscriber_6.length());
+        subscriber_6.take();
+    }
+
+    @org.junit.Test
+    public void secondSubscriptionIsCancelled() {
+        boolean[] second = {false};
+        subscriber_6.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                fail();
+            }
+
+            @Override
+            public void cancel() {
+                second[0] = true;
+            }
+        });
+        assertTrue(second[0]);
+        assertFalse(cancelled);
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void submissionPublisher() throws Exception {
+        PipeSubscriber<Integer> subscriber = new PipeSubscriber<>(8);
+        Thread producer;
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(subscriber);
+            producer = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    publisher.submit(i);
+                }
+                publisher.close();
+            });
+            producer.start();
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, subscriber.take().intValue());
+            }
+            assertNull(subscriber.take());
+        }
+        producer.join();
+    }
+
+    @org.junit.Test(expected = NullPointerException.class)
+    public void nullElement() {
+        subscriber_6.onNext(null);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void batchLargerThanCapacity() {
+        new PipeSubscriber<String>(4, 5);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void zeroCapacity() {
+        new PipeSubscriber<String>(0);
+    }
+}
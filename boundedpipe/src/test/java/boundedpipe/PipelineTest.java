@@ -0,0 +1,285 @@
+package boundedpipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class PipelineTest {
+
+    @org.junit.Test(timeout = 10000)
+    public void singleWorkerStagesKeepOrder() throws Exception {
+        List<Integer> results = new ArrayList<>();
+        Pipeline<String, Integer> pipeline = Pipeline.<String>builder()
+                .batchSize(8)
+                .stage(Integer::parseInt, 1, 4)
+                .stage(x -> x * x, 1, 4)
+                .build(results::add, 4);
+        for (int i = 0; i < 100; i++) {
+            pipeline.submit(Integer.toString(i));
+        }
+        pipeline.complete();
+        pipeline.join();
+        assertEquals(100, results.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * i, results.get(i).intValue());
+        }
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void parallelStages() throws Exception {
+        AtomicLong sum = new AtomicLong();
+        AtomicInteger count = new AtomicInteger();
+        Pipeline<Integer, Long> pipeline = Pipeline.<Integer>builder()
+                .stage(x -> x + 1, 3, 16)
+                .stage(x -> (long) x * 2, 2, 16)
+                .build(x -> {
+                    sum.addAndGet(x);
+                    count.incrementAndGet();
+                }, 16);
+        Integer[] src = new Integer[1000];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = i;
+        }
+        pipeline.submitAll(src, 0, 500);
+        pipeline.submitAll(src, 500, 500);
+        pipeline.complete();
+        assertTrue(pipeline.join(5, TimeUnit.SECONDS));
+        assertEquals(1000, count.get());
+        assertEquals(2 * (999 * 1000 / 2 + 1000), sum.get());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void nullResultsAreDropped() throws Exception {
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .stage(x -> x % 2 == 0 ? x : null, 2, 8)
+                .build(results::add, 8);
+        for (int i = 0; i < 20; i++) {
+            pipeline.submit(i);
+        }
+        pipeline.complete();
+        pipeline.join();
+        assertEquals(10, results.size());
+        for (Integer result : results) {
+            assertEquals(0, result % 2);
+        }
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void backpressureBoundsElementsInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger submitted = new AtomicInteger();
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .batchSize(2)
+                .stage(x -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return x;
+                }, 1, 4)
+                .build(x -> { }, 4);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 100; i++) {
+                    pipeline.submit(i);
+                    submitted.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(200);
+        assertTrue(submitted.get() <= 4 + 2);
+        assertTrue(producer.isAlive());
+        release.countDown();
+        producer.join();
+        pipeline.complete();
+        pipeline.join();
+        assertEquals(100, submitted.get());
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void failingStage() throws Exception {
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .stage(x -> {
+                    if (x == 5) throw new ArithmeticException();
+                    return x;
+                }, 2, 4)
+                .build(x -> { }, 4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(i);
+            }
+            pipeline.complete();
+        } catch (IllegalStateException e) {
+            // the pipeline failed while elements were being submitted
+        }
+        try {
+            pipeline.join();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ArithmeticException);
+        }
+        try {
+            pipeline.submit(0);
+            fail();
+        } catch (IllegalStateException e) {
+            // failed pipelines reject submissions
+        }
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void failingStageWakesBlockedProducers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .<Integer>stage(x -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new ArithmeticException();
+                }, 1, 1)
+                .batchSize(1)
+                .build(x -> { }, 1);
+        pipeline.submit(0);
+        pipeline.submit(1);
+        List<Throwable> thrown = Collections.synchronizedList(new ArrayList<>());
+        Thread submitter = new Thread(() -> {
+            try {
+                pipeline.submitAll(new Integer[]{2, 3, 4}, 0, 3);
+            } catch (Throwable e) {
+                thrown.add(e);
+            }
+        });
+        Thread completer = new Thread(() -> {
+            try {
+                pipeline.complete();
+            } catch (Throwable e) {
+                thrown.add(e);
+            }
+        });
+        submitter.start();
+        while (submitter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        completer.start();
+        while (completer.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        submitter.join();
+        completer.join();
+        assertEquals(2, thrown.size());
+        for (Throwable e : thrown) {
+            assertTrue(e instanceof IllegalStateException);
+        }
+        try {
+            pipeline.join();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ArithmeticException);
+        }
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void failingSink() throws Exception {
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .stage(x -> x, 1, 4)
+                .build(x -> {
+                    throw new UnsupportedOperationException();
+                }, 4);
+        try {
+            pipeline.submit(1);
+        } catch (IllegalStateException e) {
+            // the sink may fail before submit returns
+        }
+        try {
+            pipeline.join();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof UnsupportedOperationException);
+        }
+    }
+
+    @org.junit.Test(timeout = 10000, expected = CancellationException.class)
+    public void cancel() throws Exception {
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .stage(x -> x, 1, 4)
+                .build(x -> { }, 4);
+        pipeline.submit(1);
+        pipeline.cancel();
+        pipeline.join();
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void joinTimesOut() throws Exception {
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .stage(x -> x, 1, 4)
+                .build(x -> { }, 4);
+        assertFalse(pipeline.join(50, TimeUnit.MILLISECONDS));
+        pipeline.complete();
+        assertTrue(pipeline.join(5, TimeUnit.SECONDS));
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void threadFactory() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .threadFactory(r -> {
+                    created.incrementAndGet();
+                    return new Thread(r);
+                })
+                .stage(x -> x, 2, 4)
+                .stage(x -> x, 3, 4)
+                .build(x -> { }, 4);
+        pipeline.complete();
+        pipeline.join();
+        assertEquals(2 + 3 + 1, created.get());
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void submitAfterComplete() throws Exception {
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .stage(x -> x, 1, 4)
+                .build(x -> { }, 4);
+        pipeline.complete();
+        pipeline.submit(1);
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void buildWithoutStages() {
+        Pipeline.<Integer>builder().build(x -> { }, 4);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void zeroParallelism() {
+        Pipeline.<Integer>builder().stage(x -> x, 0, 4);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void zeroCapacity() {
+        Pipeline.<Integer>builder().stage(x -> x, 1, 0);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void zeroBatchSize() {
+        Pipeline.<Integer>builder().batchSize(0);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void nullFunction() {
+        Pipeline.<Integer>builder().stage(null, 1, 4);
+    }
+}
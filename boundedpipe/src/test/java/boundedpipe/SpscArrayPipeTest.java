@@ -0,0 +1,261 @@
+package boundedpipe;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class SpscArrayPipeTest {
+
+    private Pipe<String> pipe_abc_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_abc_6 = new SpscArrayPipe<>(6);
+        pipe_abc_6.append("A");
+        pipe_abc_6.append("B");
+        pipe_abc_6.append("C");
+    }
+
+    @org.junit.Test
+    public void prepend() {
+        assertEquals(3, pipe_abc_6.length());
+        pipe_abc_6.prepend("D");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.first());
+        assertEquals("[D, A, B, C]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void append() {
+        assertEquals(3, pipe_abc_6.length());
+        pipe_abc_6.append("D");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void removeFirst() {
+        String first = pipe_abc_6.removeFirst();
+        assertEquals(2, pipe_abc_6.length());
+        assertEquals("A", first);
+        assertEquals("B", pipe_abc_6.first());
+    }
+
+    @org.junit.Test
+    public void removeLast() {
+        String last = pipe_abc_6.removeLast();
+        assertEquals(2, pipe_abc_6.length());
+        assertEquals("C", last);
+        assertEquals("B", pipe_abc_6.last());
+    }
+
+    @org.junit.Test
+    public void length() {
+        Pipe<String> length_pipe = new SpscArrayPipe<>(5);
+        assertEquals(0, length_pipe.length());
+        length_pipe.prepend("A");
+        length_pipe.prepend("B");
+        length_pipe.append("C");
+        length_pipe.prepend("D");
+        length_pipe.append("E");
+        assertEquals(5, length_pipe.length());
+        assertTrue(length_pipe.isFull());
+        assertEquals("[D, B, A, C, E]:5", length_pipe.toString());
+        length_pipe.removeFirst();
+        length_pipe.removeLast();
+        assertEquals(3, length_pipe.length());
+        assertEquals("[B, A, C]:5", length_pipe.toString());
+    }
+
+    @org.junit.Test
+    public void wrapAround() {
+        Pipe<Integer> pipe_3 = new SpscArrayPipe<>(3);
+        for (int i = 0; i < 100; i++) {
+            pipe_3.append(i);
+            pipe_3.append(i + 1);
+            assertEquals(Integer.valueOf(i), pipe_3.removeFirst());
+            assertEquals(Integer.valueOf(i + 1), pipe_3.removeFirst());
+        }
+        assertTrue(pipe_3.isEmpty());
+    }
+
+    @org.junit.Test
+    public void capacity() {
+        assertEquals(6, pipe_abc_6.capacity());
+        assertEquals(6, pipe_abc_6.newInstance().capacity());
+    }
+
+    @org.junit.Test
+    public void clear() {
+        pipe_abc_6.clear();
+        assertEquals(0, pipe_abc_6.length());
+        assertNull(pipe_abc_6.first());
+        assertNull(pipe_abc_6.last());
+        assertEquals("[]:6", pipe_abc_6.toString());
+        pipe_abc_6.append("D");
+        assertEquals("[D]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void appendAll() {
+        Pipe<String> appendAll_pipe = new SpscArrayPipe<>(2);
+        appendAll_pipe.append("D");
+        appendAll_pipe.append("E");
+        pipe_abc_6.appendAll(appendAll_pipe);
+        assertEquals("[A, B, C, D, E]:6", pipe_abc_6.toString());
+        assertEquals(0, appendAll_pipe.length());
+    }
+
+    @org.junit.Test
+    public void testEqualsCircArrayPipe() {
+        Pipe<String> circ_abc_6 = new CircArrayPipe<>(6);
+        circ_abc_6.append("A");
+        circ_abc_6.append("B");
+        circ_abc_6.append("C");
+        assertEquals(circ_abc_6, pipe_abc_6);
+        assertEquals(circ_abc_6.hashCode(), pipe_abc_6.hashCode());
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionPrepend() {
+        Pipe<String> pipe_1 = new SpscArrayPipe<>(1);
+        pipe_1.prepend("A");
+        pipe_1.prepend("B");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() {
+        Pipe<String> pipe_3 = new SpscArrayPipe<>(3);
+        pipe_3.append("A");
+        pipe_3.append("B");
+        pipe_3.append("C");
+        pipe_3.append("D");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppendAfterPrepend() {
+        Pipe<String> pipe_2 = new SpscArrayPipe<>(2);
+        pipe_2.append("A");
+        pipe_2.prepend("B");
+        pipe_2.append("C");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() {
+        Pipe<String> pipe_1 = new SpscArrayPipe<>(1);
+        pipe_1.removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirstAfterRemoveLast() {
+        Pipe<String> pipe_1 = new SpscArrayPipe<>(1);
+        pipe_1.append("A");
+        pipe_1.removeLast();
+        pipe_1.removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveLast() {
+        Pipe<String> pipe_1 = new SpscArrayPipe<>(1);
+        pipe_1.removeLast();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppend() {
+        pipe_abc_6.append(null);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionCapacity() {
+        new SpscArrayPipe<String>(-1);
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void iterator() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        assertEquals("A", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("C", iterator.next());
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    @org.junit.Test(timeout = 10000)
+    public void producerConsumer() throws InterruptedException {
+        final int count = 100_000;
+        final Pipe<Integer> pipe_16 = new SpscArrayPipe<>(16);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (pipe_16.isFull()) {
+                    Thread.yield();
+                }
+                pipe_16.append(i);
+            }
+        });
+        producer.start();
+        for (int i = 0; i < count; i++) {
+            while (pipe_16.isEmpty()) {
+                Thread.yield();
+            }
+            assertEquals(i, pipe_16.removeFirst().intValue());
+        }
+        producer.join();
+        assertTrue(pipe_16.isEmpty());
+    }
+
+    @org.junit.Test
+    public void tryAppendAndPollFirst() {
+        assertTrue(pipe_abc_6.tryAppend("D"));
+        assertTrue(pipe_abc_6.tryAppend("E"));
+        assertTrue(pipe_abc_6.tryAppend("F"));
+        assertFalse(pipe_abc_6.tryAppend("G"));
+        assertEquals("A", pipe_abc_6.pollFirst());
+        assertEquals("[B, C, D, E, F]:6", pipe_abc_6.toString());
+        pipe_abc_6.clear();
+        assertNull(pipe_abc_6.pollFirst());
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionTryAppend() {
+        pipe_abc_6.tryAppend(null);
+    }
+
+    @org.junit.Test
+    public void copyIsIndependent() {
+        Pipe<String> copy = pipe_abc_6.copy();
+        assertNotSame(pipe_abc_6, copy);
+        assertEquals(pipe_abc_6, copy);
+        copy.append("D");
+        pipe_abc_6.removeFirst();
+        assertEquals("[B, C]:6", pipe_abc_6.toString());
+        assertEquals("[A, B, C, D]:6", copy.toString());
+    }
+
+    @org.junit.Test
+    public void copyEmpty() {
+        Pipe<String> copy = new SpscArrayPipe<String>(2).copy();
+        assertTrue(copy.isEmpty());
+        copy.append("A");
+        assertEquals("[A]:2", copy.toString());
+    }
+
+    @org.junit.Test
+    public void descendingIterator() {
+        pipe_abc_6.prepend("D");
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        assertEquals("C", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("A", iterator.next());
+        assertEquals("D", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void descendingIteratorExhausted() {
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.descendingIterator().next();
+    }
+}
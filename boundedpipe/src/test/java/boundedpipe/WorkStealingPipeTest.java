@@ -0,0 +1,203 @@
+package boundedpipe;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class WorkStealingPipeTest {
+
+    private Pipe<String> pipe_abc_6;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        pipe_abc_6 = new WorkStealingPipe<>(6);
+        pipe_abc_6.append("A");
+        pipe_abc_6.append("B");
+        pipe_abc_6.append("C");
+    }
+
+    @org.junit.Test
+    public void ownerIsLastInFirstOut() {
+        assertEquals("C", pipe_abc_6.removeLast());
+        pipe_abc_6.append("D");
+        assertEquals("D", pipe_abc_6.removeLast());
+        assertEquals("B", pipe_abc_6.removeLast());
+        assertEquals("[A]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void thiefIsFirstInFirstOut() {
+        assertEquals("A", pipe_abc_6.removeFirst());
+        assertEquals("B", pipe_abc_6.removeFirst());
+        assertEquals("[C]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void prepend() {
+        pipe_abc_6.prepend("D");
+        assertEquals(4, pipe_abc_6.length());
+        assertEquals("D", pipe_abc_6.first());
+        assertEquals("[D, A, B, C]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void firstAndLast() {
+        assertEquals("A", pipe_abc_6.first());
+        assertEquals("C", pipe_abc_6.last());
+        Pipe<String> pipe_0 = new WorkStealingPipe<>(0);
+        assertNull(pipe_0.first());
+        assertNull(pipe_0.last());
+    }
+
+    @org.junit.Test
+    public void wrapAround() {
+        Pipe<Integer> pipe_3 = new WorkStealingPipe<>(3);
+        for (int i = 0; i < 100; i++) {
+            pipe_3.append(i);
+            pipe_3.append(i + 1);
+            pipe_3.append(i + 2);
+            assertTrue(pipe_3.isFull());
+            assertEquals(Integer.valueOf(i), pipe_3.removeFirst());
+            assertEquals(Integer.valueOf(i + 2), pipe_3.removeLast());
+            assertEquals(Integer.valueOf(i + 1), pipe_3.removeFirst());
+        }
+        assertTrue(pipe_3.isEmpty());
+    }
+
+    @org.junit.Test
+    public void clear() {
+        pipe_abc_6.clear();
+        assertTrue(pipe_abc_6.isEmpty());
+        assertEquals("[]:6", pipe_abc_6.toString());
+        pipe_abc_6.append("D");
+        assertEquals("[D]:6", pipe_abc_6.toString());
+    }
+
+    @org.junit.Test
+    public void newInstance() {
+        Pipe<String> newInstancePipe = pipe_abc_6.newInstance();
+        assertTrue(newInstancePipe instanceof WorkStealingPipe);
+        assertEquals(6, newInstancePipe.capacity());
+        assertEquals(0, newInstancePipe.length());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void iterator() {
+        Iterator<String> iterator = pipe_abc_6.iterator();
+        assertEquals("A", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("C", iterator.next());
+        iterator.next();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionAppend() {
+        Pipe<String> pipe_1 = new WorkStealingPipe<>(1);
+        pipe_1.append("A");
+        pipe_1.append("B");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionPrepend() {
+        Pipe<String> pipe_1 = new WorkStealingPipe<>(1);
+        pipe_1.append("A");
+        pipe_1.prepend("B");
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveFirst() {
+        Pipe<String> pipe_1 = new WorkStealingPipe<>(1);
+        pipe_1.removeFirst();
+    }
+
+    @org.junit.Test(expected = IllegalStateException.class)
+    public void testIllegalStateExceptionRemoveLast() {
+        Pipe<String> pipe_1 = new WorkStealingPipe<>(1);
+        pipe_1.append("A");
+        pipe_1.removeFirst();
+        pipe_1.removeLast();
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testIllegalArgumentExceptionAppend() {
+        pipe_abc_6.append(null);
+    }
+
+    @org.junit.Test(timeout = 20000)
+    public void ownerAndThieves() throws InterruptedException {
+        final int thieves = 3;
+        final int count = 100_000;
+        final Pipe<Integer> pipe_64 = new WorkStealingPipe<>(64);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicInteger taken = new AtomicInteger();
+        Thread[] workers = new Thread[thieves];
+        for (int t = 0; t < thieves; t++) {
+            workers[t] = new Thread(() -> {
+                while (taken.get() < count) {
+                    try {
+                        sum.addAndGet(pipe_64.removeFirst());
+                        taken.incrementAndGet();
+                    } catch (IllegalStateException empty) {
+                        Thread.yield();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (int i = 0; i < count; i++) {
+            while (pipe_64.isFull()) {
+                Thread.yield();
+            }
+            pipe_64.append(i);
+            if (i % 3 == 0) {
+                try {
+                    sum.addAndGet(pipe_64.removeLast());
+                    taken.incrementAndGet();
+                } catch (IllegalStateException stolen) {
+                }
+            }
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals((long) count * (count - 1) / 2, sum.get());
+        assertEquals(count, taken.get());
+        assertTrue(pipe_64.isEmpty());
+    }
+
+    @org.junit.Test
+    public void tryAppendAndPoll() {
+        assertTrue(pipe_abc_6.tryAppend("D"));
+        assertTrue(pipe_abc_6.tryAppend("E"));
+        assertTrue(pipe_abc_6.tryAppend("F"));
+        assertFalse(pipe_abc_6.tryAppend("G"));
+        assertEquals("A", pipe_abc_6.pollFirst());
+        assertEquals("F", pipe_abc_6.pollLast());
+        assertEquals("[B, C, D, E]:6", pipe_abc_6.toString());
+        pipe_abc_6.clear();
+        assertNull(pipe_abc_6.pollFirst());
+        assertNull(pipe_abc_6.pollLast());
+    }
+
+    @org.junit.Test
+    public void descendingIterator() {
+        pipe_abc_6.prepend("D");
+        Iterator<String> iterator = pipe_abc_6.descendingIterator();
+        assertEquals("C", iterator.next());
+        assertEquals("B", iterator.next());
+        assertEquals("A", iterator.next());
+        assertEquals("D", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @org.junit.Test(expected = NoSuchElementException.class)
+    public void descendingIteratorExhausted() {
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.removeFirst();
+        pipe_abc_6.descendingIterator().next();
+    }
+}